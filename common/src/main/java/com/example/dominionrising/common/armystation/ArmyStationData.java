@@ -1,29 +1,35 @@
 package com.example.dominionrising.common.armystation;
 
+import com.example.dominionrising.common.nation.NationRegistry;
+
 /**
  * Data container for Army Station block entity
- * Stores nation information for persistence
+ * Stores nation information for persistence; the nation is kept by its registry id, so the
+ * station still finds its nation after a rename
  */
 public class ArmyStationData {
-    private String nationId;
+    private int nationId;
     
     public ArmyStationData() {
-        this.nationId = "";
+        this.nationId = NationRegistry.NONE;
     }
     
-    public ArmyStationData(String nationId) {
-        this.nationId = nationId != null ? nationId : "";
+    public ArmyStationData(int nationId) {
+        this.nationId = nationId;
     }
     
-    public String getNationId() {
+    /**
+     * @return The nation id, or NationRegistry.NONE
+     */
+    public int getNationId() {
         return nationId;
     }
     
-    public void setNationId(String nationId) {
-        this.nationId = nationId != null ? nationId : "";
+    public void setNationId(int nationId) {
+        this.nationId = nationId;
     }
     
     public boolean hasNation() {
-        return !nationId.isEmpty();
+        return nationId != NationRegistry.NONE;
     }
 }
\ No newline at end of file
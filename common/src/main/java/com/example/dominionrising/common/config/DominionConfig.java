@@ -0,0 +1,97 @@
+package com.example.dominionrising.common.config;
+
+/**
+ * Server tuning switches for Dominion Rising
+ * Values are read once from JVM system properties (-Ddominionrising.&lt;key&gt;=value)
+ */
+public final class DominionConfig {
+
+    /**
+     * Keep unit state in the shared columnar UnitStore instead of one private row per unit
+     */
+    public static final boolean COLUMNAR_UNIT_STORE = bool("columnarUnitStore", true);
+
+    /**
+     * Cross-check UnitManager's incremental counters against a full scan after every change
+     */
+    public static final boolean VERIFY_UNIT_COUNTERS = bool("verifyUnitCounters", false);
+
+    /**
+     * Unit records and unit entities checked per server tick by the reconciliation pass
+     */
+    public static final int RECONCILE_BATCH_SIZE = integer("reconcileBatchSize", 256);
+
+    /**
+     * Maximum number of dead units waiting to be reaped; a full queue is drained inline
+     */
+    public static final int TOMBSTONE_QUEUE_CAPACITY = integer("tombstoneQueueCapacity", 4096);
+
+    /**
+     * Dead units reaped per server tick
+     */
+    public static final int REAP_BATCH_SIZE = integer("reapBatchSize", 128);
+
+    /**
+     * Journal size in bytes after which the journal is compacted into a new snapshot
+     */
+    public static final int JOURNAL_COMPACT_BYTES = integer("journalCompactBytes", 16 * 1024 * 1024);
+
+    /**
+     * Save every nation to its own shard file instead of rewriting one file holding all nations
+     */
+    public static final boolean NATION_SHARDS = bool("nationShards", true);
+
+    /**
+     * Ticks a shared sensing sample of a chunk section stays valid before units trigger a rescan
+     */
+    public static final int SENSING_INTERVAL = integer("sensingInterval", 10);
+
+    /**
+     * Run idle unit goals less often for units far from every player
+     */
+    public static final boolean AI_LOD = bool("aiLod", true);
+
+    /**
+     * Distance in blocks to the nearest player up to which units run all goals every tick
+     */
+    public static final int AI_LOD_NEAR_DISTANCE = integer("aiLodNearDistance", 32);
+
+    /**
+     * Distance in blocks to the nearest player beyond which units skip cosmetic goals
+     */
+    public static final int AI_LOD_FAR_DISTANCE = integer("aiLodFarDistance", 64);
+
+    /**
+     * Ticks between idle goal starts for units between the near and far distance
+     */
+    public static final int AI_LOD_MID_INTERVAL = integer("aiLodMidInterval", 4);
+
+    /**
+     * Ticks between idle goal starts for units beyond the far distance
+     */
+    public static final int AI_LOD_FAR_INTERVAL = integer("aiLodFarInterval", 20);
+
+    /**
+     * Freeze the AI of units whose nation has no member online, unless they are fighting or defending against a threat
+     */
+    public static final boolean HIBERNATE_OFFLINE_NATIONS = bool("hibernateOfflineNations", true);
+
+    private DominionConfig() {}
+
+    private static boolean bool(String key, boolean defaultValue) {
+        String value = System.getProperty("dominionrising." + key);
+        return value == null ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
+    private static int integer(String key, int defaultValue) {
+        String value = System.getProperty("dominionrising." + key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.dominionrising.common.nation;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * Immutable list of members in join order that shares structure between versions
+ * Each member is keyed by its join number; the list is a treap on those numbers with subtree sizes,
+ * so appending a member, removing one by join number and reading by index copy or visit
+ * O(log members) nodes.
+ */
+final class MemberOrder {
+    static final MemberOrder EMPTY = new MemberOrder(null);
+
+    private final Node root;
+
+    private MemberOrder(Node root) {
+        this.root = root;
+    }
+
+    int size() {
+        return Node.size(root);
+    }
+
+    /**
+     * @param joined A join number greater than every number already in the list
+     * @return A list with the member appended
+     */
+    MemberOrder append(long joined, UUID member) {
+        return new MemberOrder(append(root, new Node(joined, member, priority(joined), null, null)));
+    }
+
+    /**
+     * @return A list without the member of that join number; this list if there is none
+     */
+    MemberOrder remove(long joined) {
+        Node newRoot = remove(root, joined);
+        return newRoot == root ? this : new MemberOrder(newRoot);
+    }
+
+    UUID get(int index) {
+        Node node = root;
+        while (node != null) {
+            int leftSize = Node.size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.member;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+        throw new IndexOutOfBoundsException();
+    }
+
+    /**
+     * @return A read-only List view in join order
+     */
+    List<UUID> asList() {
+        return new ListView(this);
+    }
+
+    private static Node append(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (added.priority > node.priority) {
+            // Every existing number is smaller, so the whole subtree goes left of the new node
+            return new Node(added.joined, added.member, added.priority, node, null);
+        }
+        return node.withChildren(node.left, append(node.right, added));
+    }
+
+    private static Node remove(Node node, long joined) {
+        if (node == null) {
+            return null;
+        }
+        if (joined < node.joined) {
+            Node left = remove(node.left, joined);
+            return left == node.left ? node : node.withChildren(left, node.right);
+        }
+        if (joined > node.joined) {
+            Node right = remove(node.right, joined);
+            return right == node.right ? node : node.withChildren(node.left, right);
+        }
+        return merge(node.left, node.right);
+    }
+
+    /**
+     * Join two treaps where every number in the first is smaller than every number in the second
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            return left.withChildren(left.left, merge(left.right, right));
+        }
+        return right.withChildren(merge(left, right.left), right.right);
+    }
+
+    /**
+     * Pseudo-random but deterministic heap priority, which keeps the treap balanced on average
+     */
+    private static int priority(long joined) {
+        long z = joined + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return (int) (z ^ (z >>> 31));
+    }
+
+    private static final class Node {
+        final long joined;
+        final UUID member;
+        final int priority;
+        final Node left;
+        final Node right;
+        final int size;
+
+        Node(long joined, UUID member, int priority, Node left, Node right) {
+            this.joined = joined;
+            this.member = member;
+            this.priority = priority;
+            this.left = left;
+            this.right = right;
+            this.size = size(left) + size(right) + 1;
+        }
+
+        Node withChildren(Node newLeft, Node newRight) {
+            return new Node(joined, member, priority, newLeft, newRight);
+        }
+
+        static int size(Node node) {
+            return node == null ? 0 : node.size;
+        }
+    }
+
+    private static final class ListView extends AbstractList<UUID> {
+        private final MemberOrder order;
+
+        ListView(MemberOrder order) {
+            this.order = order;
+        }
+
+        @Override
+        public UUID get(int index) {
+            if (index < 0) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return order.get(index);
+        }
+
+        @Override
+        public int size() {
+            return order.size();
+        }
+
+        /**
+         * In-order walk, O(1) amortized per member instead of a descent per index
+         */
+        @Override
+        public Iterator<UUID> iterator() {
+            return new Iterator<>() {
+                private final Deque<Node> stack = new ArrayDeque<>();
+
+                {
+                    pushLeft(order.root);
+                }
+
+                private void pushLeft(Node node) {
+                    while (node != null) {
+                        stack.push(node);
+                        node = node.left;
+                    }
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return !stack.isEmpty();
+                }
+
+                @Override
+                public UUID next() {
+                    if (stack.isEmpty()) {
+                        throw new NoSuchElementException();
+                    }
+                    Node node = stack.pop();
+                    pushLeft(node.right);
+                    return node.member;
+                }
+            };
+        }
+    }
+}
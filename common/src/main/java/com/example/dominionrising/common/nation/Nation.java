@@ -1,45 +1,104 @@
 package com.example.dominionrising.common.nation;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 
 /**
  * Represents a nation with members, leader, roles, and balance
+ * All mutable state lives in one immutable State value that every change replaces atomically, so
+ * reads never lock and always see a consistent nation, whichever thread changed it. Membership is
+ * kept in persistent (structure-sharing) collections: a hash trie of roles, one per role for the
+ * members holding it, and a join-order treap for the member list. Membership and role checks are
+ * O(log32 members), and a join, leave or role change copies only the paths it touches, O(log members),
+ * instead of copying every collection of the nation.
+ * The name and the registry id sit outside the state: NationManager renames, NationRegistry assigns ids.
  */
 public class Nation {
-    private final String name;
-    private UUID leader;
-    private final List<UUID> members;
-    private final Map<UUID, NationRole> memberRoles;
-    private double balance;
+    private static final NationRole[] ROLES = NationRole.values();
+    
+    private volatile String name;
+    private volatile int id = NationRegistry.NONE;
+    private final AtomicReference<State> state;
     
     public Nation(String name, UUID leader) {
         this.name = name;
-        this.leader = leader;
-        this.members = new ArrayList<>();
-        this.memberRoles = new HashMap<>();
-        this.members.add(leader); // Leader is also a member
-        this.memberRoles.put(leader, NationRole.LEADER);
-        this.balance = 0.0;
+        this.state = new AtomicReference<>(State.create(leader, Collections.singletonMap(leader, NationRole.LEADER), 0.0));
+    }
+    
+    private Nation(String name, int id, State state) {
+        this.name = name;
+        this.id = id;
+        this.state = new AtomicReference<>(state);
+    }
+    
+    /**
+     * Build a nation from saved data, keeping the saved member order, at version 0
+     * @param memberRoles Members in the order to keep, with their roles; the leader is added if missing
+     */
+    public static Nation restore(String name, UUID leader, double balance, Map<UUID, NationRole> memberRoles) {
+        Map<UUID, NationRole> ordered = new LinkedHashMap<>();
+        ordered.put(leader, NationRole.LEADER); // Leader is always a member, listed first
+        for (Map.Entry<UUID, NationRole> entry : memberRoles.entrySet()) {
+            ordered.putIfAbsent(entry.getKey(), entry.getValue());
+        }
+        return new Nation(name, NationRegistry.NONE, State.create(leader, ordered, balance));
     }
     
     public String getName() {
         return name;
     }
     
+    /**
+     * Get the stable id units, entities and synced data use to refer to this nation
+     * @return The id, or NationRegistry.NONE if the nation was never registered
+     */
+    public int getId() {
+        return id;
+    }
+    
+    /**
+     * Set the id (saved data, or NationRegistry on first registration)
+     */
+    void assignId(int id) {
+        this.id = id;
+    }
+    
+    /**
+     * Change the name; only NationManager does this, together with its name index and the registry
+     */
+    void rename(String newName) {
+        this.name = newName;
+    }
+    
+    /**
+     * Get the current state; everything read from one state is consistent
+     * @return The immutable state as of now
+     */
+    public State getState() {
+        return state.get();
+    }
+    
     public UUID getLeader() {
-        return leader;
+        return state.get().leader;
     }
     
     public void setLeader(UUID leader) {
-        this.leader = leader;
+        update(current -> current.withLeader(leader));
     }
     
+    /**
+     * Get all members, leader first
+     * @return An immutable snapshot
+     */
     public List<UUID> getMembers() {
-        return new ArrayList<>(members); // Return copy to prevent external modification
+        return state.get().getMembers();
     }
     
     public boolean addMember(UUID playerId) {
@@ -47,84 +106,96 @@ public class Nation {
     }
     
     public boolean addMember(UUID playerId, NationRole role) {
-        if (!members.contains(playerId)) {
-            members.add(playerId);
-            memberRoles.put(playerId, role);
-            return true;
-        }
-        return false;
+        return update(current -> current.isMember(playerId) ? null : current.withMember(playerId, role));
     }
     
     public boolean removeMember(UUID playerId) {
-        if (!playerId.equals(leader)) { // Can't remove leader
-            memberRoles.remove(playerId);
-            return members.remove(playerId);
-        }
-        return false;
+        // Can't remove leader
+        return update(current -> playerId.equals(current.leader) || !current.isMember(playerId)
+                ? null : current.withoutMember(playerId));
     }
     
     public boolean isMember(UUID playerId) {
-        return members.contains(playerId);
+        return state.get().isMember(playerId);
     }
     
     public boolean isLeader(UUID playerId) {
-        return leader.equals(playerId);
+        return state.get().leader.equals(playerId);
     }
     
     public double getBalance() {
-        return balance;
+        return state.get().balance;
     }
     
     public void setBalance(double balance) {
-        this.balance = balance;
+        update(current -> current.withBalance(balance));
     }
     
     public void addToBalance(double amount) {
-        this.balance += amount;
+        update(current -> current.withBalance(current.balance + amount));
     }
     
     public boolean subtractFromBalance(double amount) {
-        if (balance >= amount) {
-            balance -= amount;
-            return true;
-        }
-        return false;
+        return update(current -> current.balance >= amount ? current.withBalance(current.balance - amount) : null);
     }
     
     public int getMemberCount() {
-        return members.size();
+        return state.get().getMemberCount();
     }
     
     /**
      * Get the role of a specific member
      */
     public NationRole getMemberRole(UUID playerId) {
-        return memberRoles.getOrDefault(playerId, NationRole.CITIZEN);
+        return state.get().getMemberRole(playerId);
     }
     
     /**
      * Set the role of a specific member
      */
     public boolean setMemberRole(UUID playerId, NationRole role) {
-        if (isMember(playerId) && !playerId.equals(leader)) {
-            memberRoles.put(playerId, role);
-            return true;
-        }
-        return false;
+        return update(current -> !current.isMember(playerId) || playerId.equals(current.leader)
+                ? null : current.withRole(playerId, role));
+    }
+    
+    /**
+     * Get the change counter of this nation
+     * @return A value that changes whenever the nation's persisted state changes
+     */
+    public long getVersion() {
+        return state.get().version;
+    }
+    
+    /**
+     * Copy this nation, including its id and version (used for save snapshots)
+     * The copy shares the current immutable state, so this is O(1)
+     * @return An independent nation with the same state
+     */
+    public Nation copy() {
+        return new Nation(name, id, state.get());
     }
     
     /**
      * Get all members with their roles
+     * @return An immutable snapshot
      */
     public Map<UUID, NationRole> getMemberRoles() {
-        return new HashMap<>(memberRoles);
+        return state.get().getMemberRoles();
+    }
+    
+    /**
+     * Get the members holding a role
+     * @return An immutable snapshot
+     */
+    public Set<UUID> getMembersWithRole(NationRole role) {
+        return state.get().getMembersWithRole(role);
     }
     
     /**
      * Count members by role
      */
     public long countMembersByRole(NationRole role) {
-        return memberRoles.values().stream().filter(r -> r == role).count();
+        return state.get().countMembersByRole(role);
     }
     
     /**
@@ -135,16 +206,177 @@ public class Nation {
         return playerRole.getPriority() >= minimumRole.getPriority();
     }
     
+    /**
+     * Replace the state, retrying if another thread changed it in between
+     * @param change Computes the next state, or null to leave the state as it is
+     * @return true if the state was replaced
+     */
+    private boolean update(UnaryOperator<State> change) {
+        while (true) {
+            State current = state.get();
+            State next = change.apply(current);
+            if (next == null) {
+                return false;
+            }
+            if (state.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+    
     @Override
     public String toString() {
+        State current = state.get();
         return "Nation{" +
                 "name='" + name + '\'' +
-                ", leader=" + leader +
-                ", members=" + members.size() +
-                ", leaders=" + countMembersByRole(NationRole.LEADER) +
-                ", commanders=" + countMembersByRole(NationRole.COMMANDER) +
-                ", citizens=" + countMembersByRole(NationRole.CITIZEN) +
-                ", balance=" + balance +
+                ", id=" + id +
+                ", leader=" + current.leader +
+                ", members=" + current.getMemberCount() +
+                ", leaders=" + current.countMembersByRole(NationRole.LEADER) +
+                ", commanders=" + current.countMembersByRole(NationRole.COMMANDER) +
+                ", citizens=" + current.countMembersByRole(NationRole.CITIZEN) +
+                ", balance=" + current.balance +
                 '}';
     }
+    
+    /**
+     * Immutable state of a nation at one point in time
+     * Changes build a new state; the member structures are persistent, so a new state shares all but
+     * the changed path with the previous one.
+     */
+    public static final class State {
+        private final UUID leader;
+        private final MemberOrder members; // In join order, leader first
+        private final PersistentMap<UUID, NationRole> memberRoles;
+        private final PersistentMap<UUID, Long> joined; // Member -> join number in members
+        private final List<PersistentMap<UUID, Boolean>> roleMembers; // By role ordinal
+        private final long nextJoin;
+        private final double balance;
+    
+        // Bumped on every change so saves can skip nations that did not change
+        private final long version;
+    
+        private State(UUID leader, MemberOrder members, PersistentMap<UUID, NationRole> memberRoles,
+                      PersistentMap<UUID, Long> joined, List<PersistentMap<UUID, Boolean>> roleMembers, long nextJoin,
+                      double balance, long version) {
+            this.leader = leader;
+            this.members = members;
+            this.memberRoles = memberRoles;
+            this.joined = joined;
+            this.roleMembers = roleMembers;
+            this.nextJoin = nextJoin;
+            this.balance = balance;
+            this.version = version;
+        }
+    
+        private static State create(UUID leader, Map<UUID, NationRole> memberRoles, double balance) {
+            List<PersistentMap<UUID, Boolean>> byRole = new ArrayList<>(ROLES.length);
+            for (int i = 0; i < ROLES.length; i++) {
+                byRole.add(PersistentMap.empty());
+            }
+            State state = new State(leader, MemberOrder.EMPTY, PersistentMap.empty(), PersistentMap.empty(),
+                    Collections.unmodifiableList(byRole), 0, balance, 0);
+            for (Map.Entry<UUID, NationRole> entry : memberRoles.entrySet()) {
+                state = state.withMember(entry.getKey(), entry.getValue());
+            }
+            return state.withVersion(0);
+        }
+    
+        public UUID getLeader() {
+            return leader;
+        }
+    
+        /**
+         * @return All members, leader first
+         */
+        public List<UUID> getMembers() {
+            return members.asList();
+        }
+    
+        public Map<UUID, NationRole> getMemberRoles() {
+            return memberRoles.asMap();
+        }
+    
+        public Set<UUID> getMembersWithRole(NationRole role) {
+            return roleMembers.get(role.ordinal()).asMap().keySet();
+        }
+    
+        public int countMembersByRole(NationRole role) {
+            return roleMembers.get(role.ordinal()).size();
+        }
+    
+        public int getMemberCount() {
+            return memberRoles.size();
+        }
+    
+        public boolean isMember(UUID playerId) {
+            return memberRoles.containsKey(playerId);
+        }
+    
+        public NationRole getMemberRole(UUID playerId) {
+            NationRole role = memberRoles.get(playerId);
+            return role != null ? role : NationRole.CITIZEN;
+        }
+    
+        public double getBalance() {
+            return balance;
+        }
+    
+        public long getVersion() {
+            return version;
+        }
+    
+        private State withVersion(long newVersion) {
+            return new State(leader, members, memberRoles, joined, roleMembers, nextJoin, balance, newVersion);
+        }
+    
+        private State withLeader(UUID newLeader) {
+            return new State(newLeader, members, memberRoles, joined, roleMembers, nextJoin, balance, version + 1);
+        }
+    
+        private State withBalance(double newBalance) {
+            return new State(leader, members, memberRoles, joined, roleMembers, nextJoin, newBalance, version + 1);
+        }
+    
+        /**
+         * O(log members): only the paths to the new member are copied
+         */
+        private State withMember(UUID playerId, NationRole role) {
+            return new State(leader, members.append(nextJoin, playerId), memberRoles.plus(playerId, role),
+                    joined.plus(playerId, nextJoin), withRoleMember(roleMembers, role, playerId, true), nextJoin + 1,
+                    balance, version + 1);
+        }
+    
+        /**
+         * O(log members): only the paths to the removed member are copied
+         */
+        private State withoutMember(UUID playerId) {
+            NationRole role = memberRoles.get(playerId);
+            return new State(leader, members.remove(joined.get(playerId)), memberRoles.minus(playerId),
+                    joined.minus(playerId), withRoleMember(roleMembers, role, playerId, false), nextJoin, balance,
+                    version + 1);
+        }
+    
+        private State withRole(UUID playerId, NationRole role) {
+            NationRole previous = memberRoles.get(playerId);
+            if (previous == role) {
+                return withVersion(version + 1);
+            }
+            List<PersistentMap<UUID, Boolean>> newRoleMembers = withRoleMember(roleMembers, previous, playerId, false);
+            newRoleMembers = withRoleMember(newRoleMembers, role, playerId, true);
+            return new State(leader, members, memberRoles.plus(playerId, role), joined, newRoleMembers, nextJoin,
+                    balance, version + 1);
+        }
+    
+        /**
+         * Replace only the member set of the given role; the others are shared
+         */
+        private static List<PersistentMap<UUID, Boolean>> withRoleMember(List<PersistentMap<UUID, Boolean>> roleMembers,
+                                                                       NationRole role, UUID playerId, boolean add) {
+            List<PersistentMap<UUID, Boolean>> copy = new ArrayList<>(roleMembers);
+            PersistentMap<UUID, Boolean> members = roleMembers.get(role.ordinal());
+            copy.set(role.ordinal(), add ? members.plus(playerId, Boolean.TRUE) : members.minus(playerId));
+            return Collections.unmodifiableList(copy);
+        }
+    }
 }
\ No newline at end of file
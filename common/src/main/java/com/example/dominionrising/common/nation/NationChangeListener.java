@@ -0,0 +1,46 @@
+package com.example.dominionrising.common.nation;
+
+import java.util.UUID;
+
+/**
+ * Receives every successful change NationManager makes, e.g. to journal them between saves
+ * Called on the thread that made the change
+ */
+public interface NationChangeListener {
+
+    /**
+     * @param nation The new nation
+     */
+    void onNationCreated(Nation nation);
+
+    /**
+     * @param nation The nation joined
+     * @param player The new member
+     */
+    void onMemberJoined(Nation nation, UUID player);
+
+    /**
+     * Called when a member leaves or is kicked
+     * @param nation The nation left
+     * @param player The former member
+     */
+    void onMemberLeft(Nation nation, UUID player);
+
+    /**
+     * @param nation The nation
+     * @param player The member
+     * @param role The member's new role
+     */
+    void onRoleChanged(Nation nation, UUID player, NationRole role);
+
+    /**
+     * @param nation The nation, already carrying its new name
+     * @param oldName The name it had before
+     */
+    void onNationRenamed(Nation nation, String oldName);
+
+    /**
+     * @param nationName Name of the removed nation
+     */
+    void onNationDisbanded(String nationName);
+}
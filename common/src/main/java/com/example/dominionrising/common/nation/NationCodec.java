@@ -0,0 +1,349 @@
+package com.example.dominionrising.common.nation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Versioned binary format for nation persistence, replacing the DOMINION_RISING_DATA_V1 text format
+ *
+ * Everything after the header is a sequence of tagged fields: varint tag, varint length, payload.
+ * A decoder skips tags it does not know and ignores bytes appended to a known field's payload, so new
+ * fields (treasury history, relations, territory, ...) can be added under new tags, or appended to
+ * existing ones, without breaking older worlds or older versions of the mod.
+ * VERSION only changes for layout changes that skipping cannot cover.
+ *
+ * Layout (version 1):
+ *   byte 0, bytes 'D' 'R' 'N'       -- magic; the text format never starts with a zero byte
+ *   varint version
+ *   fields until END:
+ *     ROLES     varint count, count x string               -- role names referenced by index below
+ *     NATION    fields until END:
+ *                 NAME     string
+ *                 LEADER   long most, long least
+ *                 BALANCE  double
+ *                 MEMBERS  varint count, count x (long most, long least, varint roleIndex)
+ *                 ID       varint nation id (see NationRegistry); missing in data from before ids
+ *     MAPPINGS  varint count, count x (long most, long least, string nationName)
+ *   string = varint length, UTF-8 bytes
+ */
+public final class NationCodec {
+    public static final int VERSION = 1;
+
+    private static final byte[] MAGIC = { 0, 'D', 'R', 'N' };
+
+    // Tags are shared by all levels; 0 ends the current level
+    private static final int END = 0;
+    private static final int ROLES = 1;
+    private static final int NATION = 2;
+    private static final int MAPPINGS = 3;
+    private static final int NAME = 1;
+    private static final int LEADER = 2;
+    private static final int BALANCE = 3;
+    private static final int MEMBERS = 4;
+    private static final int ID = 5;
+
+    // Largest field payload accepted, so a corrupt length cannot make the decoder allocate gigabytes
+    private static final int MAX_FIELD_LENGTH = 16 * 1024 * 1024;
+
+    private static final NationRole[] ROLE_VALUES = NationRole.values();
+
+    private NationCodec() {}
+
+    /**
+     * Check whether data starts with this format's magic, as opposed to the V1 text format
+     * @param data At least the first four bytes of the data
+     */
+    public static boolean isBinary(byte[] data) {
+        if (data.length < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (data[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Encode nations and player mappings into the current binary format
+     * @return Encoded bytes
+     */
+    public static byte[] encode(Map<String, Nation> nations, Map<UUID, String> playerToNation) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + nations.size() * 128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.write(MAGIC);
+            writeVarInt(out, VERSION);
+
+            // Roles by name, so reordering or adding enum constants keeps old data readable
+            ByteArrayOutputStream field = new ByteArrayOutputStream(256);
+            DataOutputStream fieldOut = new DataOutputStream(field);
+            writeVarInt(fieldOut, ROLE_VALUES.length);
+            for (NationRole role : ROLE_VALUES) {
+                writeString(fieldOut, role.name());
+            }
+            writeField(out, ROLES, field);
+
+            ByteArrayOutputStream nation = new ByteArrayOutputStream(256);
+            DataOutputStream nationOut = new DataOutputStream(nation);
+            for (Nation value : nations.values()) {
+                nation.reset();
+                encodeNation(nationOut, value, field, fieldOut);
+                writeField(out, NATION, nation);
+            }
+
+            field.reset();
+            writeVarInt(fieldOut, playerToNation.size());
+            for (Map.Entry<UUID, String> entry : playerToNation.entrySet()) {
+                writeUuid(fieldOut, entry.getKey());
+                writeString(fieldOut, entry.getValue());
+            }
+            writeField(out, MAPPINGS, field);
+
+            writeVarInt(out, END);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            // ByteArrayOutputStream does not throw
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void encodeNation(DataOutputStream out, Nation nation, ByteArrayOutputStream field,
+                                     DataOutputStream fieldOut) throws IOException {
+        Nation.State state = nation.getState();
+        field.reset();
+        writeString(fieldOut, nation.getName());
+        writeField(out, NAME, field);
+
+        field.reset();
+        writeUuid(fieldOut, state.getLeader());
+        writeField(out, LEADER, field);
+
+        field.reset();
+        fieldOut.writeDouble(state.getBalance());
+        writeField(out, BALANCE, field);
+
+        field.reset();
+        Map<UUID, NationRole> roles = state.getMemberRoles();
+        List<UUID> members = state.getMembers();
+        writeVarInt(fieldOut, members.size());
+        for (UUID member : members) {
+            writeUuid(fieldOut, member);
+            writeVarInt(fieldOut, roles.getOrDefault(member, NationRole.CITIZEN).ordinal());
+        }
+        writeField(out, MEMBERS, field);
+
+        if (nation.getId() != NationRegistry.NONE) {
+            field.reset();
+            writeVarInt(fieldOut, nation.getId());
+            writeField(out, ID, field);
+        }
+
+        writeVarInt(out, END);
+    }
+
+    /**
+     * Decode data written by encode
+     * @throws IOException if the data is truncated, corrupt or from a newer incompatible version
+     */
+    public static NationDataSerializer.NationData decode(byte[] data) throws IOException {
+        return decode(new ByteArrayInputStream(data));
+    }
+
+    /**
+     * Decode data written by encode from a stream
+     * @throws IOException if the data is truncated, corrupt or from a newer incompatible version
+     */
+    public static NationDataSerializer.NationData decode(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        if (!isBinary(magic)) {
+            throw new IOException("Not binary nation data");
+        }
+        int version = readVarInt(in);
+        if (version > VERSION) {
+            throw new IOException("Unsupported nation data version " + version);
+        }
+
+        Map<String, Nation> nations = new HashMap<>();
+        Map<UUID, String> playerToNation = new HashMap<>();
+        NationRole[] roles = ROLE_VALUES;
+        int tag;
+        while ((tag = readVarInt(in)) != END) {
+            DataInputStream field = readField(in);
+            switch (tag) {
+                case ROLES: {
+                    roles = new NationRole[readCount(field)];
+                    for (int i = 0; i < roles.length; i++) {
+                        roles[i] = role(readString(field));
+                    }
+                    break;
+                }
+                case NATION:
+                    decodeNation(field, roles, nations);
+                    break;
+                case MAPPINGS: {
+                    int count = readCount(field);
+                    for (int i = 0; i < count; i++) {
+                        playerToNation.put(readUuid(field), readString(field));
+                    }
+                    break;
+                }
+                default:
+                    // Unknown field from a newer version, already read past
+            }
+        }
+        return new NationDataSerializer.NationData(nations, playerToNation);
+    }
+
+    private static void decodeNation(DataInputStream in, NationRole[] roles, Map<String, Nation> nations) throws IOException {
+        String name = null;
+        UUID leader = null;
+        double balance = 0.0;
+        int id = NationRegistry.NONE;
+        Map<UUID, NationRole> members = new LinkedHashMap<>();
+
+        int tag;
+        while ((tag = readVarInt(in)) != END) {
+            DataInputStream field = readField(in);
+            switch (tag) {
+                case NAME:
+                    name = readString(field);
+                    break;
+                case LEADER:
+                    leader = readUuid(field);
+                    break;
+                case BALANCE:
+                    balance = field.readDouble();
+                    break;
+                case MEMBERS: {
+                    int count = readCount(field);
+                    for (int i = 0; i < count; i++) {
+                        UUID member = readUuid(field);
+                        int roleIndex = readVarInt(field);
+                        members.put(member, roleIndex < roles.length ? roles[roleIndex] : NationRole.CITIZEN);
+                    }
+                    break;
+                }
+                case ID:
+                    id = readVarInt(field);
+                    break;
+                default:
+                    // Unknown field from a newer version, already read past
+            }
+        }
+
+        if (name == null || leader == null) {
+            return;
+        }
+        Nation nation = Nation.restore(name, leader, balance, members);
+        if (id >= 0) {
+            nation.assignId(id);
+        }
+        nations.put(name.toLowerCase(), nation);
+    }
+
+    /**
+     * Resolve a stored role name; roles removed since the data was written fall back to citizen
+     */
+    private static NationRole role(String name) {
+        for (NationRole role : ROLE_VALUES) {
+            if (role.name().equals(name)) {
+                return role;
+            }
+        }
+        return NationRole.CITIZEN;
+    }
+
+    private static void writeField(DataOutputStream out, int tag, ByteArrayOutputStream payload) throws IOException {
+        writeVarInt(out, tag);
+        writeVarInt(out, payload.size());
+        payload.writeTo(out);
+    }
+
+    /**
+     * Read a field's payload, so the field is consumed whole however much of it the decoder understands
+     * @return A stream over the payload
+     */
+    private static DataInputStream readField(DataInputStream in) throws IOException {
+        int length = readVarInt(in);
+        if (length < 0 || length > MAX_FIELD_LENGTH) {
+            throw new IOException("Invalid field length " + length);
+        }
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return new DataInputStream(new ByteArrayInputStream(payload));
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, utf8.length);
+        out.write(utf8);
+    }
+
+    /**
+     * Read a string from a field payload; the payload is in memory, so its length bounds the string's
+     */
+    private static String readString(DataInputStream in) throws IOException {
+        int length = readVarInt(in);
+        if (length < 0 || length > in.available()) {
+            throw new IOException("Invalid string length " + length);
+        }
+        byte[] utf8 = new byte[length];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read an element count from a field payload; every element takes at least one byte of it
+     */
+    private static int readCount(DataInputStream in) throws IOException {
+        int count = readVarInt(in);
+        if (count < 0 || count > in.available()) {
+            throw new IOException("Invalid element count " + count);
+        }
+        return count;
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("VarInt too long");
+    }
+}
@@ -1,12 +1,17 @@
 package com.example.dominionrising.common.nation;
 
+import com.example.dominionrising.common.util.LineReader;
+
+import java.io.Reader;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
 
 /**
  * Utility class for serializing and deserializing nation data for persistence
- * Uses a simple string-based format for compatibility
+ * Uses a simple string-based format for compatibility; world saves now use NationCodec,
+ * this format is still read from older saves and the legacy SavedData
  */
 public class NationDataSerializer {
     
@@ -23,14 +28,15 @@ public class NationDataSerializer {
         sb.append("NATIONS_START\n");
         for (Map.Entry<String, Nation> entry : nations.entrySet()) {
             Nation nation = entry.getValue();
+            Nation.State state = nation.getState();
             sb.append("NATION:").append(nation.getName()).append("\n");
-            sb.append("LEADER:").append(nation.getLeader().toString()).append("\n");
-            sb.append("BALANCE:").append(nation.getBalance()).append("\n");
+            sb.append("LEADER:").append(state.getLeader().toString()).append("\n");
+            sb.append("BALANCE:").append(state.getBalance()).append("\n");
             
             // Serialize members and roles
             sb.append("MEMBERS_START\n");
-            for (UUID member : nation.getMembers()) {
-                NationRole role = nation.getMemberRole(member);
+            for (UUID member : state.getMembers()) {
+                NationRole role = state.getMemberRole(member);
                 sb.append("MEMBER:").append(member.toString()).append(":").append(role.name()).append("\n");
             }
             sb.append("MEMBERS_END\n");
@@ -50,90 +56,87 @@ public class NationDataSerializer {
     
     /**
      * Deserialize nation data from string format
+     * Lines are read as views into the text, so no line array is built
+     */
+    public static NationData deserializeNations(CharSequence data) {
+        return deserializeNations(new LineReader(data));
+    }
+    
+    /**
+     * Deserialize nation data from a stream without reading it into memory first
      */
-    public static NationData deserializeNations(String data) {
+    public static NationData deserializeNations(Reader data) {
+        return deserializeNations(new LineReader(data));
+    }
+    
+    private static NationData deserializeNations(LineReader reader) {
         Map<String, Nation> nations = new HashMap<>();
         Map<UUID, String> playerToNation = new HashMap<>();
         
-        String[] lines = data.split("\n");
-        int i = 0;
-        
         // Check header
-        if (i < lines.length && lines[i].equals("DOMINION_RISING_DATA_V1")) {
-            i++;
-        } else {
+        CharSequence line = reader.nextLine();
+        if (line == null || !LineReader.equals(line, "DOMINION_RISING_DATA_V1")) {
             return new NationData(nations, playerToNation); // Invalid format, return empty
         }
         
-        // Parse nations
-        while (i < lines.length) {
-            if (lines[i].equals("NATIONS_START")) {
-                i++;
-                while (i < lines.length && !lines[i].equals("NATIONS_END")) {
-                    if (lines[i].startsWith("NATION:")) {
-                        String nationName = lines[i].substring(7);
-                        i++;
-                        
-                        UUID leader = null;
-                        double balance = 0.0;
-                        Map<UUID, NationRole> members = new HashMap<>();
-                        
-                        // Parse nation data
-                        while (i < lines.length && !lines[i].equals("NATION_END")) {
-                            if (lines[i].startsWith("LEADER:")) {
-                                leader = UUID.fromString(lines[i].substring(7));
-                            } else if (lines[i].startsWith("BALANCE:")) {
-                                balance = Double.parseDouble(lines[i].substring(8));
-                            } else if (lines[i].equals("MEMBERS_START")) {
-                                i++;
-                                while (i < lines.length && !lines[i].equals("MEMBERS_END")) {
-                                    if (lines[i].startsWith("MEMBER:")) {
-                                        String[] parts = lines[i].substring(7).split(":");
-                                        UUID memberUuid = UUID.fromString(parts[0]);
-                                        NationRole role = NationRole.valueOf(parts[1]);
-                                        members.put(memberUuid, role);
-                                    }
-                                    i++;
-                                }
-                            }
-                            i++;
-                        }
-                        
-                        // Create nation
-                        if (leader != null) {
-                            Nation nation = new Nation(nationName, leader);
-                            nation.setBalance(balance);
-                            
-                            // Add other members
-                            for (Map.Entry<UUID, NationRole> memberEntry : members.entrySet()) {
-                                if (!memberEntry.getKey().equals(leader)) {
-                                    nation.addMember(memberEntry.getKey(), memberEntry.getValue());
-                                }
-                            }
-                            
-                            nations.put(nationName.toLowerCase(), nation);
-                        }
+        while ((line = reader.nextLine()) != null) {
+            if (LineReader.equals(line, "NATIONS_START")) {
+                // Parse nations
+                while ((line = reader.nextLine()) != null && !LineReader.equals(line, "NATIONS_END")) {
+                    if (LineReader.startsWith(line, "NATION:")) {
+                        readNation(reader, LineReader.substring(line, 7, line.length()), nations);
                     }
-                    i++;
                 }
-            } else if (lines[i].equals("PLAYER_MAPPINGS_START")) {
-                i++;
-                while (i < lines.length && !lines[i].equals("PLAYER_MAPPINGS_END")) {
-                    if (lines[i].startsWith("MAPPING:")) {
-                        String[] parts = lines[i].substring(8).split(":");
-                        UUID uuid = UUID.fromString(parts[0]);
-                        String nationName = parts[1];
+            } else if (LineReader.equals(line, "PLAYER_MAPPINGS_START")) {
+                while ((line = reader.nextLine()) != null && !LineReader.equals(line, "PLAYER_MAPPINGS_END")) {
+                    if (LineReader.startsWith(line, "MAPPING:")) {
+                        int end = LineReader.indexOf(line, ':', 8);
+                        UUID uuid = UUID.fromString(LineReader.substring(line, 8, end));
+                        int nameEnd = LineReader.indexOf(line, ':', end + 1);
+                        String nationName = LineReader.substring(line, end + 1, nameEnd < 0 ? line.length() : nameEnd);
                         playerToNation.put(uuid, nationName);
                     }
-                    i++;
                 }
             }
-            i++;
         }
         
         return new NationData(nations, playerToNation);
     }
     
+    /**
+     * Parse one nation block, up to and including its NATION_END line
+     */
+    private static void readNation(LineReader reader, String nationName, Map<String, Nation> nations) {
+        UUID leader = null;
+        double balance = 0.0;
+        Map<UUID, NationRole> members = new LinkedHashMap<>();
+        
+        // Parse nation data
+        CharSequence line;
+        while ((line = reader.nextLine()) != null && !LineReader.equals(line, "NATION_END")) {
+            if (LineReader.startsWith(line, "LEADER:")) {
+                leader = UUID.fromString(LineReader.substring(line, 7, line.length()));
+            } else if (LineReader.startsWith(line, "BALANCE:")) {
+                balance = Double.parseDouble(LineReader.substring(line, 8, line.length()));
+            } else if (LineReader.equals(line, "MEMBERS_START")) {
+                while ((line = reader.nextLine()) != null && !LineReader.equals(line, "MEMBERS_END")) {
+                    if (LineReader.startsWith(line, "MEMBER:")) {
+                        int end = LineReader.indexOf(line, ':', 7);
+                        UUID memberUuid = UUID.fromString(LineReader.substring(line, 7, end));
+                        int roleEnd = LineReader.indexOf(line, ':', end + 1);
+                        NationRole role = NationRole.valueOf(LineReader.substring(line, end + 1, roleEnd < 0 ? line.length() : roleEnd));
+                        members.put(memberUuid, role);
+                    }
+                }
+            }
+        }
+        
+        // Create nation
+        if (leader != null) {
+            nations.put(nationName.toLowerCase(), Nation.restore(nationName, leader, balance, members));
+        }
+    }
+    
     /**
      * Data container for deserialized nation data
      */
@@ -4,16 +4,36 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * Manages nations and their members
  * Provides thread-safe operations for nation creation and management
+ *
+ * Reads never lock: the maps are concurrent and each Nation's state is an immutable value.
+ * Every change that touches more than one nation field or map runs through transaction(), which
+ * serializes writers, so check-then-act sequences cannot interleave. Inside a transaction the maps
+ * are updated in an order that keeps lock-free readers consistent: a player is only mapped to a
+ * nation that lists them as a member.
+ *
+ * Players map to nation ids, which NationRegistry resolves to the nation without a lowercased-name
+ * lookup; only lookups by name go through the lowercase name index.
  */
 public class NationManager {
     private static NationManager instance;
     
     private final Map<String, Nation> nations;
-    private final Map<UUID, String> playerToNation;
+    private final Map<UUID, Integer> playerToNation;
+    private final NationRegistry registry = NationRegistry.getInstance();
+    
+    // Notified about every successful change, or null; called inside the transaction, so in commit order
+    private volatile NationChangeListener changeListener;
+    
+    // Held by every transaction
+    private final Object writeLock = new Object();
+    
+    // Bumped by every change to who is in which nation with which role (written inside transactions only)
+    private volatile long membershipVersion;
     
     private NationManager() {
         this.nations = new ConcurrentHashMap<>();
@@ -46,22 +66,32 @@ public class NationManager {
             return NationResult.error("Nation name cannot be longer than 32 characters");
         }
         
-        // Check if nation already exists (case insensitive)
-        if (nations.containsKey(name.toLowerCase())) {
-            return NationResult.error("Nation with name '" + name + "' already exists");
-        }
-        
-        // Check if player is already in a nation
-        if (playerToNation.containsKey(player)) {
-            return NationResult.error("You are already a member of nation '" + playerToNation.get(player) + "'");
-        }
-        
-        // Create the nation
-        Nation nation = new Nation(name, player);
-        nations.put(name.toLowerCase(), nation);
-        playerToNation.put(player, name);
-        
-        return NationResult.success("Nation '" + name + "' created successfully! You are now the leader.");
+        return transaction(() -> {
+            // Check if nation already exists (case insensitive)
+            if (nations.containsKey(name.toLowerCase())) {
+                return NationResult.error("Nation with name '" + name + "' already exists");
+            }
+            
+            // Check if player is already in a nation
+            Integer current = playerToNation.get(player);
+            if (current != null) {
+                return NationResult.error("You are already a member of nation '" + registry.getName(current) + "'");
+            }
+            
+            // Create the nation; publish it before mapping the leader to it
+            Nation nation = new Nation(name, player);
+            registry.register(nation);
+            nations.put(name.toLowerCase(), nation);
+            playerToNation.put(player, nation.getId());
+            
+            membershipVersion++;
+            NationChangeListener listener = changeListener;
+            if (listener != null) {
+                listener.onNationCreated(nation);
+            }
+            
+            return NationResult.success("Nation '" + name + "' created successfully! You are now the leader.");
+        });
     }
     
     /**
@@ -75,24 +105,32 @@ public class NationManager {
             return NationResult.error("Nation name cannot be empty");
         }
         
-        // Check if player is already in a nation
-        if (playerToNation.containsKey(player)) {
-            return NationResult.error("You are already a member of nation '" + playerToNation.get(player) + "'");
-        }
-        
-        // Find the nation (case insensitive)
-        Nation nation = nations.get(nationName.toLowerCase());
-        if (nation == null) {
-            return NationResult.error("Nation '" + nationName + "' does not exist");
-        }
-        
-        // Add player to nation
-        if (nation.addMember(player)) {
-            playerToNation.put(player, nation.getName());
-            return NationResult.success("Successfully joined nation '" + nation.getName() + "'!");
-        } else {
-            return NationResult.error("Failed to join nation '" + nationName + "' (already a member?)");
-        }
+        return transaction(() -> {
+            // Check if player is already in a nation
+            Integer current = playerToNation.get(player);
+            if (current != null) {
+                return NationResult.error("You are already a member of nation '" + registry.getName(current) + "'");
+            }
+            
+            // Find the nation (case insensitive)
+            Nation nation = nations.get(nationName.toLowerCase());
+            if (nation == null) {
+                return NationResult.error("Nation '" + nationName + "' does not exist");
+            }
+            
+            // Add player to nation, then map them to it
+            if (nation.addMember(player)) {
+                playerToNation.put(player, nation.getId());
+                membershipVersion++;
+                NationChangeListener listener = changeListener;
+                if (listener != null) {
+                    listener.onMemberJoined(nation, player);
+                }
+                return NationResult.success("Successfully joined nation '" + nation.getName() + "'!");
+            } else {
+                return NationResult.error("Failed to join nation '" + nationName + "' (already a member?)");
+            }
+        });
     }
     
     /**
@@ -101,28 +139,29 @@ public class NationManager {
      * @return Result of the operation
      */
     public NationResult leaveNation(UUID player) {
-        String currentNationName = playerToNation.get(player);
-        if (currentNationName == null) {
-            return NationResult.error("You are not a member of any nation");
-        }
-        
-        Nation nation = nations.get(currentNationName.toLowerCase());
-        if (nation == null) {
-            // Clean up inconsistent state
-            playerToNation.remove(player);
-            return NationResult.error("Your nation no longer exists");
-        }
-        
-        if (nation.isLeader(player)) {
-            return NationResult.error("Leaders cannot leave their nation. Transfer leadership first or disband the nation");
-        }
-        
-        if (nation.removeMember(player)) {
-            playerToNation.remove(player);
-            return NationResult.success("Successfully left nation '" + nation.getName() + "'");
-        } else {
-            return NationResult.error("Failed to leave nation");
-        }
+        return transaction(() -> {
+            Integer currentNationId = playerToNation.get(player);
+            if (currentNationId == null) {
+                return NationResult.error("You are not a member of any nation");
+            }
+            
+            Nation nation = registry.getNation(currentNationId);
+            if (nation == null) {
+                // Clean up inconsistent state
+                playerToNation.remove(player);
+                return NationResult.error("Your nation no longer exists");
+            }
+            
+            if (nation.isLeader(player)) {
+                return NationResult.error("Leaders cannot leave their nation. Transfer leadership first or disband the nation");
+            }
+            
+            if (removeMember(nation, player)) {
+                return NationResult.success("Successfully left nation '" + nation.getName() + "'");
+            } else {
+                return NationResult.error("Failed to leave nation");
+            }
+        });
     }
     
     /**
@@ -131,33 +170,95 @@ public class NationManager {
      * @return Result of the operation
      */
     public NationResult disbandNation(UUID player) {
-        String currentNationName = playerToNation.get(player);
-        if (currentNationName == null) {
-            return NationResult.error("You are not a member of any nation");
-        }
-        
-        Nation nation = nations.get(currentNationName.toLowerCase());
-        if (nation == null) {
-            // Clean up inconsistent state
-            playerToNation.remove(player);
-            return NationResult.error("Your nation no longer exists");
-        }
-        
-        NationRole playerRole = nation.getMemberRole(player);
-        if (!playerRole.canDisband()) {
-            return NationResult.error("Only nation leaders can disband the nation");
+        return transaction(() -> {
+            Integer currentNationId = playerToNation.get(player);
+            if (currentNationId == null) {
+                return NationResult.error("You are not a member of any nation");
+            }
+            
+            Nation nation = registry.getNation(currentNationId);
+            if (nation == null) {
+                // Clean up inconsistent state
+                playerToNation.remove(player);
+                return NationResult.error("Your nation no longer exists");
+            }
+            
+            NationRole playerRole = nation.getMemberRole(player);
+            if (!playerRole.canDisband()) {
+                return NationResult.error("Only nation leaders can disband the nation");
+            }
+            
+            String nationName = nation.getName();
+            removeNation(nationName);
+            
+            return NationResult.success("Nation '" + nationName + "' has been disbanded successfully");
+        });
+    }
+    
+    /**
+     * Rename the current nation (only leaders can do this)
+     * Units, entities and synced data refer to the nation by id, so nothing else has to change.
+     * @param player The player who wants to rename their nation
+     * @param newName The new name
+     * @return Result of the operation
+     */
+    public NationResult renameNation(UUID player, String newName) {
+        if (newName == null || newName.trim().isEmpty()) {
+            return NationResult.error("Nation name cannot be empty");
         }
         
-        // Remove all members from the nation mapping
-        for (UUID member : nation.getMembers()) {
-            playerToNation.remove(member);
+        if (newName.length() > 32) {
+            return NationResult.error("Nation name cannot be longer than 32 characters");
         }
         
-        // Remove the nation itself
-        String nationName = nation.getName();
-        nations.remove(currentNationName.toLowerCase());
-        
-        return NationResult.success("Nation '" + nationName + "' has been disbanded successfully");
+        return transaction(() -> {
+            Nation nation = getPlayerNation(player);
+            if (nation == null) {
+                return NationResult.error("You are not a member of any nation");
+            }
+            
+            if (!nation.isLeader(player)) {
+                return NationResult.error("Only nation leaders can rename the nation");
+            }
+            
+            String oldName = nation.getName();
+            if (!renameNation(oldName, newName)) {
+                return NationResult.error("Nation with name '" + newName + "' already exists");
+            }
+            
+            return NationResult.success("Nation '" + oldName + "' is now called '" + newName + "'");
+        });
+    }
+    
+    /**
+     * Rename a nation, without any permission checks
+     * @param oldName The current name (case insensitive)
+     * @param newName The new name
+     * @return true if the nation was renamed
+     */
+    public boolean renameNation(String oldName, String newName) {
+        return transaction(() -> {
+            Nation nation = nations.get(oldName.toLowerCase());
+            Nation existing = nations.get(newName.toLowerCase());
+            if (nation == null || (existing != null && existing != nation)) {
+                return false;
+            }
+            
+            // Index the new name before dropping the old one, so the nation is always found by one of them
+            String previousName = nation.getName();
+            nation.rename(newName);
+            nations.put(newName.toLowerCase(), nation);
+            if (!previousName.equalsIgnoreCase(newName)) {
+                nations.remove(previousName.toLowerCase());
+            }
+            registry.rename(nation, previousName);
+            
+            NationChangeListener listener = changeListener;
+            if (listener != null) {
+                listener.onNationRenamed(nation, previousName);
+            }
+            return true;
+        });
     }
     
     /**
@@ -185,107 +286,197 @@ public class NationManager {
      * Promote a player by UUID
      */
     public NationResult promotePlayer(UUID requester, UUID targetPlayer) {
-        Nation nation = getPlayerNation(requester);
-        if (nation == null) {
-            return NationResult.error("You are not a member of any nation");
-        }
-        
-        if (!nation.hasRoleOrHigher(requester, NationRole.LEADER)) {
-            return NationResult.error("Only leaders can promote members");
-        }
-        
-        if (!nation.isMember(targetPlayer)) {
-            return NationResult.error("Target player is not a member of your nation");
-        }
-        
-        if (targetPlayer.equals(requester)) {
-            return NationResult.error("You cannot promote yourself");
-        }
-        
-        NationRole currentRole = nation.getMemberRole(targetPlayer);
-        
-        switch (currentRole) {
-            case COMMANDER:
-                return NationResult.error("Player is already at maximum promotable rank (Commander)");
-            case LEADER:
-                return NationResult.error("Cannot promote another leader");
-            case CITIZEN:
-                nation.setMemberRole(targetPlayer, NationRole.COMMANDER);
-                return NationResult.success("Player promoted from " + currentRole.getDisplayName() + " to Commander");
-            default:
-                return NationResult.error("Invalid role");
-        }
+        return transaction(() -> {
+            Nation nation = getPlayerNation(requester);
+            if (nation == null) {
+                return NationResult.error("You are not a member of any nation");
+            }
+            
+            if (!nation.hasRoleOrHigher(requester, NationRole.LEADER)) {
+                return NationResult.error("Only leaders can promote members");
+            }
+            
+            if (!nation.isMember(targetPlayer)) {
+                return NationResult.error("Target player is not a member of your nation");
+            }
+            
+            if (targetPlayer.equals(requester)) {
+                return NationResult.error("You cannot promote yourself");
+            }
+            
+            NationRole currentRole = nation.getMemberRole(targetPlayer);
+            
+            switch (currentRole) {
+                case COMMANDER:
+                    return NationResult.error("Player is already at maximum promotable rank (Commander)");
+                case LEADER:
+                    return NationResult.error("Cannot promote another leader");
+                case CITIZEN:
+                    setMemberRole(nation, targetPlayer, NationRole.COMMANDER);
+                    return NationResult.success("Player promoted from " + currentRole.getDisplayName() + " to Commander");
+                default:
+                    return NationResult.error("Invalid role");
+            }
+        });
     }
     
     /**
      * Demote a player to a lower role (only leaders can demote)
      */
     public NationResult demotePlayer(UUID requester, UUID targetPlayer) {
-        Nation nation = getPlayerNation(requester);
-        if (nation == null) {
-            return NationResult.error("You are not a member of any nation");
-        }
-        
-        if (!nation.hasRoleOrHigher(requester, NationRole.LEADER)) {
-            return NationResult.error("Only leaders can demote members");
-        }
-        
-        if (!nation.isMember(targetPlayer)) {
-            return NationResult.error("Target player is not a member of your nation");
-        }
-        
-        if (targetPlayer.equals(requester)) {
-            return NationResult.error("You cannot demote yourself");
-        }
-        
-        NationRole currentRole = nation.getMemberRole(targetPlayer);
-        
-        switch (currentRole) {
-            case CITIZEN:
-                return NationResult.error("Player is already at minimum rank (Citizen)");
-            case LEADER:
-                return NationResult.error("Cannot demote another leader");
-            case COMMANDER:
-                nation.setMemberRole(targetPlayer, NationRole.CITIZEN);
-                return NationResult.success("Player demoted from " + currentRole.getDisplayName() + " to Citizen");
-            default:
-                return NationResult.error("Invalid role");
-        }
+        return transaction(() -> {
+            Nation nation = getPlayerNation(requester);
+            if (nation == null) {
+                return NationResult.error("You are not a member of any nation");
+            }
+            
+            if (!nation.hasRoleOrHigher(requester, NationRole.LEADER)) {
+                return NationResult.error("Only leaders can demote members");
+            }
+            
+            if (!nation.isMember(targetPlayer)) {
+                return NationResult.error("Target player is not a member of your nation");
+            }
+            
+            if (targetPlayer.equals(requester)) {
+                return NationResult.error("You cannot demote yourself");
+            }
+            
+            NationRole currentRole = nation.getMemberRole(targetPlayer);
+            
+            switch (currentRole) {
+                case CITIZEN:
+                    return NationResult.error("Player is already at minimum rank (Citizen)");
+                case LEADER:
+                    return NationResult.error("Cannot demote another leader");
+                case COMMANDER:
+                    setMemberRole(nation, targetPlayer, NationRole.CITIZEN);
+                    return NationResult.success("Player demoted from " + currentRole.getDisplayName() + " to Citizen");
+                default:
+                    return NationResult.error("Invalid role");
+            }
+        });
     }
     
     /**
      * Kick a player from the nation (only leaders can kick)
      */
     public NationResult kickPlayer(UUID requester, UUID targetPlayer) {
-        Nation nation = getPlayerNation(requester);
-        if (nation == null) {
-            return NationResult.error("You are not a member of any nation");
-        }
-        
-        if (!nation.hasRoleOrHigher(requester, NationRole.LEADER)) {
-            return NationResult.error("Only leaders can kick members");
-        }
-        
-        if (!nation.isMember(targetPlayer)) {
-            return NationResult.error("Target player is not a member of your nation");
-        }
-        
-        if (targetPlayer.equals(requester)) {
-            return NationResult.error("You cannot kick yourself - use disband instead");
-        }
-        
-        if (nation.isLeader(targetPlayer)) {
-            return NationResult.error("Cannot kick another leader");
-        }
-        
-        if (nation.removeMember(targetPlayer)) {
-            playerToNation.remove(targetPlayer);
-            return NationResult.success("Player has been kicked from the nation");
-        } else {
-            return NationResult.error("Failed to kick player");
+        return transaction(() -> {
+            Nation nation = getPlayerNation(requester);
+            if (nation == null) {
+                return NationResult.error("You are not a member of any nation");
+            }
+            
+            if (!nation.hasRoleOrHigher(requester, NationRole.LEADER)) {
+                return NationResult.error("Only leaders can kick members");
+            }
+            
+            if (!nation.isMember(targetPlayer)) {
+                return NationResult.error("Target player is not a member of your nation");
+            }
+            
+            if (targetPlayer.equals(requester)) {
+                return NationResult.error("You cannot kick yourself - use disband instead");
+            }
+            
+            if (nation.isLeader(targetPlayer)) {
+                return NationResult.error("Cannot kick another leader");
+            }
+            
+            if (removeMember(nation, targetPlayer)) {
+                return NationResult.success("Player has been kicked from the nation");
+            } else {
+                return NationResult.error("Failed to kick player");
+            }
+        });
+    }
+    
+    /**
+     * Remove a nation and the nation mapping of all its members, without any permission checks
+     * @param nationName The name of the nation (case insensitive)
+     * @return true if the nation existed
+     */
+    public boolean removeNation(String nationName) {
+        return transaction(() -> {
+            // Unmap the members before the nation disappears
+            Nation nation = nations.get(nationName.toLowerCase());
+            if (nation == null) {
+                return false;
+            }
+            for (UUID member : nation.getMembers()) {
+                playerToNation.remove(member);
+            }
+            nations.remove(nationName.toLowerCase());
+            registry.unregister(nation);
+            
+            membershipVersion++;
+            NationChangeListener listener = changeListener;
+            if (listener != null) {
+                listener.onNationDisbanded(nation.getName());
+            }
+            return true;
+        });
+    }
+    
+    /**
+     * Set a member's role, without any permission checks
+     * @param nation The nation
+     * @param player The member
+     * @param role The new role
+     * @return true if the role was changed
+     */
+    public boolean setMemberRole(Nation nation, UUID player, NationRole role) {
+        return transaction(() -> {
+            if (!nation.setMemberRole(player, role)) {
+                return false;
+            }
+            membershipVersion++;
+            NationChangeListener listener = changeListener;
+            if (listener != null) {
+                listener.onRoleChanged(nation, player, role);
+            }
+            return true;
+        });
+    }
+    
+    /**
+     * Unmap a member, then remove them from the nation (caller holds the transaction)
+     */
+    private boolean removeMember(Nation nation, UUID player) {
+        playerToNation.remove(player);
+        if (!nation.removeMember(player)) {
+            playerToNation.put(player, nation.getId());
+            return false;
+        }
+        membershipVersion++;
+        NationChangeListener listener = changeListener;
+        if (listener != null) {
+            listener.onMemberLeft(nation, player);
+        }
+        return true;
+    }
+    
+    /**
+     * Run a change to the nation maps or a nation as one transaction
+     * Transactions run one at a time and may nest; reads do not wait for them.
+     * @param body The change
+     * @return The body's result
+     */
+    private <T> T transaction(Supplier<T> body) {
+        synchronized (writeLock) {
+            return body.get();
         }
     }
     
+    /**
+     * Set the listener notified about every successful change
+     * @param listener The listener, or null to stop notifying
+     */
+    public void setChangeListener(NationChangeListener listener) {
+        this.changeListener = listener;
+    }
+    
     /**
      * Get help information for nation commands
      * @return Help text with all available commands
@@ -296,6 +487,7 @@ public class NationManager {
                "§e/nation join <name>§f - Join an existing nation\n" +
                "§e/nation leave§f - Leave your current nation (non-leaders)\n" +
                "§e/nation disband§f - Disband your nation (leaders only)\n" +
+               "§e/nation rename <name>§f - Rename your nation (leaders only)\n" +
                "§e/nation info§f - Show your nation information\n" +
                "§e/nation promote <player>§f - Promote a member (leaders only)\n" +
                "§e/nation demote <player>§f - Demote a member (leaders only)\n" +
@@ -312,11 +504,35 @@ public class NationManager {
      * @return The nation, or null if not a member of any nation
      */
     public Nation getPlayerNation(UUID player) {
-        String nationName = playerToNation.get(player);
-        if (nationName != null) {
-            return nations.get(nationName.toLowerCase());
-        }
-        return null;
+        Integer nationId = playerToNation.get(player);
+        return nationId != null ? registry.getNation(nationId) : null;
+    }
+    
+    /**
+     * Get the id of the nation a player belongs to
+     * @param player The player
+     * @return The nation id, or NationRegistry.NONE if not a member of any nation
+     */
+    public int getPlayerNationId(UUID player) {
+        Integer nationId = playerToNation.get(player);
+        return nationId != null ? nationId : NationRegistry.NONE;
+    }
+    
+    /**
+     * Get the membership version, for caches of a player's nation (see PlayerNationCache)
+     * @return A value that changes whenever a player joins, leaves, is kicked, changes role or a nation is created or disbanded
+     */
+    public long getMembershipVersion() {
+        return membershipVersion;
+    }
+    
+    /**
+     * Get a nation by its id
+     * @param id The nation id
+     * @return The nation, or null if no live nation has this id
+     */
+    public Nation getNationById(int id) {
+        return registry.getNation(id);
     }
     
     /**
@@ -358,17 +574,43 @@ public class NationManager {
      * Load nation data (for persistence)
      */
     public void loadData(Map<String, Nation> loadedNations, Map<UUID, String> loadedPlayerToNation) {
-        nations.clear();
-        playerToNation.clear();
-        nations.putAll(loadedNations);
-        playerToNation.putAll(loadedPlayerToNation);
+        transaction(() -> {
+            playerToNation.clear();
+            nations.clear();
+            registry.clear();
+            // Saved ids first, so nations from data without ids cannot take an id that is in use
+            for (Nation nation : loadedNations.values()) {
+                if (nation.getId() != NationRegistry.NONE) {
+                    registry.register(nation);
+                }
+            }
+            for (Nation nation : loadedNations.values()) {
+                if (nation.getId() == NationRegistry.NONE) {
+                    registry.register(nation);
+                }
+            }
+            nations.putAll(loadedNations);
+            for (Map.Entry<UUID, String> entry : loadedPlayerToNation.entrySet()) {
+                Nation nation = loadedNations.get(entry.getValue().toLowerCase());
+                if (nation != null) {
+                    playerToNation.put(entry.getKey(), nation.getId());
+                }
+            }
+            membershipVersion++;
+            return null;
+        });
     }
     
     /**
      * Get the player to nation mapping (for persistence)
+     * @return Nation name by player
      */
     public Map<UUID, String> getPlayerToNationMap() {
-        return new HashMap<>(playerToNation);
+        Map<UUID, String> names = new HashMap<>();
+        for (Map.Entry<UUID, Integer> entry : playerToNation.entrySet()) {
+            names.put(entry.getKey(), registry.getName(entry.getValue()));
+        }
+        return names;
     }
     
     /**
@@ -0,0 +1,136 @@
+package com.example.dominionrising.common.nation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Online players by nation and dimension, so code looking for a nation's players only visits those
+ * instead of scanning every player on the server.
+ *
+ * Loaders report logins, logouts, respawns and dimension changes; membership changes are picked up
+ * through NationManager's membership version. The per-nation lists are rebuilt from the online
+ * players on the first query after any of these, which are all rare compared to queries.
+ * Used from the server thread only.
+ *
+ * @param <P> The loader's player type
+ */
+public class NationPlayerIndex<P> {
+    private final Map<UUID, Entry<P>> online = new HashMap<>();
+
+    // Players by nation id, then by dimension key; rebuilt as a whole, never changed in place
+    private Map<Integer, Map<String, List<P>>> byNation = Collections.emptyMap();
+    private boolean dirty;
+    private long version = -1;
+
+    /**
+     * Add a player that logged in or respawned (replacing the entry of the same player)
+     * @param id The player's UUID
+     * @param player The player object
+     * @param dimension Dimension key of the player's level
+     */
+    public void add(UUID id, P player, String dimension) {
+        online.put(id, new Entry<>(player, dimension));
+        dirty = true;
+    }
+
+    /**
+     * Remove a player that logged out
+     */
+    public void remove(UUID id) {
+        if (online.remove(id) != null) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Move a player to another dimension
+     * @param dimension Dimension key of the player's new level
+     */
+    public void changeDimension(UUID id, String dimension) {
+        Entry<P> entry = online.get(id);
+        if (entry != null && !entry.dimension.equals(dimension)) {
+            entry.dimension = dimension;
+            dirty = true;
+        }
+    }
+
+    /**
+     * Forget all players, e.g. when the server stops
+     */
+    public void clear() {
+        online.clear();
+        byNation = Collections.emptyMap();
+        dirty = false;
+        version = -1;
+    }
+
+    /**
+     * Get the online players of a nation in a dimension
+     * @param nationId The nation id
+     * @param dimension Dimension key of the level
+     * @return An unmodifiable list, valid until the next change
+     */
+    public List<P> getPlayers(int nationId, String dimension) {
+        rebuildIfNeeded();
+        Map<String, List<P>> dimensions = byNation.get(nationId);
+        if (dimensions == null) {
+            return Collections.emptyList();
+        }
+        List<P> players = dimensions.get(dimension);
+        return players != null ? players : Collections.emptyList();
+    }
+
+    /**
+     * Check if any member of a nation is online, in any dimension
+     * @param nationId The nation id
+     */
+    public boolean hasPlayers(int nationId) {
+        rebuildIfNeeded();
+        return byNation.containsKey(nationId);
+    }
+
+    /**
+     * Get the number of online players in the index
+     */
+    public int size() {
+        return online.size();
+    }
+
+    private void rebuildIfNeeded() {
+        NationManager manager = NationManager.getInstance();
+        long current = manager.getMembershipVersion();
+        if (!dirty && current == version) {
+            return;
+        }
+        Map<Integer, Map<String, List<P>>> rebuilt = new HashMap<>();
+        for (Map.Entry<UUID, Entry<P>> entry : online.entrySet()) {
+            int nationId = manager.getPlayerNationId(entry.getKey());
+            if (nationId == NationRegistry.NONE) {
+                continue;
+            }
+            rebuilt.computeIfAbsent(nationId, k -> new HashMap<>())
+                    .computeIfAbsent(entry.getValue().dimension, k -> new ArrayList<>())
+                    .add(entry.getValue().player);
+        }
+        for (Map<String, List<P>> dimensions : rebuilt.values()) {
+            dimensions.replaceAll((dimension, players) -> Collections.unmodifiableList(players));
+        }
+        byNation = rebuilt;
+        version = current;
+        dirty = false;
+    }
+
+    private static final class Entry<P> {
+        private final P player;
+        private String dimension;
+
+        private Entry(P player, String dimension) {
+            this.player = player;
+            this.dimension = dimension;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.dominionrising.common.nation;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps small, stable nation ids to nations and their names
+ * Units, entities and synced data refer to their nation by id, so a same-nation check is an int
+ * compare and renaming a nation does not touch anything that refers to it.
+ *
+ * An id is never reused while anything may still refer to it. The name of a disbanded nation stays
+ * known under its old id, so units it left behind keep showing where they came from. A nation created
+ * later under the same name gets a new id: the orphaned units keep the old id, which has no live nation,
+ * and do not join the new nation.
+ * Reads do not lock; changes are synchronized and publish copies of the arrays (nations change rarely).
+ */
+public class NationRegistry {
+    private static NationRegistry instance;
+
+    /**
+     * Id used for no nation
+     */
+    public static final int NONE = -1;
+
+    // Id by lowercase name; a live nation's name always points at the live nation
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[16];
+    private volatile Nation[] nations = new Nation[16];
+    // Ids whose nation was disbanded; a new nation under the same name must not adopt them
+    private final BitSet disbanded = new BitSet();
+    private int nextId;
+
+    private NationRegistry() {}
+
+    public static NationRegistry getInstance() {
+        if (instance == null) {
+            synchronized (NationRegistry.class) {
+                if (instance == null) {
+                    instance = new NationRegistry();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Register a live nation under its id, assigning a new id if it has none yet
+     * @param nation The nation
+     * @return The nation's id
+     */
+    public synchronized int register(Nation nation) {
+        int id = nation.getId();
+        if (id == NONE) {
+            // Adopt the id units loaded from older data already use for this name, unless a disbanded nation had it
+            Integer reserved = ids.get(nation.getName().toLowerCase());
+            id = reserved != null && getNation(reserved) == null && !disbanded.get(reserved) ? reserved : nextId;
+            nation.assignId(id);
+        }
+        set(id, nation.getName(), nation);
+        ids.put(nation.getName().toLowerCase(), id);
+        nextId = Math.max(nextId, id + 1);
+        return id;
+    }
+
+    /**
+     * Drop a nation that was disbanded; its id and name stay reserved and the id is never handed out again
+     * @param nation The nation
+     */
+    public synchronized void unregister(Nation nation) {
+        int id = nation.getId();
+        if (getNation(id) == nation) {
+            set(id, names[id], null);
+            disbanded.set(id);
+        }
+    }
+
+    /**
+     * Point an id at a nation's new name
+     * @param nation The renamed nation
+     * @param oldName The name it had before
+     */
+    public synchronized void rename(Nation nation, String oldName) {
+        int id = nation.getId();
+        ids.remove(oldName.toLowerCase(), id);
+        set(id, nation.getName(), getNation(id));
+        ids.put(nation.getName().toLowerCase(), id);
+    }
+
+    /**
+     * Get the id for a name from data that only stores names, reserving a new one for unknown names
+     * @param name The nation name
+     * @return The id of the live nation with this name, or of the last nation that had it
+     */
+    public int resolve(String name) {
+        Integer id = ids.get(name.toLowerCase());
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(name.toLowerCase());
+            if (id != null) {
+                return id;
+            }
+            int newId = nextId++;
+            set(newId, name, null);
+            ids.put(name.toLowerCase(), newId);
+            return newId;
+        }
+    }
+
+    /**
+     * Make sure an id read from saved data is known, reserving it under the saved name if it is not
+     * Nations load before the data referring to them, so an unknown id belonged to a disbanded nation
+     * and is treated as one.
+     * @param id The saved id
+     * @param name The name saved with it, used only if the id is unknown
+     * @return The id
+     */
+    public int resolve(int id, String name) {
+        if (id < 0) {
+            return resolve(name);
+        }
+        String[] current = names;
+        if (id < current.length && current[id] != null) {
+            return id;
+        }
+        synchronized (this) {
+            if (getName(id) == null) {
+                set(id, name, null);
+                ids.putIfAbsent(name.toLowerCase(), id);
+                disbanded.set(id);
+                nextId = Math.max(nextId, id + 1);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * Reserve an id for a nation about to be created under a name, so registering it adopts that id
+     * Used when replaying the creation of a nation whose id units may already refer to.
+     * @param id The id the nation had
+     * @param name The name it is created with
+     */
+    public synchronized void reserve(int id, String name) {
+        if (id < 0 || getNation(id) != null) {
+            return;
+        }
+        Integer current = ids.get(name.toLowerCase());
+        if (current != null && getNation(current) != null) {
+            return;
+        }
+        set(id, name, null);
+        ids.put(name.toLowerCase(), id);
+        // Replayed data names the id explicitly, so it wins over the id having been disbanded before
+        disbanded.clear(id);
+        nextId = Math.max(nextId, id + 1);
+    }
+
+    /**
+     * Look up the id of a name without reserving one
+     * @param name The nation name (case insensitive)
+     * @return The id, or NONE
+     */
+    public int find(String name) {
+        Integer id = name != null ? ids.get(name.toLowerCase()) : null;
+        return id != null ? id : NONE;
+    }
+
+    /**
+     * Get the live nation with an id
+     * @return The nation, or null if there is none (never was, or disbanded)
+     */
+    public Nation getNation(int id) {
+        Nation[] current = nations;
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+
+    /**
+     * Get the current name for an id, also for disbanded nations
+     * @return The name, or null if the id is unknown
+     */
+    public String getName(int id) {
+        String[] current = names;
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+
+    /**
+     * Forget all ids, e.g. before loading another world
+     */
+    public synchronized void clear() {
+        ids.clear();
+        names = new String[16];
+        nations = new Nation[16];
+        disbanded.clear();
+        nextId = 0;
+    }
+
+    /**
+     * Publish new arrays with one slot changed, so readers never see a half-written slot
+     */
+    private void set(int id, String name, Nation nation) {
+        int size = Math.max(names.length, id < names.length ? 0 : Math.max(id + 1, names.length * 2));
+        String[] newNames = Arrays.copyOf(names, size);
+        Nation[] newNations = Arrays.copyOf(nations, size);
+        newNames[id] = name;
+        newNations[id] = nation;
+        nations = newNations;
+        names = newNames;
+    }
+}
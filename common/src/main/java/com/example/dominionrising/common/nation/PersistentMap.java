@@ -0,0 +1,371 @@
+package com.example.dominionrising.common.nation;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable hash map that shares structure between versions (a hash array mapped trie)
+ * plus and minus copy only the path to the changed key, at most seven nodes of up to 32 entries,
+ * so a change is O(log32 n) instead of a copy of the whole map. Keys must not be null.
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ */
+final class PersistentMap<K, V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    // Bitmap levels use shifts 0..30, below that all 32 hash bits are used and only collisions remain
+    private static final int MAX_DEPTH = 8;
+    private static final Object NOT_FOUND = new Object();
+    private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(BitmapNode.EMPTY, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentMap<K, V> empty() {
+        return (PersistentMap<K, V>) EMPTY;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean containsKey(Object key) {
+        return key != null && root.find(0, hash(key), key) != NOT_FOUND;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(Object key) {
+        if (key == null) {
+            return null;
+        }
+        Object value = root.find(0, hash(key), key);
+        return value == NOT_FOUND ? null : (V) value;
+    }
+
+    /**
+     * @return A map with the key set to the value; this map if it already held that value
+     */
+    PersistentMap<K, V> plus(K key, V value) {
+        boolean[] added = new boolean[1];
+        Node newRoot = root.put(0, hash(key), key, value, added);
+        return newRoot == root ? this : new PersistentMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * @return A map without the key; this map if it did not hold the key
+     */
+    PersistentMap<K, V> minus(Object key) {
+        if (key == null) {
+            return this;
+        }
+        Node newRoot = root.remove(0, hash(key), key);
+        if (newRoot == root) {
+            return this;
+        }
+        return newRoot == null ? empty() : new PersistentMap<>(newRoot, size - 1);
+    }
+
+    /**
+     * @return A read-only Map view; lookups go through the trie, not a scan
+     */
+    Map<K, V> asMap() {
+        return new MapView<>(this);
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private abstract static class Node {
+        /**
+         * Entries as key/value pairs; in bitmap nodes a null key means the value is a child node
+         */
+        final Object[] array;
+
+        Node(Object[] array) {
+            this.array = array;
+        }
+
+        abstract Object find(int shift, int hash, Object key);
+
+        abstract Node put(int shift, int hash, Object key, Object value, boolean[] added);
+
+        /**
+         * @return The node without the key, this node if it did not hold it, or null if it is now empty
+         */
+        abstract Node remove(int shift, int hash, Object key);
+    }
+
+    private static final class BitmapNode extends Node {
+        static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        private final int bitmap;
+
+        BitmapNode(int bitmap, Object[] array) {
+            super(array);
+            this.bitmap = bitmap;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1)) * 2;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return NOT_FOUND;
+            }
+            int i = index(bit);
+            Object k = array[i];
+            if (k == null) {
+                return ((Node) array[i + 1]).find(shift + BITS, hash, key);
+            }
+            return key.equals(k) ? array[i + 1] : NOT_FOUND;
+        }
+
+        @Override
+        Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+            int bit = bit(hash, shift);
+            int i = index(bit);
+            if ((bitmap & bit) == 0) {
+                Object[] copy = new Object[array.length + 2];
+                System.arraycopy(array, 0, copy, 0, i);
+                copy[i] = key;
+                copy[i + 1] = value;
+                System.arraycopy(array, i, copy, i + 2, array.length - i);
+                added[0] = true;
+                return new BitmapNode(bitmap | bit, copy);
+            }
+            Object k = array[i];
+            Object v = array[i + 1];
+            if (k == null) {
+                Node child = ((Node) v).put(shift + BITS, hash, key, value, added);
+                return child == v ? this : with(i + 1, child);
+            }
+            if (key.equals(k)) {
+                return v == value ? this : with(i + 1, value);
+            }
+            // Two keys in one slot: push both one level down
+            added[0] = true;
+            Object[] copy = array.clone();
+            copy[i] = null;
+            copy[i + 1] = pair(shift + BITS, k, v, hash, key, value);
+            return new BitmapNode(bitmap, copy);
+        }
+
+        @Override
+        Node remove(int shift, int hash, Object key) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int i = index(bit);
+            Object k = array[i];
+            if (k == null) {
+                Node child = ((Node) array[i + 1]).remove(shift + BITS, hash, key);
+                if (child == array[i + 1]) {
+                    return this;
+                }
+                return child != null ? with(i + 1, child) : without(bit, i);
+            }
+            return key.equals(k) ? without(bit, i) : this;
+        }
+
+        private BitmapNode with(int i, Object value) {
+            Object[] copy = array.clone();
+            copy[i] = value;
+            return new BitmapNode(bitmap, copy);
+        }
+
+        private BitmapNode without(int bit, int i) {
+            if (bitmap == bit) {
+                return null;
+            }
+            Object[] copy = new Object[array.length - 2];
+            System.arraycopy(array, 0, copy, 0, i);
+            System.arraycopy(array, i + 2, copy, i, array.length - i - 2);
+            return new BitmapNode(bitmap & ~bit, copy);
+        }
+
+        private static Node pair(int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+            int hash1 = hash(key1);
+            if (hash1 == hash2) {
+                return new CollisionNode(hash1, new Object[] { key1, value1, key2, value2 });
+            }
+            boolean[] ignored = new boolean[1];
+            return EMPTY.put(shift, hash1, key1, value1, ignored).put(shift, hash2, key2, value2, ignored);
+        }
+    }
+
+    /**
+     * Keys whose hashes are equal in all 32 bits, compared one by one
+     */
+    private static final class CollisionNode extends Node {
+        private final int hash;
+
+        CollisionNode(int hash, Object[] array) {
+            super(array);
+            this.hash = hash;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            int i = hash == this.hash ? indexOf(key) : -1;
+            return i < 0 ? NOT_FOUND : array[i + 1];
+        }
+
+        @Override
+        Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+            if (hash != this.hash) {
+                // A different hash reached this level: put this node under a bitmap node and add next to it
+                return new BitmapNode(bit(this.hash, shift), new Object[] { null, this }).put(shift, hash, key, value, added);
+            }
+            int i = indexOf(key);
+            if (i >= 0) {
+                if (array[i + 1] == value) {
+                    return this;
+                }
+                Object[] copy = array.clone();
+                copy[i + 1] = value;
+                return new CollisionNode(hash, copy);
+            }
+            Object[] copy = new Object[array.length + 2];
+            System.arraycopy(array, 0, copy, 0, array.length);
+            copy[array.length] = key;
+            copy[array.length + 1] = value;
+            added[0] = true;
+            return new CollisionNode(hash, copy);
+        }
+
+        @Override
+        Node remove(int shift, int hash, Object key) {
+            int i = hash == this.hash ? indexOf(key) : -1;
+            if (i < 0) {
+                return this;
+            }
+            if (array.length == 2) {
+                return null;
+            }
+            Object[] copy = new Object[array.length - 2];
+            System.arraycopy(array, 0, copy, 0, i);
+            System.arraycopy(array, i + 2, copy, i, array.length - i - 2);
+            return new CollisionNode(hash, copy);
+        }
+    }
+
+    /**
+     * Walks the trie depth-first with a fixed stack, one entry at a time
+     */
+    private static final class EntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+        private final Object[][] arrays = new Object[MAX_DEPTH][];
+        private final int[] positions = new int[MAX_DEPTH];
+        private int depth;
+        private Map.Entry<K, V> next;
+
+        EntryIterator(Node root) {
+            arrays[depth++] = root.array;
+            advance();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            next = null;
+            while (depth > 0) {
+                Object[] array = arrays[depth - 1];
+                int position = positions[depth - 1];
+                if (position >= array.length) {
+                    arrays[--depth] = null;
+                    positions[depth] = 0;
+                    continue;
+                }
+                positions[depth - 1] = position + 2;
+                Object key = array[position];
+                if (key == null) {
+                    arrays[depth++] = ((Node) array[position + 1]).array;
+                } else {
+                    next = new AbstractMap.SimpleImmutableEntry<>((K) key, (V) array[position + 1]);
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<K, V> result = next;
+            advance();
+            return result;
+        }
+    }
+
+    private static final class MapView<K, V> extends AbstractMap<K, V> {
+        private final PersistentMap<K, V> map;
+
+        MapView(PersistentMap<K, V> map) {
+            this.map = map;
+        }
+
+        @Override
+        public int size() {
+            return map.size;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return map.containsKey(key);
+        }
+
+        @Override
+        public V get(Object key) {
+            return map.get(key);
+        }
+
+        @Override
+        public Set<Entry<K, V>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<K, V>> iterator() {
+                    return new EntryIterator<>(map.root);
+                }
+
+                @Override
+                public int size() {
+                    return map.size;
+                }
+            };
+        }
+    }
+}
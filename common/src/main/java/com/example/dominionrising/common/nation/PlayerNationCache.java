@@ -0,0 +1,38 @@
+package com.example.dominionrising.common.nation;
+
+import java.util.UUID;
+
+/**
+ * A player's nation id, kept on the player (NeoForge data attachment, Forge capability)
+ * so AI checks read a field instead of going through NationManager's maps.
+ *
+ * The cache is valid while NationManager's membership version is unchanged. Creating, joining,
+ * leaving, kicking and disbanding bump that version, so the next read after any of them looks the
+ * player up again. Used from the server thread only.
+ */
+public class PlayerNationCache {
+    private long version = -1;
+    private int nationId = NationRegistry.NONE;
+
+    /**
+     * Check if the player belongs to a nation
+     * @param player The UUID of the player this cache is attached to
+     * @param nationId The nation id to compare with
+     */
+    public boolean isMemberOf(UUID player, int nationId) {
+        refresh(player);
+        return this.nationId != NationRegistry.NONE && this.nationId == nationId;
+    }
+
+    private void refresh(UUID player) {
+        NationManager manager = NationManager.getInstance();
+        // Read the version before the data, so a change in between leaves the cache stale rather than wrong
+        long current = manager.getMembershipVersion();
+        if (current == version) {
+            return;
+        }
+        Nation nation = manager.getPlayerNation(player);
+        nationId = nation != null ? nation.getId() : NationRegistry.NONE;
+        version = current;
+    }
+}
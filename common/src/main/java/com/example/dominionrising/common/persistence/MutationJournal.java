@@ -0,0 +1,541 @@
+package com.example.dominionrising.common.persistence;
+
+import com.example.dominionrising.common.nation.Nation;
+import com.example.dominionrising.common.nation.NationChangeListener;
+import com.example.dominionrising.common.nation.NationManager;
+import com.example.dominionrising.common.nation.NationRegistry;
+import com.example.dominionrising.common.nation.NationRole;
+import com.example.dominionrising.common.unit.NationUnit;
+import com.example.dominionrising.common.unit.UnitCodec;
+import com.example.dominionrising.common.unit.UnitManager;
+import com.example.dominionrising.common.unit.UnitMutationListener;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of nation and unit mutations, so changes between snapshots survive a crash
+ * Records are buffered in memory and group-committed once per server tick: a writer thread writes
+ * everything committed so far through one FileChannel write and a single fsync.
+ *
+ * The journal is split into numbered segment files (journal-N.log). Every snapshot starts a new
+ * segment; once the snapshot is on disk, all older segments are deleted. On startup the segments
+ * left behind are replayed over the last snapshot. Records hold absolute values, so replaying a
+ * record the snapshot already contains is harmless.
+ *
+ * Record layout: int length, byte type, payload (length - 1 bytes), int CRC32 of type and payload
+ */
+public class MutationJournal implements NationChangeListener, UnitMutationListener {
+    private static final Pattern SEGMENT_FILE = Pattern.compile("journal-(\\d+)\\.log");
+    private static final int MAX_RECORD_LENGTH = 1 << 20;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 60;
+
+    private static final byte NATION_CREATED = 1;
+    private static final byte MEMBER_JOINED = 2;
+    private static final byte MEMBER_LEFT = 3;
+    private static final byte ROLE_CHANGED = 4;
+    private static final byte NATION_DISBANDED = 5;
+    private static final byte UNIT_SPAWNED = 6;
+    private static final byte UNIT_HEALTH = 7;
+    private static final byte UNIT_UPDATED = 8;
+    private static final byte UNIT_REMOVED = 9;
+    private static final byte NATION_RENAMED = 10;
+
+    private static final NationRole[] ROLES = NationRole.values();
+
+    private final Path directory;
+    private final ExecutorService writer;
+
+    // Records appended since the last commit, and the segment they belong to (guarded by this)
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream(4096);
+    private final DataOutputStream pendingOut = new DataOutputStream(pending);
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream(256);
+    private final DataOutputStream recordOut = new DataOutputStream(record);
+    private final CRC32 crc = new CRC32();
+    private long segment;
+    private long segmentBytes;
+
+    // Committed batches waiting for the writer thread (guarded by itself)
+    private final Deque<Batch> committed = new ArrayDeque<>();
+    private boolean flushScheduled;
+
+    // Writer thread only
+    private FileChannel channel;
+    private long channelSegment = -1;
+
+    public MutationJournal(Path directory) {
+        this.directory = directory;
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Dominion Rising Journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Replay every segment in the journal directory into the managers
+     * Must be called before the journal is attached as a listener; new records go to a fresh segment
+     * @return Number of records replayed
+     */
+    public synchronized int replay() {
+        TreeMap<Long, Path> segments = listSegments();
+        int replayed = 0;
+        for (Map.Entry<Long, Path> entry : segments.entrySet()) {
+            try {
+                replayed += replaySegment(entry.getValue());
+            } catch (IOException e) {
+                System.err.println("Failed to replay journal segment " + entry.getValue().getFileName() + ": " + e.getMessage());
+            }
+            segment = entry.getKey() + 1;
+        }
+        return replayed;
+    }
+
+    /**
+     * Hand everything appended since the last commit to the writer thread (called once per server tick)
+     */
+    public void commit() {
+        Batch batch;
+        synchronized (this) {
+            if (pending.size() == 0) {
+                return;
+            }
+            batch = new Batch(segment, pending.toByteArray());
+            pending.reset();
+        }
+        enqueue(batch);
+    }
+
+    /**
+     * Commit pending records and start a new segment; called when a snapshot is captured
+     * @return The new segment; all older segments are covered by the snapshot once it is written
+     */
+    public long rotate() {
+        commit();
+        synchronized (this) {
+            segment++;
+            segmentBytes = 0;
+            return segment;
+        }
+    }
+
+    /**
+     * Delete segments older than the given one, after the snapshot that covers them was written
+     * @param firstKept The oldest segment to keep
+     */
+    public void deleteSegmentsBefore(long firstKept) {
+        writer.execute(() -> {
+            if (channelSegment < firstKept) {
+                closeChannel();
+            }
+            for (Map.Entry<Long, Path> entry : listSegments().entrySet()) {
+                if (entry.getKey() < firstKept) {
+                    try {
+                        Files.deleteIfExists(entry.getValue());
+                    } catch (IOException e) {
+                        System.err.println("Failed to delete journal segment " + entry.getValue().getFileName() + ": " + e.getMessage());
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * @return Bytes appended to the current segment, used to decide when to compact
+     */
+    public synchronized long getSegmentBytes() {
+        return segmentBytes;
+    }
+
+    /**
+     * Commit pending records, wait until they are on disk and stop the writer thread
+     */
+    public void close() {
+        commit();
+        writer.execute(this::closeChannel);
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("Dominion Rising: Timed out waiting for the journal to finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // === NATION RECORDS ===
+
+    @Override
+    public void onNationCreated(Nation nation) {
+        try {
+            synchronized (this) {
+                begin(NATION_CREATED);
+                recordOut.writeUTF(nation.getName());
+                writeUuid(nation.getLeader());
+                recordOut.writeInt(nation.getId());
+                end();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void onMemberJoined(Nation nation, UUID player) {
+        appendMember(MEMBER_JOINED, nation, player, null);
+    }
+
+    @Override
+    public void onMemberLeft(Nation nation, UUID player) {
+        appendMember(MEMBER_LEFT, nation, player, null);
+    }
+
+    @Override
+    public void onRoleChanged(Nation nation, UUID player, NationRole role) {
+        appendMember(ROLE_CHANGED, nation, player, role);
+    }
+
+    @Override
+    public void onNationRenamed(Nation nation, String oldName) {
+        try {
+            synchronized (this) {
+                begin(NATION_RENAMED);
+                recordOut.writeUTF(oldName);
+                recordOut.writeUTF(nation.getName());
+                end();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void onNationDisbanded(String nationName) {
+        try {
+            synchronized (this) {
+                begin(NATION_DISBANDED);
+                recordOut.writeUTF(nationName);
+                end();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void appendMember(byte type, Nation nation, UUID player, NationRole role) {
+        try {
+            synchronized (this) {
+                begin(type);
+                recordOut.writeUTF(nation.getName());
+                writeUuid(player);
+                if (role != null) {
+                    recordOut.writeByte(role.ordinal());
+                }
+                end();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // === UNIT RECORDS ===
+
+    @Override
+    public void onUnitSpawned(NationUnit unit) {
+        appendUnit(UNIT_SPAWNED, unit);
+    }
+
+    @Override
+    public void onUnitChanged(NationUnit unit, Change change) {
+        if (change != Change.HEALTH) {
+            // State and progress changes are rare; write the whole unit
+            appendUnit(UNIT_UPDATED, unit);
+            return;
+        }
+        try {
+            synchronized (this) {
+                begin(UNIT_HEALTH);
+                writeUuid(unit.getId());
+                recordOut.writeInt(unit.getHealth());
+                end();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void onUnitRemoved(UUID unitId) {
+        try {
+            synchronized (this) {
+                begin(UNIT_REMOVED);
+                writeUuid(unitId);
+                end();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void appendUnit(byte type, NationUnit unit) {
+        byte[] encoded = UnitCodec.encode(unit);
+        try {
+            synchronized (this) {
+                begin(type);
+                recordOut.write(encoded);
+                end();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // === FRAMING ===
+
+    private void begin(byte type) throws IOException {
+        record.reset();
+        recordOut.writeByte(type);
+    }
+
+    private void end() throws IOException {
+        byte[] body = record.toByteArray();
+        crc.reset();
+        crc.update(body, 0, body.length);
+        pendingOut.writeInt(body.length);
+        pendingOut.write(body);
+        pendingOut.writeInt((int) crc.getValue());
+        segmentBytes += body.length + 8;
+    }
+
+    private void writeUuid(UUID id) throws IOException {
+        recordOut.writeLong(id.getMostSignificantBits());
+        recordOut.writeLong(id.getLeastSignificantBits());
+    }
+
+    // === WRITER THREAD ===
+
+    private void enqueue(Batch batch) {
+        synchronized (committed) {
+            committed.addLast(batch);
+            if (flushScheduled) {
+                return;
+            }
+            flushScheduled = true;
+        }
+        writer.execute(this::flush);
+    }
+
+    /**
+     * Write every committed batch and fsync once (group commit)
+     */
+    private void flush() {
+        try {
+            while (true) {
+                Batch batch;
+                synchronized (committed) {
+                    batch = committed.pollFirst();
+                    if (batch == null) {
+                        flushScheduled = false;
+                        break;
+                    }
+                }
+                if (batch.segment != channelSegment) {
+                    closeChannel();
+                    Files.createDirectories(directory);
+                    channel = FileChannel.open(segmentPath(batch.segment), StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                    channelSegment = batch.segment;
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(batch.data);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            if (channel != null) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            synchronized (committed) {
+                flushScheduled = false;
+            }
+            System.err.println("Failed to write mutation journal: " + e.getMessage());
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close journal segment: " + e.getMessage());
+        }
+        channel = null;
+        channelSegment = -1;
+    }
+
+    // === REPLAY ===
+
+    private int replaySegment(Path file) throws IOException {
+        byte[] data = Files.readAllBytes(file);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        CRC32 check = new CRC32();
+        int replayed = 0;
+        while (in.available() > 0) {
+            byte[] body;
+            try {
+                int length = in.readInt();
+                if (length <= 0 || length > MAX_RECORD_LENGTH) {
+                    break;
+                }
+                body = new byte[length];
+                in.readFully(body);
+                check.reset();
+                check.update(body, 0, body.length);
+                if (in.readInt() != (int) check.getValue()) {
+                    break;
+                }
+            } catch (EOFException e) {
+                // Torn tail from a crash mid-write; everything before it is intact
+                break;
+            }
+            apply(body);
+            replayed++;
+        }
+        return replayed;
+    }
+
+    private static void apply(byte[] body) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body, 1, body.length - 1));
+        NationManager nations = NationManager.getInstance();
+        UnitManager units = UnitManager.getInstance();
+        switch (body[0]) {
+            case NATION_CREATED: {
+                String name = in.readUTF();
+                UUID leader = readUuid(in);
+                // Records from before nation ids end after the leader
+                if (in.available() >= 4) {
+                    NationRegistry.getInstance().reserve(in.readInt(), name);
+                }
+                nations.createNation(name, leader);
+                break;
+            }
+            case MEMBER_JOINED: {
+                String name = in.readUTF();
+                nations.joinNation(name, readUuid(in));
+                break;
+            }
+            case MEMBER_LEFT: {
+                in.readUTF();
+                nations.leaveNation(readUuid(in));
+                break;
+            }
+            case ROLE_CHANGED: {
+                Nation nation = nations.getNationByName(in.readUTF());
+                UUID player = readUuid(in);
+                int role = in.readUnsignedByte();
+                if (nation != null && role < ROLES.length) {
+                    nations.setMemberRole(nation, player, ROLES[role]);
+                }
+                break;
+            }
+            case NATION_DISBANDED:
+                nations.removeNation(in.readUTF());
+                break;
+            case NATION_RENAMED: {
+                String oldName = in.readUTF();
+                nations.renameNation(oldName, in.readUTF());
+                break;
+            }
+            case UNIT_SPAWNED:
+            case UNIT_UPDATED: {
+                byte[] encoded = new byte[body.length - 1];
+                System.arraycopy(body, 1, encoded, 0, encoded.length);
+                for (NationUnit unit : UnitCodec.decode(encoded)) {
+                    units.removeUnit(unit.getId());
+                    units.addExistingUnit(unit);
+                }
+                break;
+            }
+            case UNIT_HEALTH: {
+                NationUnit unit = units.getUnit(readUuid(in));
+                int health = in.readInt();
+                if (unit != null && unit.isAlive()) {
+                    if (health < unit.getHealth()) {
+                        unit.takeDamage(unit.getHealth() - health);
+                    } else if (health > unit.getHealth()) {
+                        unit.heal(health - unit.getHealth());
+                    }
+                }
+                break;
+            }
+            case UNIT_REMOVED:
+                units.removeUnit(readUuid(in));
+                break;
+            default:
+                throw new IOException("Unknown journal record type " + body[0]);
+        }
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    private TreeMap<Long, Path> listSegments() {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                Matcher matcher = SEGMENT_FILE.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    segments.put(Long.parseLong(matcher.group(1)), file);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to list journal segments: " + e.getMessage());
+        }
+        return segments;
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve("journal-" + segment + ".log");
+    }
+
+    /**
+     * Records committed in one server tick
+     */
+    private static final class Batch {
+        private final long segment;
+        private final byte[] data;
+
+        private Batch(long segment, byte[] data) {
+            this.segment = segment;
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.example.dominionrising.common.persistence;
+
+import com.example.dominionrising.common.nation.Nation;
+import com.example.dominionrising.common.nation.NationCodec;
+import com.example.dominionrising.common.nation.NationDataSerializer;
+import com.example.dominionrising.common.util.LineReader;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Keeps every nation in its own shard file, so a save only writes the nations that changed
+ * and disbanding a nation deletes a single file.
+ *
+ * Layout of the shard directory:
+ *   index.dat          Shard ID of every nation (plain text, see writeIndex)
+ *   nation-N.dat       GZIP'd NationCodec data of one nation and its members' mappings
+ * Shards are written before the index that refers to them, and removed shards are only deleted once
+ * an index without them is on disk, so the index never points at a missing or stale file.
+ *
+ * Shard assignments are owned by the server thread; the worker only reports failed writes back.
+ */
+class NationShards {
+    static final String DIRECTORY_NAME = "nations";
+
+    private static final String INDEX_FILE = "index.dat";
+    private static final String INDEX_HEADER = "DOMINION_RISING_NATION_INDEX_V1";
+    private static final Pattern SHARD_FILE = Pattern.compile("nation-(\\d+)\\.dat");
+
+    // Shard ID by lowercase nation name (server thread only)
+    private final Map<String, Integer> shardIds = new HashMap<>();
+    private int nextShardId;
+
+    // Set when the index on disk is out of date; the worker sets it again when writing the index failed
+    private volatile boolean indexDirty;
+
+    // Shards to delete once the next index is written, and nations whose shard failed to write
+    private final ConcurrentLinkedQueue<Integer> removedShards = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<String> failedNations = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Forget all assignments, e.g. when another world is opened
+     */
+    void clear() {
+        shardIds.clear();
+        nextShardId = 0;
+        indexDirty = false;
+        removedShards.clear();
+        failedNations.clear();
+    }
+
+    /**
+     * Get the shard of a nation, assigning a new one if it has none yet
+     * @param key Lowercase nation name
+     */
+    int assign(String key) {
+        Integer id = shardIds.get(key);
+        if (id == null) {
+            id = nextShardId++;
+            shardIds.put(key, id);
+            indexDirty = true;
+        }
+        return id;
+    }
+
+    /**
+     * Release the shard of a removed nation; its file is deleted after the next index write
+     * @param key Lowercase nation name
+     */
+    void remove(String key) {
+        Integer id = shardIds.remove(key);
+        if (id != null) {
+            removedShards.add(id);
+            indexDirty = true;
+        }
+    }
+
+    /**
+     * Make the next save write the index even if no nation was added or removed
+     */
+    void markIndexDirty() {
+        indexDirty = true;
+    }
+
+    /**
+     * Check whether the next save has to write the index or delete shards even if no nation changed
+     */
+    boolean hasPendingWork() {
+        return indexDirty || !removedShards.isEmpty() || !failedNations.isEmpty();
+    }
+
+    /**
+     * Take the nations whose shard failed to write, so they are captured again
+     * @param into Receives the lowercase names
+     */
+    void drainFailedNations(Set<String> into) {
+        String key;
+        while ((key = failedNations.poll()) != null) {
+            into.add(key);
+        }
+    }
+
+    /**
+     * Capture everything the worker needs besides the nation copies
+     * @param shards Nation copies by shard ID
+     */
+    Snapshot capture(Map<Integer, Nation> shards) {
+        Map<String, Integer> index = null;
+        if (indexDirty) {
+            indexDirty = false;
+            index = new HashMap<>(shardIds);
+        }
+        List<Integer> removed = new ArrayList<>();
+        Integer id;
+        while ((id = removedShards.poll()) != null) {
+            removed.add(id);
+        }
+        return new Snapshot(shards, index, removed);
+    }
+
+    /**
+     * Write a captured snapshot (runs on the worker thread)
+     * @return true if everything was written
+     */
+    boolean write(Path dataDirectory, Snapshot snapshot) {
+        Path directory = dataDirectory.resolve(DIRECTORY_NAME);
+        boolean written = true;
+        for (Map.Entry<Integer, Nation> shard : snapshot.shards.entrySet()) {
+            Nation nation = shard.getValue();
+            try {
+                Map<String, Nation> single = new HashMap<>();
+                single.put(nation.getName().toLowerCase(), nation);
+                Map<UUID, String> mappings = new HashMap<>();
+                for (UUID member : nation.getMembers()) {
+                    mappings.put(member, nation.getName());
+                }
+                WorldPersistence.writeCompressed(shardFile(directory, shard.getKey()), NationCodec.encode(single, mappings));
+            } catch (Exception e) {
+                failedNations.add(nation.getName().toLowerCase());
+                written = false;
+                System.err.println("Failed to save nation '" + nation.getName() + "': " + e.getMessage());
+            }
+        }
+
+        if (snapshot.index != null) {
+            // A new nation must not be listed before its shard exists
+            if (!written) {
+                indexDirty = true;
+                removedShards.addAll(snapshot.removed);
+                return false;
+            }
+            try {
+                writeIndex(directory, snapshot.index);
+            } catch (Exception e) {
+                indexDirty = true;
+                removedShards.addAll(snapshot.removed);
+                System.err.println("Failed to save the nation index: " + e.getMessage());
+                return false;
+            }
+        }
+
+        for (int removed : snapshot.removed) {
+            try {
+                Files.deleteIfExists(shardFile(directory, removed));
+            } catch (IOException e) {
+                // The index no longer lists it, so a leftover file is only wasted space
+                System.err.println("Failed to delete nation shard " + removed + ": " + e.getMessage());
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Check whether a data directory holds a shard index
+     */
+    static boolean exists(Path dataDirectory) {
+        return Files.isRegularFile(dataDirectory.resolve(DIRECTORY_NAME).resolve(INDEX_FILE));
+    }
+
+    /**
+     * Read the index and adopt its shard assignments
+     * Shard files the index does not list (left by a crash before the index was written) are deleted.
+     * @return Shard files by lowercase nation name
+     */
+    Map<String, Path> load(Path dataDirectory) throws IOException {
+        Path directory = dataDirectory.resolve(DIRECTORY_NAME);
+        clear();
+        try (Reader reader = Files.newBufferedReader(directory.resolve(INDEX_FILE), StandardCharsets.UTF_8)) {
+            LineReader lines = new LineReader(reader);
+            CharSequence line = lines.nextLine();
+            if (line == null || !LineReader.equals(line, INDEX_HEADER)) {
+                throw new IOException("Unknown nation index format");
+            }
+            while ((line = lines.nextLine()) != null) {
+                if (LineReader.startsWith(line, "SHARD:")) {
+                    int end = LineReader.indexOf(line, ':', 6);
+                    int id = Integer.parseInt(LineReader.substring(line, 6, end));
+                    shardIds.put(LineReader.substring(line, end + 1, line.length()), id);
+                    nextShardId = Math.max(nextShardId, id + 1);
+                }
+            }
+        }
+
+        Map<String, Path> files = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : shardIds.entrySet()) {
+            files.put(entry.getKey(), shardFile(directory, entry.getValue()));
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                Matcher matcher = SHARD_FILE.matcher(file.getFileName().toString());
+                if (matcher.matches() && !shardIds.containsValue(Integer.parseInt(matcher.group(1)))) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Read a GZIP'd shard or nation file in either the binary or the older text format (safe to call from any thread)
+     */
+    static NationDataSerializer.NationData readNations(Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file)))) {
+            byte[] magic = new byte[4];
+            in.mark(magic.length);
+            int read = in.readNBytes(magic, 0, magic.length);
+            in.reset();
+            if (read == magic.length && NationCodec.isBinary(magic)) {
+                return NationCodec.decode(in);
+            }
+            return NationDataSerializer.deserializeNations(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Delete the index and every shard, e.g. after switching back to the single nation file
+     */
+    static void deleteAll(Path dataDirectory) throws IOException {
+        Path directory = dataDirectory.resolve(DIRECTORY_NAME);
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        // Index first, so a crash part way leaves no index pointing at deleted shards
+        Files.deleteIfExists(directory.resolve(INDEX_FILE));
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                if (SHARD_FILE.matcher(file.getFileName().toString()).matches()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Index format: a header line, then one "SHARD:id:lowercase name" line per nation
+     */
+    private static void writeIndex(Path directory, Map<String, Integer> index) throws IOException {
+        StringBuilder sb = new StringBuilder(32 + index.size() * 24);
+        sb.append(INDEX_HEADER).append('\n');
+        for (Map.Entry<String, Integer> entry : index.entrySet()) {
+            sb.append("SHARD:").append(entry.getValue()).append(':').append(entry.getKey()).append('\n');
+        }
+        WorldPersistence.writeAtomically(directory.resolve(INDEX_FILE), sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Path shardFile(Path directory, int id) {
+        return directory.resolve("nation-" + id + ".dat");
+    }
+
+    /**
+     * Shard writes captured by one save
+     */
+    static final class Snapshot {
+        private final Map<Integer, Nation> shards;
+        private final Map<String, Integer> index;
+        private final List<Integer> removed;
+
+        private Snapshot(Map<Integer, Nation> shards, Map<String, Integer> index, List<Integer> removed) {
+            this.shards = shards;
+            this.index = index;
+            this.removed = removed;
+        }
+
+        int size() {
+            return shards.size();
+        }
+
+        boolean isEmpty() {
+            return shards.isEmpty() && index == null && removed.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,653 @@
+package com.example.dominionrising.common.persistence;
+
+import com.example.dominionrising.common.config.DominionConfig;
+import com.example.dominionrising.common.nation.Nation;
+import com.example.dominionrising.common.nation.NationCodec;
+import com.example.dominionrising.common.nation.NationDataSerializer;
+import com.example.dominionrising.common.nation.NationManager;
+import com.example.dominionrising.common.unit.NationUnit;
+import com.example.dominionrising.common.unit.UnitCodec;
+import com.example.dominionrising.common.unit.UnitManager;
+import com.example.dominionrising.common.unit.UnitSnapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Persists nation and unit data in the mod's own files under the world folder
+ * A save copies the changed state on the server thread and leaves encoding, compression and the
+ * file writes to a single worker thread, so the server thread only pays for the copy.
+ *
+ * Changes made between snapshots are kept in a MutationJournal and replayed on the next load.
+ * A journal that grows past the configured size is compacted by taking a snapshot early.
+ *
+ * Layout of the data directory:
+ *   nations/             One shard file per nation plus an index (see NationShards), the default
+ *   nations.dat          GZIP'd data of all nations (NationCodec format), when nationShards is off
+ *   units/chunk-N.dat    GZIP'd unit save chunk N (UnitCodec format)
+ *   units/chunk-N.dat.corrupt  A chunk that failed to load, kept for recovery; index N is never reused
+ *   journal/journal-N.log  Mutation journal segments written since the last snapshot
+ * Every snapshot file is written to a temporary file first and moved into place, so a crash never leaves a torn file.
+ */
+public class WorldPersistence {
+    private static WorldPersistence instance;
+
+    /**
+     * Name of the data directory inside the world folder
+     */
+    public static final String DIRECTORY_NAME = "dominionrising";
+
+    private static final String NATIONS_FILE = "nations.dat";
+    private static final String UNITS_DIRECTORY = "units";
+    private static final String JOURNAL_DIRECTORY = "journal";
+    private static final Pattern CHUNK_FILE = Pattern.compile("chunk-(\\d+)\\.dat");
+    // Unit chunks that failed to load are moved aside under this suffix; their index stays out of use
+    private static final String CORRUPT_SUFFIX = ".corrupt";
+    private static final Pattern CORRUPT_CHUNK_FILE = Pattern.compile("chunk-(\\d+)\\.dat\\.corrupt");
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 60;
+
+    private Path directory;
+    private ExecutorService worker;
+    private MutationJournal journal;
+
+    // Nations and their versions as of the last captured snapshot, by lowercase name (server thread only);
+    // the instance is kept too, since a nation recreated under the same name starts at the same version
+    private final Map<String, Nation> capturedNations = new HashMap<>();
+    private final Map<String, Long> capturedNationVersions = new HashMap<>();
+    private final NationShards shards = new NationShards();
+
+    // Makes the next save write every nation, e.g. after writing the single nation file failed or after migrating
+    private volatile boolean rewriteAllNations;
+
+    // Bumped by the worker after a failed write marked its data dirty again; journal segments are only
+    // deleted by a snapshot captured after the last failure, which is guaranteed to contain that data
+    private volatile long failures;
+
+    private volatile long lastPauseNanos;
+
+    private WorldPersistence() {}
+
+    public static WorldPersistence getInstance() {
+        if (instance == null) {
+            synchronized (WorldPersistence.class) {
+                if (instance == null) {
+                    instance = new WorldPersistence();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Start persisting to a data directory; closes the previous directory first
+     * @param directory The data directory, created on the first save
+     */
+    public synchronized void open(Path directory) {
+        close();
+        this.directory = directory;
+        this.capturedNations.clear();
+        this.capturedNationVersions.clear();
+        this.shards.clear();
+        this.rewriteAllNations = false;
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Dominion Rising Save");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Load the last snapshot into the managers, replay the journal and start journaling
+     * @param fallback Loads data from another source when there is no snapshot yet (e.g. a world saved by an older version)
+     * @return false if there was no snapshot and the fallback ran
+     */
+    public synchronized boolean load(Runnable fallback) {
+        if (directory == null) {
+            return false;
+        }
+        boolean snapshot = NationShards.exists(directory) || Files.isRegularFile(directory.resolve(NATIONS_FILE));
+        if (snapshot) {
+            loadSnapshot();
+        } else {
+            fallback.run();
+            markAllDirty();
+        }
+
+        journal = new MutationJournal(directory.resolve(JOURNAL_DIRECTORY));
+        long start = System.nanoTime();
+        int replayed = journal.replay();
+        NationManager.getInstance().setChangeListener(journal);
+        UnitManager.getInstance().setMutationListener(journal);
+        if (replayed > 0) {
+            System.out.println("Dominion Rising: Replayed " + replayed + " journal records in "
+                    + formatMillis(System.nanoTime() - start) + " ms");
+            // Fold the replayed records into a new snapshot so the old segments can go
+            save();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Read and decode the nation shards (or nation file) and every unit chunk in parallel on the common
+     * fork-join pool, then hand the results to the managers in one step each
+     * Unit chunks are read while the nations load, but only decoded once the nations (and their ids) are
+     * registered, so owner ids in the chunks resolve against the loaded nations.
+     */
+    private void loadSnapshot() {
+        long start = System.nanoTime();
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        boolean sharded = NationShards.exists(directory);
+        List<ForkJoinTask<NationDataSerializer.NationData>> nationTasks = new ArrayList<>();
+        try {
+            if (sharded) {
+                for (Path shardFile : shards.load(directory).values()) {
+                    nationTasks.add(pool.submit(() -> NationShards.readNations(shardFile)));
+                }
+            } else {
+                Path nationFile = directory.resolve(NATIONS_FILE);
+                nationTasks.add(pool.submit(() -> NationShards.readNations(nationFile)));
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to read the nation index: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        // By chunk index; null for chunks moved aside as corrupt by an earlier load
+        List<ForkJoinTask<byte[]>> chunkTasks = new ArrayList<>();
+        TreeMap<Integer, Path> chunkFiles;
+        try {
+            // Keep chunk indexes stable; missing chunks load as empty
+            chunkFiles = listUnitChunks(CHUNK_FILE);
+            TreeMap<Integer, Path> corruptFiles = listUnitChunks(CORRUPT_CHUNK_FILE);
+            int chunkCount = Math.max(chunkFiles.isEmpty() ? 0 : chunkFiles.lastKey() + 1,
+                    corruptFiles.isEmpty() ? 0 : corruptFiles.lastKey() + 1);
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                Path chunkFile = chunkFiles.get(chunk);
+                if (chunkFile != null) {
+                    chunkTasks.add(pool.submit(() -> readCompressed(chunkFile)));
+                } else if (corruptFiles.containsKey(chunk)) {
+                    chunkTasks.add(null);
+                } else {
+                    chunkTasks.add(pool.submit(() -> (byte[]) null));
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to list unit data: " + e.getMessage());
+            chunkTasks = null;
+            chunkFiles = null;
+        }
+
+        // Load nation data; a damaged shard only loses its own nation
+        Map<String, Nation> nations = new HashMap<>();
+        Map<UUID, String> playerToNation = new HashMap<>();
+        for (ForkJoinTask<NationDataSerializer.NationData> task : nationTasks) {
+            try {
+                NationDataSerializer.NationData data = task.get();
+                nations.putAll(data.nations);
+                playerToNation.putAll(data.playerToNation);
+            } catch (Exception e) {
+                System.err.println("Failed to load nation data: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+        NationManager.getInstance().loadData(nations, playerToNation);
+        rememberNationVersions(NationManager.getInstance().getAllNations());
+        if (sharded != DominionConfig.NATION_SHARDS) {
+            // Convert to the configured layout on the next save
+            markAllNationsDirty();
+        }
+
+        // Load unit data; a damaged chunk only loses its own units, and its index stays out of use
+        // so the chunks saved from now on never overwrite its file
+        int units = 0;
+        if (chunkTasks != null) {
+            // Wait for each read here rather than inside the decode task, so no pool worker blocks on another task;
+            // a chunk starts decoding as soon as its read is done, while the later reads still run
+            List<ForkJoinTask<List<NationUnit>>> decodeTasks = new ArrayList<>(chunkTasks.size());
+            for (int chunk = 0; chunk < chunkTasks.size(); chunk++) {
+                ForkJoinTask<byte[]> task = chunkTasks.get(chunk);
+                byte[] data = null;
+                boolean read = task != null;
+                if (read) {
+                    try {
+                        data = task.get();
+                    } catch (Exception e) {
+                        read = false;
+                        damagedUnitChunk(chunk, chunkFiles.get(chunk), e);
+                    }
+                }
+                byte[] chunkData = data;
+                decodeTasks.add(!read ? null : pool.submit(
+                        () -> chunkData != null ? UnitCodec.decode(chunkData) : Collections.<NationUnit>emptyList()));
+            }
+            List<List<NationUnit>> decoded = new ArrayList<>(decodeTasks.size());
+            for (int chunk = 0; chunk < decodeTasks.size(); chunk++) {
+                ForkJoinTask<List<NationUnit>> task = decodeTasks.get(chunk);
+                List<NationUnit> chunkUnits = null;
+                if (task != null) {
+                    try {
+                        chunkUnits = task.get();
+                        units += chunkUnits.size();
+                    } catch (Exception e) {
+                        damagedUnitChunk(chunk, chunkFiles.get(chunk), e);
+                    }
+                }
+                decoded.add(chunkUnits);
+            }
+            long merge = System.nanoTime();
+            UnitManager.getInstance().loadDecodedUnitChunks(decoded);
+            System.out.println("Dominion Rising: Decoded " + units + " units in " + formatMillis(merge - start)
+                    + " ms, merged in " + formatMillis(System.nanoTime() - merge) + " ms");
+        }
+    }
+
+    /**
+     * Move a unit chunk that could not be loaded aside, so it is kept for recovery and not loaded again
+     * Its index stays out of use either way; if the move fails the file is simply tried again on the next load.
+     */
+    private static void damagedUnitChunk(int chunk, Path file, Exception cause) {
+        System.err.println("Failed to load unit chunk " + chunk + ", its units are not loaded: " + cause.getMessage());
+        cause.printStackTrace();
+        Path aside = file.resolveSibling(file.getFileName() + CORRUPT_SUFFIX);
+        try {
+            Files.move(file, aside, StandardCopyOption.REPLACE_EXISTING);
+            System.err.println("Dominion Rising: Moved the damaged unit chunk to " + aside);
+        } catch (IOException e) {
+            System.err.println("Failed to move " + file + " aside: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Make the next save write all nations and units, e.g. after migrating data from another format
+     */
+    public synchronized void markAllDirty() {
+        markAllNationsDirty();
+        UnitManager.getInstance().markAllUnitsDirty();
+    }
+
+    private void markAllNationsDirty() {
+        capturedNations.clear();
+        capturedNationVersions.clear();
+        // Also covers an empty world, which has no nation to compare
+        rewriteAllNations = true;
+    }
+
+    /**
+     * Capture the changed nations and unit chunks and queue them for writing
+     * Must be called on the server thread; returns once the snapshot is taken, not when it is on disk
+     * @return What was captured, or null if persistence is not open
+     */
+    public synchronized SaveResult save() {
+        if (worker == null) {
+            return null;
+        }
+
+        long start = System.nanoTime();
+        long failureCount = failures;
+        NationSnapshot nations = captureNations();
+        UnitSnapshot units = UnitManager.getInstance().captureDirtyUnitChunks();
+        // Records from here on go to a new segment, which the snapshot does not cover
+        MutationJournal currentJournal = journal;
+        long firstKept = currentJournal != null ? currentJournal.rotate() : -1;
+        long pause = System.nanoTime() - start;
+        lastPauseNanos = pause;
+
+        SaveResult result = new SaveResult(nations != null ? nations.size() : 0,
+                units.getChunkCount(), units.getRecordCount(), pause);
+        boolean empty = nations == null && units.getChunkCount() == 0;
+        if (empty && currentJournal == null) {
+            return result;
+        }
+
+        Path target = directory;
+        worker.execute(() -> {
+            if (write(target, nations, units) && failures == failureCount && currentJournal != null) {
+                currentJournal.deleteSegmentsBefore(firstKept);
+            }
+        });
+        if (empty) {
+            return result;
+        }
+        System.out.println("Dominion Rising: Save snapshot took " + formatMillis(pause) + " ms on the server thread ("
+                + result.nations + " nations, " + result.unitRecords + " unit records in " + result.unitChunks + " chunks)");
+        return result;
+    }
+
+    /**
+     * Wait until every queued save is on disk
+     */
+    public void awaitPendingSaves() {
+        ExecutorService current;
+        synchronized (this) {
+            current = worker;
+        }
+        if (current == null) {
+            return;
+        }
+        try {
+            current.submit(() -> {}).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // The no-op barrier task cannot fail
+        }
+    }
+
+    /**
+     * Take a final snapshot and wait for all queued saves before stopping the worker
+     * Does nothing if persistence is not open
+     * @return The final snapshot, or null if persistence was not open
+     */
+    public synchronized SaveResult close() {
+        if (worker == null) {
+            return null;
+        }
+        SaveResult result = save();
+        NationManager.getInstance().setChangeListener(null);
+        UnitManager.getInstance().setMutationListener(null);
+        worker.shutdown();
+        try {
+            if (!worker.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("Dominion Rising: Timed out waiting for saves to finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+        worker = null;
+        directory = null;
+        return result;
+    }
+
+    /**
+     * Commit this tick's journal records and compact the journal when it grew too large (called every server tick)
+     */
+    public synchronized void tick() {
+        if (journal == null) {
+            return;
+        }
+        journal.commit();
+        if (journal.getSegmentBytes() >= DominionConfig.JOURNAL_COMPACT_BYTES) {
+            System.out.println("Dominion Rising: Compacting the mutation journal");
+            save();
+        }
+    }
+
+    /**
+     * Get the server thread time spent by the last save
+     * @return Nanoseconds spent capturing the last snapshot
+     */
+    public long getLastPauseNanos() {
+        return lastPauseNanos;
+    }
+
+    private NationSnapshot captureNations() {
+        NationManager manager = NationManager.getInstance();
+        Map<String, Nation> current = manager.getAllNations();
+
+        Set<String> changed = new HashSet<>();
+        for (Map.Entry<String, Nation> entry : current.entrySet()) {
+            if (isChanged(entry.getKey(), entry.getValue())) {
+                changed.add(entry.getKey());
+            }
+        }
+        List<String> removed = new ArrayList<>();
+        for (String key : capturedNations.keySet()) {
+            if (!current.containsKey(key)) {
+                removed.add(key);
+            }
+        }
+
+        if (!DominionConfig.NATION_SHARDS) {
+            if (!rewriteAllNations && changed.isEmpty() && removed.isEmpty()) {
+                return null;
+            }
+            rewriteAllNations = false;
+            // The nation file is written as a whole, so copy every nation once one changed
+            Map<String, Nation> copies = new HashMap<>();
+            for (Map.Entry<String, Nation> entry : current.entrySet()) {
+                copies.put(entry.getKey(), entry.getValue().copy());
+            }
+            rememberNationVersions(current);
+            return new NationSnapshot(copies, manager.getPlayerToNationMap());
+        }
+
+        shards.drainFailedNations(changed);
+        changed.retainAll(current.keySet());
+        for (String key : removed) {
+            shards.remove(key);
+            capturedNations.remove(key);
+            capturedNationVersions.remove(key);
+        }
+        if (rewriteAllNations) {
+            // Rewrite every shard, e.g. after migrating from the single nation file
+            rewriteAllNations = false;
+            changed.addAll(current.keySet());
+            shards.markIndexDirty();
+        }
+        if (changed.isEmpty() && !shards.hasPendingWork()) {
+            return null;
+        }
+
+        Map<Integer, Nation> copies = new HashMap<>();
+        for (String key : changed) {
+            Nation nation = current.get(key);
+            copies.put(shards.assign(key), nation.copy());
+            capturedNations.put(key, nation);
+            capturedNationVersions.put(key, nation.getVersion());
+        }
+        return new NationSnapshot(shards.capture(copies));
+    }
+
+    private boolean isChanged(String key, Nation nation) {
+        Long version = capturedNationVersions.get(key);
+        return capturedNations.get(key) != nation || version == null || version != nation.getVersion();
+    }
+
+    private void rememberNationVersions(Map<String, Nation> nations) {
+        capturedNations.clear();
+        capturedNationVersions.clear();
+        for (Map.Entry<String, Nation> entry : nations.entrySet()) {
+            capturedNations.put(entry.getKey(), entry.getValue());
+            capturedNationVersions.put(entry.getKey(), entry.getValue().getVersion());
+        }
+    }
+
+    /**
+     * Runs on the worker thread
+     * @return true if everything was written
+     */
+    private boolean write(Path target, NationSnapshot nations, UnitSnapshot units) {
+        if (nations == null && units.getChunkCount() == 0) {
+            return true;
+        }
+        long start = System.nanoTime();
+        boolean written = true;
+        if (nations != null && nations.shards != null) {
+            if (shards.write(target, nations.shards)) {
+                deleteLegacyNationFile(target);
+            } else {
+                failures++;
+                written = false;
+            }
+        } else if (nations != null) {
+            try {
+                writeCompressed(target.resolve(NATIONS_FILE), NationCodec.encode(nations.nations, nations.playerToNation));
+                // The index would take precedence over this file on the next load
+                NationShards.deleteAll(target);
+            } catch (Exception e) {
+                rewriteAllNations = true;
+                failures++;
+                written = false;
+                System.err.println("Failed to save nation data: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+
+        if (units.getChunkCount() > 0) {
+            try {
+                Path unitDirectory = target.resolve(UNITS_DIRECTORY);
+                for (Map.Entry<Integer, byte[]> chunk : units.encodeChunks().entrySet()) {
+                    writeCompressed(unitDirectory.resolve("chunk-" + chunk.getKey() + ".dat"), chunk.getValue());
+                }
+            } catch (Exception e) {
+                // Chunks may be partly written; rewrite all of them on the next save
+                UnitManager.getInstance().markUnitChunksDirty(units.getChunkIndexes());
+                failures++;
+                written = false;
+                System.err.println("Failed to save unit data: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+
+        System.out.println("Dominion Rising: Wrote " + (nations != null ? nations.size() : 0) + " nations and "
+                + units.getRecordCount() + " unit records in " + formatMillis(System.nanoTime() - start) + " ms");
+        return written;
+    }
+
+    private static void deleteLegacyNationFile(Path target) {
+        try {
+            Files.deleteIfExists(target.resolve(NATIONS_FILE));
+        } catch (IOException e) {
+            // Ignored on load while the shard index exists
+            System.err.println("Failed to delete " + NATIONS_FILE + ": " + e.getMessage());
+        }
+    }
+
+    private TreeMap<Integer, Path> listUnitChunks(Pattern pattern) throws IOException {
+        Path unitDirectory = directory.resolve(UNITS_DIRECTORY);
+        TreeMap<Integer, Path> files = new TreeMap<>();
+        if (Files.isDirectory(unitDirectory)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(unitDirectory)) {
+                for (Path file : stream) {
+                    Matcher matcher = pattern.matcher(file.getFileName().toString());
+                    if (matcher.matches()) {
+                        files.put(Integer.parseInt(matcher.group(1)), file);
+                    }
+                }
+            }
+        }
+        return files;
+    }
+
+    private static byte[] readCompressed(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Compress data and replace a file with it atomically (temporary file, fsync, move)
+     */
+    static void writeCompressed(Path file, byte[] data) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(data.length / 2 + 64);
+        try (OutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(data);
+        }
+        writeAtomically(file, compressed.toByteArray());
+    }
+
+    /**
+     * Replace a file atomically (temporary file, fsync, move)
+     */
+    static void writeAtomically(Path file, byte[] data) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format("%.2f", nanos / 1_000_000.0);
+    }
+
+    /**
+     * Copies of the nations to write, taken on the server thread
+     * Holds either the changed shards, or all nations and player mappings for the single nation file
+     */
+    private static final class NationSnapshot {
+        private final Map<String, Nation> nations;
+        private final Map<UUID, String> playerToNation;
+        private final NationShards.Snapshot shards;
+
+        private NationSnapshot(Map<String, Nation> nations, Map<UUID, String> playerToNation) {
+            this.nations = nations;
+            this.playerToNation = playerToNation;
+            this.shards = null;
+        }
+
+        private NationSnapshot(NationShards.Snapshot shards) {
+            this.nations = null;
+            this.playerToNation = null;
+            this.shards = shards;
+        }
+
+        private int size() {
+            return shards != null ? shards.size() : nations.size();
+        }
+    }
+
+    /**
+     * What a save captured and how long the server thread spent on it
+     */
+    public static class SaveResult {
+        public final int nations;
+        public final int unitChunks;
+        public final int unitRecords;
+        public final long pauseNanos;
+
+        public SaveResult(int nations, int unitChunks, int unitRecords, long pauseNanos) {
+            this.nations = nations;
+            this.unitChunks = unitChunks;
+            this.unitRecords = unitRecords;
+            this.pauseNanos = pauseNanos;
+        }
+
+        public double getPauseMillis() {
+            return pauseNanos / 1_000_000.0;
+        }
+    }
+}
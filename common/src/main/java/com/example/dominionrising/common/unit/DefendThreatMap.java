@@ -0,0 +1,160 @@
+package com.example.dominionrising.common.unit;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Threats around defend points, shared by all units of a nation defending the same point
+ * Instead of every defender filtering the entities near it against the defend boundary, each point
+ * keeps one list of the hostiles inside its zone, nearest to the point first. The list is refreshed
+ * at most once per interval, when the first defender asks for it after it went stale; the other
+ * defenders of the point read it as is.
+ *
+ * Points are keyed by dimension, defend block and owning nation, since whether a player is a
+ * threat depends on the nation. Points nobody asked for in a while are dropped.
+ * Threats can be up to interval ticks old; callers re-check the entities they use.
+ * Used from the server thread only.
+ *
+ * @param <L> The loader's level type, handed to the scanner
+ * @param <E> The threat entity type
+ */
+public class DefendThreatMap<L, E> {
+
+    /**
+     * Finds the threats around one defend point
+     */
+    public interface Scanner<L, E> {
+        /**
+         * Report every entity within radius of the point that is hostile to the nation
+         * @param into Receives each threat with its squared distance to the point
+         */
+        void scan(L level, String dimension, int nationId, double x, double y, double z, double radius, Sink<E> into);
+    }
+
+    /**
+     * Receives threats from a scanner
+     */
+    public interface Sink<E> {
+        void add(E entity, double distanceSq);
+    }
+
+    private final Scanner<L, E> scanner;
+    private final double radius;
+    private final int interval;
+
+    // Dimension -> packed defend block -> nation id -> point
+    private final Map<String, Map<Long, Map<Integer, Point<E>>>> dimensions = new HashMap<>();
+    private long tick;
+    private long scans;
+
+    /**
+     * @param scanner Finds the threats around a point
+     * @param radius Radius of a defend zone in blocks
+     * @param interval Ticks a point's threat list stays valid
+     */
+    public DefendThreatMap(Scanner<L, E> scanner, double radius, int interval) {
+        this.scanner = scanner;
+        this.radius = radius;
+        this.interval = Math.max(1, interval);
+    }
+
+    /**
+     * Advance by one server tick; points nobody asked for in a while are dropped
+     */
+    public void tick() {
+        tick++;
+        if (tick % interval != 0) {
+            return;
+        }
+        for (Iterator<Map<Long, Map<Integer, Point<E>>>> blocks = dimensions.values().iterator(); blocks.hasNext(); ) {
+            Map<Long, Map<Integer, Point<E>>> points = blocks.next();
+            for (Iterator<Map<Integer, Point<E>>> nations = points.values().iterator(); nations.hasNext(); ) {
+                Map<Integer, Point<E>> byNation = nations.next();
+                byNation.values().removeIf(point -> tick - point.used >= 2L * interval);
+                if (byNation.isEmpty()) {
+                    nations.remove();
+                }
+            }
+            if (points.isEmpty()) {
+                blocks.remove();
+            }
+        }
+    }
+
+    /**
+     * Get the threats inside a nation's defend zone, rescanning the zone if its list is too old
+     * @param level The level, passed to the scanner
+     * @param dimension Dimension key of the level
+     * @param nationId The defending nation
+     * @return The threats, nearest to the point first; an unmodifiable list valid until the next refresh
+     */
+    public List<E> getThreats(L level, String dimension, int nationId, double x, double y, double z) {
+        Map<Integer, Point<E>> byNation = dimensions.computeIfAbsent(dimension, k -> new HashMap<>())
+                .computeIfAbsent(blockKey(x, y, z), k -> new HashMap<>());
+        Point<E> point = byNation.get(nationId);
+        if (point == null) {
+            point = new Point<>();
+            byNation.put(nationId, point);
+        }
+        point.used = tick;
+        if (point.refreshed == Long.MIN_VALUE || tick - point.refreshed >= interval) {
+            refresh(point, level, dimension, nationId, x, y, z);
+        }
+        return point.threats;
+    }
+
+    /**
+     * Forget all points, e.g. when the server stops
+     */
+    public void clear() {
+        dimensions.clear();
+    }
+
+    /**
+     * Get the number of defend zone scans done so far
+     */
+    public long getScanCount() {
+        return scans;
+    }
+
+    private void refresh(Point<E> point, L level, String dimension, int nationId, double x, double y, double z) {
+        List<Threat<E>> found = new ArrayList<>();
+        scanner.scan(level, dimension, nationId, x, y, z, radius, (entity, distanceSq) -> found.add(new Threat<>(entity, distanceSq)));
+        found.sort((a, b) -> Double.compare(a.distanceSq, b.distanceSq));
+        List<E> threats = new ArrayList<>(found.size());
+        for (Threat<E> threat : found) {
+            threats.add(threat.entity);
+        }
+        point.threats = Collections.unmodifiableList(threats);
+        point.refreshed = tick;
+        scans++;
+    }
+
+    /**
+     * Same packing as vanilla BlockPos.asLong
+     */
+    private static long blockKey(double x, double y, double z) {
+        long bx = (long) Math.floor(x), by = (long) Math.floor(y), bz = (long) Math.floor(z);
+        return (bx & 0x3FFFFFFL) << 38 | (by & 0xFFFL) | (bz & 0x3FFFFFFL) << 12;
+    }
+
+    private static final class Point<E> {
+        private List<E> threats = Collections.emptyList();
+        private long refreshed = Long.MIN_VALUE;
+        private long used;
+    }
+
+    private static final class Threat<E> {
+        private final E entity;
+        private final double distanceSq;
+
+        private Threat(E entity, double distanceSq) {
+            this.entity = entity;
+            this.distanceSq = distanceSq;
+        }
+    }
+}
@@ -1,31 +1,20 @@
 package com.example.dominionrising.common.unit;
 
+import com.example.dominionrising.common.nation.NationRegistry;
+
 import java.util.UUID;
 
 /**
  * Represents a nation unit with enhanced stats, tactical state, and persistence
+ * The unit's state lives in one row of a UnitStore; this object is a thin view over that row
+ * Until UnitManager moves it into its shared store, the row is a UnitRow held in plain fields.
  */
 public class NationUnit {
-    private final UUID id;
-    private final String type;
-    private int level;
-    private int health;
-    private int maxHealth;
-    private int attackDamage;
-    private int defense;
-    private double attackSpeed;
-    private final String ownerNation;
-    private boolean alive;
-    
-    // Tactical state
-    private UnitState currentState;
-    private UUID attackTarget; // Target entity UUID
-    private double defendX, defendY, defendZ; // Defend position
-    private long stateChangeTime; // When state last changed
-    
-    // Experience and progression  
-    private int experience;
-    private int experienceToNextLevel;
+    private static final UnitState[] STATES = UnitState.values();
+
+    private UnitStore store;
+    private int handle;
+    private UnitLifecycleListener listener;
     
     public enum UnitState {
         IDLE,       // Following nation players
@@ -34,99 +23,143 @@ public class NationUnit {
         RETURNING   // Returning to player after task
     }
 
+    /**
+     * Reserves a NationRegistry id for an unknown owner name, so only use this on the server
+     */
     public NationUnit(String type, String ownerNation, int initialLevel) {
-        this.id = UUID.randomUUID();
-        this.type = type;
-        this.ownerNation = ownerNation;
-        this.level = initialLevel;
-        
-        // Initialize stats based on type and level
-        initializeStats();
+        this(type, NationRegistry.getInstance().resolve(ownerNation), initialLevel);
+    }
+    
+    /**
+     * @param ownerNationId NationRegistry id of the owning nation
+     */
+    public NationUnit(String type, int ownerNationId, int initialLevel) {
+        this.store = new UnitRow();
+        this.handle = store.allocate(UUID.randomUUID());
+        store.setTypeId(handle, UnitStore.TYPES.intern(type));
+        store.setOwnerId(handle, ownerNationId);
+        store.setLevel(handle, initialLevel);
+        store.setHealth(handle, getMaxHealth());
         
         // Initialize tactical state
-        this.currentState = UnitState.IDLE;
-        this.attackTarget = null;
-        this.defendX = this.defendY = this.defendZ = 0;
-        this.stateChangeTime = System.currentTimeMillis();
-        
-        // Initialize experience
-        this.experience = 0;
-        this.experienceToNextLevel = calculateExperienceForNextLevel(level);
+        store.setStateOrdinal(handle, UnitState.IDLE.ordinal());
+        store.setStateChangeTime(handle, System.currentTimeMillis());
         
-        this.alive = true;
+        store.setAlive(handle, true);
     }
     
     /**
-     * Constructor for loading from persistence data
+     * Constructor for loading from persistence data that stores the owner by name
+     * Reserves a NationRegistry id for an unknown owner name, so only use this on the server
      */
     public NationUnit(UUID id, String type, String ownerNation, int level, int health, int experience, 
                       UnitState state, UUID attackTarget, double defendX, double defendY, double defendZ) {
-        this.id = id;
-        this.type = type;
-        this.ownerNation = ownerNation;
-        this.level = level;
-        this.experience = experience;
-        
-        // Initialize stats based on type and level
-        initializeStats();
+        this(id, type, NationRegistry.getInstance().resolve(ownerNation), level, health, experience,
+             state, attackTarget, defendX, defendY, defendZ);
+    }
+    
+    /**
+     * Constructor for loading from persistence data, or for display copies built on the client
+     * @param ownerNationId NationRegistry id of the owning nation, or NationRegistry.NONE if it is not known
+     */
+    public NationUnit(UUID id, String type, int ownerNationId, int level, int health, int experience, 
+                      UnitState state, UUID attackTarget, double defendX, double defendY, double defendZ) {
+        this.store = new UnitRow();
+        this.handle = store.allocate(id);
+        store.setTypeId(handle, UnitStore.TYPES.intern(type));
+        store.setOwnerId(handle, ownerNationId);
+        store.setLevel(handle, level);
+        store.setExperience(handle, experience);
         
         // Set health (might be damaged)
-        this.health = Math.min(health, this.maxHealth);
-        this.alive = this.health > 0;
+        store.setHealth(handle, Math.min(health, getMaxHealth()));
+        store.setAlive(handle, store.getHealth(handle) > 0);
         
         // Restore tactical state
-        this.currentState = state != null ? state : UnitState.IDLE;
-        this.attackTarget = attackTarget;
-        this.defendX = defendX;
-        this.defendY = defendY;
-        this.defendZ = defendZ;
-        this.stateChangeTime = System.currentTimeMillis();
-        
-        this.experienceToNextLevel = calculateExperienceForNextLevel(level);
+        store.setStateOrdinal(handle, (state != null ? state : UnitState.IDLE).ordinal());
+        store.setAttackTarget(handle, attackTarget);
+        store.setDefendPosition(handle, defendX, defendY, defendZ);
+        store.setStateChangeTime(handle, System.currentTimeMillis());
     }
-    
+
     /**
-     * Initialize unit stats based on type and level
+     * View over a row that was already filled in (used by UnitCodec to decode many units into one store)
      */
-    private void initializeStats() {
-        // Base stats per type
-        switch (type.toLowerCase()) {
-            case "soldier" -> {
-                this.maxHealth = 25 + (level * 5);
-                this.attackDamage = 6 + (level * 2);
-                this.defense = 3 + level;
-                this.attackSpeed = 1.0;
-            }
-            case "archer" -> {
-                this.maxHealth = 20 + (level * 4);
-                this.attackDamage = 5 + (level * 2);
-                this.defense = 2 + level;
-                this.attackSpeed = 0.8;
-            }
-            case "knight" -> {
-                this.maxHealth = 35 + (level * 6);
-                this.attackDamage = 8 + (level * 2);
-                this.defense = 5 + (level * 2);
-                this.attackSpeed = 1.2;
-            }
-            case "mage" -> {
-                this.maxHealth = 22 + (level * 4);
-                this.attackDamage = 7 + (level * 3);
-                this.defense = 1 + level;
-                this.attackSpeed = 0.6;
-            }
-            default -> {
-                this.maxHealth = 20 + (level * 5);
-                this.attackDamage = 4 + level;
-                this.defense = 2 + level;
-                this.attackSpeed = 1.0;
-            }
+    NationUnit(UnitStore store, int handle) {
+        this.store = store;
+        this.handle = handle;
+    }
+
+    /**
+     * Move this unit's row into another store, releasing the old row
+     * Callers holding this view keep seeing the same unit afterwards
+     * @param target The store to move into
+     */
+    void moveTo(UnitStore target) {
+        if (target == store) {
+            return;
         }
-        
-        // Initialize health to max if not set
-        if (this.health == 0) {
-            this.health = this.maxHealth;
+        UnitStore oldStore = store;
+        int oldHandle = handle;
+        this.handle = target.copyFrom(oldStore, oldHandle);
+        this.store = target;
+        oldStore.free(oldHandle);
+    }
+
+    UnitStore getStore() {
+        return store;
+    }
+
+    int getHandle() {
+        return handle;
+    }
+
+    int getTypeId() {
+        return store.getTypeId(handle);
+    }
+
+    /**
+     * Get the NationRegistry id of the owning nation; compare these instead of names
+     */
+    public int getOwnerNationId() {
+        return store.getOwnerId(handle);
+    }
+
+    /**
+     * Attach the listener notified about death and state changes (null to detach)
+     */
+    void setListener(UnitLifecycleListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Write a new tactical state and publish the change
+     */
+    private void changeState(UnitState newState) {
+        UnitState oldState = getCurrentState();
+        store.setStateOrdinal(handle, newState.ordinal());
+        store.setStateChangeTime(handle, System.currentTimeMillis());
+        if (oldState != newState && listener != null && isAlive()) {
+            listener.onStateChanged(this, oldState, newState);
         }
+        changed(UnitMutationListener.Change.STATE);
+    }
+
+    /**
+     * Bump the row version and tell the manager this unit needs saving
+     */
+    private void changed(UnitMutationListener.Change change) {
+        store.bumpVersion(handle);
+        if (listener != null) {
+            listener.onUnitChanged(this, change);
+        }
+    }
+    
+    /**
+     * Stats of this unit's type, precomputed per level
+     */
+    private UnitType unitType() {
+        return UnitTypeRegistry.getInstance().forSymbol(store.getTypeId(handle));
     }
 
     /**
@@ -135,43 +168,53 @@ public class NationUnit {
      * @return true if unit survived, false if unit died
      */
     public boolean takeDamage(int amount) {
-        if (!alive) return false;
+        if (!store.isAlive(handle)) return false;
         
-        health -= amount;
+        int health = store.getHealth(handle) - amount;
         if (health <= 0) {
-            health = 0;
-            alive = false;
+            store.setHealth(handle, 0);
+            store.setAlive(handle, false);
+            if (listener != null) {
+                listener.onUnitDied(this);
+            }
+            changed(UnitMutationListener.Change.HEALTH);
             return false;
         }
+        store.setHealth(handle, health);
+        changed(UnitMutationListener.Change.HEALTH);
         return true;
     }
 
+    /**
+     * Kill the unit outright (e.g. its entity was killed by something other than takeDamage)
+     */
+    public void kill() {
+        takeDamage(Math.max(1, store.getHealth(handle)));
+    }
+
     /**
      * Check if unit is still alive
      * @return true if unit is alive
      */
     public boolean isAlive() {
-        return alive && health > 0;
+        return store.isAlive(handle) && store.getHealth(handle) > 0;
     }
 
     /**
      * Level up the unit, increasing stats
      */
     public void levelUp() {
-        if (!alive) return;
+        if (!store.isAlive(handle)) return;
         
-        level++;
-        int oldMaxHealth = maxHealth;
+        int oldMaxHealth = getMaxHealth();
+        store.setLevel(handle, store.getLevel(handle) + 1);
         
-        // Recalculate all stats
-        initializeStats();
-        
-        // Heal the unit proportionally when leveling up
-        health += (maxHealth - oldMaxHealth);
+        // Heal the unit by the max health gained when leveling up
+        store.setHealth(handle, store.getHealth(handle) + (getMaxHealth() - oldMaxHealth));
         
         // Reset experience for next level
-        experience = 0;
-        experienceToNextLevel = calculateExperienceForNextLevel(level);
+        store.setExperience(handle, 0);
+        changed(UnitMutationListener.Change.PROGRESS);
     }
 
     /**
@@ -180,13 +223,15 @@ public class NationUnit {
      * @return true if unit leveled up
      */
     public boolean addExperience(int exp) {
-        if (!alive) return false;
+        if (!store.isAlive(handle)) return false;
         
-        experience += exp;
-        if (experience >= experienceToNextLevel) {
+        int experience = store.getExperience(handle) + exp;
+        store.setExperience(handle, experience);
+        if (experience >= getExperienceToNextLevel()) {
             levelUp();
             return true;
         }
+        changed(UnitMutationListener.Change.PROGRESS);
         return false;
     }
 
@@ -195,7 +240,7 @@ public class NationUnit {
      * @param currentLevel Current level
      * @return Experience needed for next level
      */
-    private int calculateExperienceForNextLevel(int currentLevel) {
+    private static int calculateExperienceForNextLevel(int currentLevel) {
         return currentLevel * 100; // 100 exp per level
     }
 
@@ -204,9 +249,10 @@ public class NationUnit {
      * @param amount Amount to heal
      */
     public void heal(int amount) {
-        if (!alive) return;
+        if (!store.isAlive(handle)) return;
         
-        health = Math.min(health + amount, maxHealth);
+        store.setHealth(handle, Math.min(store.getHealth(handle) + amount, getMaxHealth()));
+        changed(UnitMutationListener.Change.HEALTH);
     }
 
     /**
@@ -214,7 +260,7 @@ public class NationUnit {
      * @return Attack damage
      */
     public int getAttackDamage() {
-        return attackDamage;
+        return unitType().getAttackDamage(store.getLevel(handle));
     }
 
     /**
@@ -222,7 +268,7 @@ public class NationUnit {
      * @return Defense value
      */
     public int getDefense() {
-        return defense;
+        return unitType().getDefense(store.getLevel(handle));
     }
 
     /**
@@ -230,7 +276,7 @@ public class NationUnit {
      * @return Attack speed multiplier
      */
     public double getAttackSpeed() {
-        return attackSpeed;
+        return unitType().getAttackSpeed(store.getLevel(handle));
     }
 
     // === TACTICAL COMMANDS ===
@@ -240,9 +286,8 @@ public class NationUnit {
      * @param targetId UUID of target entity
      */
     public void setAttackTarget(UUID targetId) {
-        this.attackTarget = targetId;
-        this.currentState = UnitState.ATTACKING;
-        this.stateChangeTime = System.currentTimeMillis();
+        store.setAttackTarget(handle, targetId);
+        changeState(UnitState.ATTACKING);
     }
 
     /**
@@ -252,21 +297,17 @@ public class NationUnit {
      * @param z Z coordinate
      */
     public void setDefendPosition(double x, double y, double z) {
-        this.defendX = x;
-        this.defendY = y;
-        this.defendZ = z;
-        this.currentState = UnitState.DEFENDING;
-        this.stateChangeTime = System.currentTimeMillis();
-        this.attackTarget = null; // Clear attack target
+        store.setDefendPosition(handle, x, y, z);
+        store.setAttackTarget(handle, null); // Clear attack target
+        changeState(UnitState.DEFENDING);
     }
 
     /**
      * Set unit back to idle state
      */
     public void setIdle() {
-        this.currentState = UnitState.IDLE;
-        this.attackTarget = null;
-        this.stateChangeTime = System.currentTimeMillis();
+        store.setAttackTarget(handle, null);
+        changeState(UnitState.IDLE);
     }
 
     /**
@@ -274,7 +315,7 @@ public class NationUnit {
      * @return true if unit is in attacking state
      */
     public boolean isAttacking() {
-        return currentState == UnitState.ATTACKING && attackTarget != null;
+        return getCurrentState() == UnitState.ATTACKING && store.getAttackTarget(handle) != null;
     }
 
     /**
@@ -282,130 +323,155 @@ public class NationUnit {
      * @return true if unit is in defending state
      */
     public boolean isDefending() {
-        return currentState == UnitState.DEFENDING;
+        return getCurrentState() == UnitState.DEFENDING;
     }
 
     // Getters
     public UUID getId() {
-        return id;
+        return store.getId(handle);
     }
 
     public String getType() {
-        return type;
+        return UnitStore.TYPES.name(store.getTypeId(handle));
     }
 
     public int getLevel() {
-        return level;
+        return store.getLevel(handle);
     }
 
     public int getHealth() {
-        return health;
+        return store.getHealth(handle);
     }
 
     public int getMaxHealth() {
-        return maxHealth;
+        return unitType().getMaxHealth(store.getLevel(handle));
     }
 
     public String getOwnerNation() {
-        return ownerNation;
+        return NationRegistry.getInstance().getName(store.getOwnerId(handle));
     }
 
     public double getHealthPercentage() {
-        return maxHealth > 0 ? (double) health / maxHealth : 0.0;
+        int maxHealth = getMaxHealth();
+        return maxHealth > 0 ? (double) store.getHealth(handle) / maxHealth : 0.0;
     }
 
     // === TACTICAL STATE GETTERS ===
 
     public UnitState getCurrentState() {
-        return currentState;
+        return STATES[store.getStateOrdinal(handle)];
     }
 
     public UUID getAttackTarget() {
-        return attackTarget;
+        return store.getAttackTarget(handle);
     }
 
     public double getDefendX() {
-        return defendX;
+        return store.getDefendX(handle);
     }
 
     public double getDefendY() {
-        return defendY;
+        return store.getDefendY(handle);
     }
 
     public double getDefendZ() {
-        return defendZ;
+        return store.getDefendZ(handle);
     }
 
     public long getStateChangeTime() {
-        return stateChangeTime;
+        return store.getStateChangeTime(handle);
+    }
+
+    /**
+     * Get the change counter of this unit
+     * @return A value that changes whenever the unit's persisted state changes
+     */
+    public int getVersion() {
+        return store.getVersion(handle);
     }
 
     public int getExperience() {
-        return experience;
+        return store.getExperience(handle);
     }
 
     public int getExperienceToNextLevel() {
-        return experienceToNextLevel;
+        return calculateExperienceForNextLevel(store.getLevel(handle));
     }
 
     // === PERSISTENCE METHODS ===
 
+    // Number of '|' separated fields written by serialize
+    private static final int SERIALIZED_FIELDS = 18;
+
     /**
      * Serialize unit data to string for persistence
      * @return Serialized unit data
      */
     public String serialize() {
+        UUID attackTarget = getAttackTarget();
         StringBuilder sb = new StringBuilder();
-        sb.append(id.toString()).append("|");
-        sb.append(type).append("|");
-        sb.append(ownerNation).append("|");
-        sb.append(level).append("|");
-        sb.append(health).append("|");
-        sb.append(maxHealth).append("|");
-        sb.append(attackDamage).append("|");
-        sb.append(defense).append("|");
-        sb.append(attackSpeed).append("|");
-        sb.append(alive).append("|");
-        sb.append(currentState.name()).append("|");
+        sb.append(getId().toString()).append("|");
+        sb.append(getType()).append("|");
+        sb.append(getOwnerNation()).append("|");
+        sb.append(getLevel()).append("|");
+        sb.append(getHealth()).append("|");
+        sb.append(getMaxHealth()).append("|");
+        sb.append(getAttackDamage()).append("|");
+        sb.append(getDefense()).append("|");
+        sb.append(getAttackSpeed()).append("|");
+        sb.append(store.isAlive(handle)).append("|");
+        sb.append(getCurrentState().name()).append("|");
         sb.append(attackTarget != null ? attackTarget.toString() : "null").append("|");
-        sb.append(defendX).append("|");
-        sb.append(defendY).append("|");
-        sb.append(defendZ).append("|");
-        sb.append(stateChangeTime).append("|");
-        sb.append(experience).append("|");
-        sb.append(experienceToNextLevel);
+        sb.append(getDefendX()).append("|");
+        sb.append(getDefendY()).append("|");
+        sb.append(getDefendZ()).append("|");
+        sb.append(getStateChangeTime()).append("|");
+        sb.append(getExperience()).append("|");
+        sb.append(getExperienceToNextLevel());
         return sb.toString();
     }
 
     /**
      * Deserialize unit data from string
+     * Fields are parsed in place, without splitting the line
      * @param data Serialized unit data
      * @return NationUnit instance or null if parsing failed
      */
-    public static NationUnit deserialize(String data) {
+    public static NationUnit deserialize(CharSequence data) {
         try {
-            String[] parts = data.split("\\|");
-            if (parts.length < 18) return null;
-
-            UUID id = UUID.fromString(parts[0]);
-            String type = parts[1];
-            String ownerNation = parts[2];
-            int level = Integer.parseInt(parts[3]);
-            int health = Integer.parseInt(parts[4]);
-            int experience = Integer.parseInt(parts[16]);
+            // Start offset of every field; field i ends one before starts[i + 1]
+            int[] starts = new int[SERIALIZED_FIELDS + 1];
+            int fields = 1;
+            for (int i = 0; i < data.length() && fields <= SERIALIZED_FIELDS; i++) {
+                if (data.charAt(i) == '|') {
+                    starts[fields++] = i + 1;
+                }
+            }
+            if (fields < SERIALIZED_FIELDS) return null;
+            if (fields == SERIALIZED_FIELDS) {
+                starts[SERIALIZED_FIELDS] = data.length() + 1;
+            }
+
+            UUID id = UUID.fromString(field(data, starts, 0));
+            String type = field(data, starts, 1);
+            String ownerNation = field(data, starts, 2);
+            int level = Integer.parseInt(data, starts[3], starts[4] - 1, 10);
+            int health = Integer.parseInt(data, starts[4], starts[5] - 1, 10);
+            int experience = Integer.parseInt(data, starts[16], starts[17] - 1, 10);
             
-            UnitState state = UnitState.valueOf(parts[10]);
-            UUID attackTarget = "null".equals(parts[11]) ? null : UUID.fromString(parts[11]);
-            double defendX = Double.parseDouble(parts[12]);
-            double defendY = Double.parseDouble(parts[13]);
-            double defendZ = Double.parseDouble(parts[14]);
+            UnitState state = UnitState.valueOf(field(data, starts, 10));
+            String target = field(data, starts, 11);
+            UUID attackTarget = "null".equals(target) ? null : UUID.fromString(target);
+            double defendX = Double.parseDouble(field(data, starts, 12));
+            double defendY = Double.parseDouble(field(data, starts, 13));
+            double defendZ = Double.parseDouble(field(data, starts, 14));
 
             NationUnit unit = new NationUnit(id, type, ownerNation, level, health, experience, 
                                            state, attackTarget, defendX, defendY, defendZ);
             
             // Restore additional state
-            unit.alive = Boolean.parseBoolean(parts[9]);
-            unit.stateChangeTime = Long.parseLong(parts[15]);
+            unit.store.setAlive(unit.handle, Boolean.parseBoolean(field(data, starts, 9)));
+            unit.store.setStateChangeTime(unit.handle, Long.parseLong(data, starts[15], starts[16] - 1, 10));
             
             return unit;
         } catch (Exception e) {
@@ -414,17 +480,21 @@ public class NationUnit {
         }
     }
 
+    private static String field(CharSequence data, int[] starts, int index) {
+        return data.subSequence(starts[index], starts[index + 1] - 1).toString();
+    }
+
     @Override
     public String toString() {
-        String stateInfo = switch (currentState) {
-            case ATTACKING -> attackTarget != null ? " [ATTACKING]" : " [IDLE]";
-            case DEFENDING -> String.format(" [DEFENDING %.0f,%.0f,%.0f]", defendX, defendY, defendZ);
+        String stateInfo = switch (getCurrentState()) {
+            case ATTACKING -> getAttackTarget() != null ? " [ATTACKING]" : " [IDLE]";
+            case DEFENDING -> String.format(" [DEFENDING %.0f,%.0f,%.0f]", getDefendX(), getDefendY(), getDefendZ());
             case RETURNING -> " [RETURNING]";
             default -> " [IDLE]";
         };
         
         return String.format("%s (Lv.%d) - %d/%d HP (%d ATK, %d DEF) - Nation: %s%s", 
-                type, level, health, maxHealth, attackDamage, defense, ownerNation, stateInfo);
+                getType(), getLevel(), getHealth(), getMaxHealth(), getAttackDamage(), getDefense(), getOwnerNation(), stateInfo);
     }
 
     @Override
@@ -432,11 +502,11 @@ public class NationUnit {
         if (this == obj) return true;
         if (obj == null || getClass() != obj.getClass()) return false;
         NationUnit unit = (NationUnit) obj;
-        return id.equals(unit.id);
+        return getId().equals(unit.getId());
     }
 
     @Override
     public int hashCode() {
-        return id.hashCode();
+        return getId().hashCode();
     }
-}
\ No newline at end of file
+}
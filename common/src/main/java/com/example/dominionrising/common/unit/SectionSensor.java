@@ -0,0 +1,128 @@
+package com.example.dominionrising.common.unit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared sensing for unit AI: entities of interest are collected once per 16x16x16 chunk section
+ * and kept for a few ticks, so every unit that looks around in that section reads the same sample
+ * instead of running its own bounding-box query. The cost grows with the area units occupy, not
+ * with the number of units times their search radius.
+ *
+ * Samples are up to interval ticks old; callers re-check whatever matters (alive, distance, nation)
+ * on the entities they get back. Used from the server thread only.
+ *
+ * @param <L> The loader's level type, handed to the scanner
+ * @param <E> The sensed entity type
+ */
+public class SectionSensor<L, E> {
+    private static final int SECTION_SHIFT = 4;
+
+    /**
+     * Collects the entities of interest whose position lies in one section
+     */
+    public interface Scanner<L, E> {
+        void scan(L level, int sectionX, int sectionY, int sectionZ, List<E> into);
+    }
+
+    private final Scanner<L, E> scanner;
+    private final int interval;
+
+    // Dimension -> section key -> latest sample
+    private final Map<String, Map<Long, Sample<E>>> dimensions = new HashMap<>();
+    private long tick;
+    private long scans;
+
+    /**
+     * @param scanner Collects a section's entities
+     * @param interval Ticks a sample stays valid
+     */
+    public SectionSensor(Scanner<L, E> scanner, int interval) {
+        this.scanner = scanner;
+        this.interval = Math.max(1, interval);
+    }
+
+    /**
+     * Advance by one server tick; samples nobody asked for in a while are dropped
+     */
+    public void tick() {
+        tick++;
+        if (tick % interval != 0) {
+            return;
+        }
+        for (Iterator<Map<Long, Sample<E>>> sections = dimensions.values().iterator(); sections.hasNext(); ) {
+            Map<Long, Sample<E>> samples = sections.next();
+            samples.values().removeIf(sample -> tick - sample.tick >= 2L * interval);
+            if (samples.isEmpty()) {
+                sections.remove();
+            }
+        }
+    }
+
+    /**
+     * Add the sensed entities of every section overlapping a box, rescanning sections whose sample is too old
+     * Every entity is added at most once, but may lie outside the box.
+     * @param level The level, passed to the scanner
+     * @param dimension Dimension key of the level
+     * @param into Receives the entities
+     */
+    public void collect(L level, String dimension, double minX, double minY, double minZ,
+                        double maxX, double maxY, double maxZ, List<E> into) {
+        Map<Long, Sample<E>> samples = dimensions.computeIfAbsent(dimension, k -> new HashMap<>());
+        int minSectionX = section(minX), maxSectionX = section(maxX);
+        int minSectionY = section(minY), maxSectionY = section(maxY);
+        int minSectionZ = section(minZ), maxSectionZ = section(maxZ);
+        for (int x = minSectionX; x <= maxSectionX; x++) {
+            for (int z = minSectionZ; z <= maxSectionZ; z++) {
+                for (int y = minSectionY; y <= maxSectionY; y++) {
+                    long key = sectionKey(x, y, z);
+                    Sample<E> sample = samples.get(key);
+                    if (sample == null) {
+                        sample = new Sample<>();
+                        samples.put(key, sample);
+                    }
+                    if (sample.tick == Long.MIN_VALUE || tick - sample.tick >= interval) {
+                        sample.entities.clear();
+                        scanner.scan(level, x, y, z, sample.entities);
+                        sample.tick = tick;
+                        scans++;
+                    }
+                    into.addAll(sample.entities);
+                }
+            }
+        }
+    }
+
+    /**
+     * Forget all samples, e.g. when the server stops
+     */
+    public void clear() {
+        dimensions.clear();
+    }
+
+    /**
+     * Get the number of section scans done so far
+     */
+    public long getScanCount() {
+        return scans;
+    }
+
+    private static int section(double coordinate) {
+        return (int) Math.floor(coordinate) >> SECTION_SHIFT;
+    }
+
+    /**
+     * Same packing as vanilla SectionPos.asLong
+     */
+    private static long sectionKey(int sx, int sy, int sz) {
+        return ((long) sx & 0x3FFFFFL) << 42 | ((long) sy & 0xFFFFFL) | ((long) sz & 0x3FFFFFL) << 20;
+    }
+
+    private static final class Sample<E> {
+        private final List<E> entities = new ArrayList<>();
+        private long tick = Long.MIN_VALUE;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.dominionrising.common.unit;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns repeated strings (unit types, owner nations) as small int ids
+ * Ids are stable for the lifetime of the JVM and never reused
+ */
+public class SymbolTable {
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[16];
+    private int size;
+
+    /**
+     * Get the id for a name, assigning a new one if needed
+     * @param name The name to intern
+     * @return The id of the name
+     */
+    public int intern(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(name);
+            if (id != null) {
+                return id;
+            }
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size * 2);
+            }
+            names[size] = name;
+            ids.put(name, size);
+            return size++;
+        }
+    }
+
+    /**
+     * Look up the id of a name without interning it
+     * @param name The name
+     * @return The id, or -1 if the name was never interned
+     */
+    public int find(String name) {
+        Integer id = name != null ? ids.get(name) : null;
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Get the name for an id
+     * @param id The interned id
+     * @return The name, or null if the id is unknown
+     */
+    public String name(int id) {
+        String[] current = names;
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+
+    /**
+     * Get the number of interned names
+     * @return Number of names
+     */
+    public synchronized int size() {
+        return size;
+    }
+}
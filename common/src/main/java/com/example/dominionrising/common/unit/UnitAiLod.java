@@ -0,0 +1,138 @@
+package com.example.dominionrising.common.unit;
+
+import com.example.dominionrising.common.config.DominionConfig;
+
+/**
+ * AI level of detail for one unit entity, by distance to the nearest player
+ * Units close to a player run every goal every tick. Further away, idle goals (following, returning
+ * to a defend point, strolling, looking around) only get to start every few ticks, and in the far
+ * tier cosmetic goals do not run at all. Target and combat goals are never held back, and a unit
+ * that is fighting or gets hurt counts as near, so units still react at once when attacked.
+ *
+ * A unit can also hibernate, e.g. while nobody of its nation is online: then none of its goals run
+ * until it is woken up again. Getting hurt always wakes a unit.
+ *
+ * The tier is recomputed every RETIER_INTERVAL ticks, spread over units by entity id.
+ * Used from the server thread only.
+ */
+public class UnitAiLod {
+
+    /**
+     * Ticks between two tier updates of a unit
+     */
+    public static final int RETIER_INTERVAL = 20;
+
+    public enum Tier {
+        NEAR,
+        MID,
+        FAR
+    }
+
+    /**
+     * How a goal is held back by the level of detail
+     */
+    public enum GoalKind {
+        COMBAT,     // Only stops while hibernating
+        IDLE,       // Starts on goal ticks only
+        COSMETIC    // Starts on goal ticks only, never runs in the far tier
+    }
+
+    private static final double NEAR_DISTANCE_SQ = square(DominionConfig.AI_LOD_NEAR_DISTANCE);
+    private static final double FAR_DISTANCE_SQ = square(DominionConfig.AI_LOD_FAR_DISTANCE);
+
+    private Tier tier = Tier.NEAR;
+    private boolean hibernating;
+    private int lastGoalTick = Integer.MIN_VALUE;
+    private int checkedTick = Integer.MIN_VALUE;
+    private boolean goalTick = true;
+
+    /**
+     * Check if the unit's tier is due for an update
+     * @param tick The entity's tick count
+     * @param entityId The entity id, used to spread updates over ticks
+     */
+    public static boolean isUpdateDue(int tick, int entityId) {
+        return (tick + entityId) % RETIER_INTERVAL == 0;
+    }
+
+    /**
+     * Put the unit into the tier for its distance to the nearest player
+     * @param nearestPlayerDistanceSq Squared distance to the nearest player, or a negative value if there is none
+     * @param inCombat Whether the unit has a target; fighting units always count as near
+     */
+    public void update(double nearestPlayerDistanceSq, boolean inCombat) {
+        if (!DominionConfig.AI_LOD || inCombat) {
+            tier = Tier.NEAR;
+        } else if (nearestPlayerDistanceSq < 0 || nearestPlayerDistanceSq > FAR_DISTANCE_SQ) {
+            tier = Tier.FAR;
+        } else if (nearestPlayerDistanceSq > NEAR_DISTANCE_SQ) {
+            tier = Tier.MID;
+        } else {
+            tier = Tier.NEAR;
+        }
+    }
+
+    /**
+     * Put the unit into the near tier and out of hibernation right away, e.g. when it gets hurt
+     */
+    public void wake() {
+        tier = Tier.NEAR;
+        hibernating = false;
+        lastGoalTick = Integer.MIN_VALUE;
+        checkedTick = Integer.MIN_VALUE;
+    }
+
+    public Tier getTier() {
+        return tier;
+    }
+
+    public void setHibernating(boolean hibernating) {
+        this.hibernating = hibernating;
+    }
+
+    public boolean isHibernating() {
+        return hibernating;
+    }
+
+    /**
+     * Check if a goal of a kind may start this tick
+     * @param tick The entity's tick count
+     */
+    public boolean mayStart(GoalKind kind, int tick) {
+        return mayContinue(kind) && (kind == GoalKind.COMBAT || isGoalTick(tick));
+    }
+
+    /**
+     * Check if a running goal of a kind may keep running
+     */
+    public boolean mayContinue(GoalKind kind) {
+        if (hibernating) {
+            return false;
+        }
+        return kind != GoalKind.COSMETIC || tier != Tier.FAR;
+    }
+
+    /**
+     * Check if idle goals may start this tick
+     * All idle goals of the unit get the same answer within a tick.
+     */
+    private boolean isGoalTick(int tick) {
+        if (tick != checkedTick) {
+            checkedTick = tick;
+            int interval = switch (tier) {
+                case NEAR -> 1;
+                case MID -> DominionConfig.AI_LOD_MID_INTERVAL;
+                case FAR -> DominionConfig.AI_LOD_FAR_INTERVAL;
+            };
+            goalTick = lastGoalTick == Integer.MIN_VALUE || tick - lastGoalTick >= interval || tick < lastGoalTick;
+            if (goalTick) {
+                lastGoalTick = tick;
+            }
+        }
+        return goalTick;
+    }
+
+    private static double square(int distance) {
+        return (double) distance * distance;
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.dominionrising.common.unit;
+
+import com.example.dominionrising.common.nation.NationRegistry;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compact versioned binary format for unit persistence
+ *
+ * Layout (version 2):
+ *   varint version
+ *   varint stringCount, then stringCount x (varint length, UTF-8 bytes)   -- unit types and owner nation names
+ *   varint ownerCount, then ownerCount x (varint nationId, varint nameIndex)
+ *   varint unitCount, then per unit:
+ *     long idMost, long idLeast
+ *     varint typeIndex (into the string table), varint ownerIndex (into the owner table)
+ *     varint level, varint health, varint experience
+ *     byte flags (1 = alive, 2 = has attack target), byte state ordinal
+ *     [long targetMost, long targetLeast] if flag 2
+ *     double defendX, double defendY, double defendZ
+ *     varlong stateChangeTime
+ * Version 1 has no owner table; ownerIndex points at the owner's name in the string table.
+ * Owners are stored by NationRegistry id, so renaming a nation never requires rewriting its units; the
+ * name is kept only to reserve ids the registry does not know, e.g. of nations disbanded since.
+ */
+public final class UnitCodec {
+    public static final int VERSION = 2;
+
+    private static final int FLAG_ALIVE = 1;
+    private static final int FLAG_HAS_TARGET = 2;
+
+    private static final NationUnit.UnitState[] STATES = NationUnit.UnitState.values();
+
+    private UnitCodec() {}
+
+    /**
+     * Encode rows of a store into the current binary format
+     * @param store The store holding the rows
+     * @param handles Handles of the rows to write
+     * @return Encoded bytes
+     */
+    public static byte[] encode(UnitStore store, int[] handles) {
+        try {
+            // Map interned symbol ids to compact string table indexes
+            int[] typeIndex = new int[UnitStore.TYPES.size()];
+            int[] ownerIndex = new int[16];
+            Arrays.fill(typeIndex, -1);
+            Arrays.fill(ownerIndex, -1);
+            List<String> strings = new ArrayList<>();
+            List<Integer> owners = new ArrayList<>();
+            for (int handle : handles) {
+                typeIndex = index(typeIndex, store.getTypeId(handle), UnitStore.TYPES, strings);
+                int owner = store.getOwnerId(handle);
+                if (owner >= ownerIndex.length) {
+                    int oldLength = ownerIndex.length;
+                    ownerIndex = Arrays.copyOf(ownerIndex, Math.max(owner + 1, oldLength * 2));
+                    Arrays.fill(ownerIndex, oldLength, ownerIndex.length, -1);
+                }
+                if (ownerIndex[owner] < 0) {
+                    ownerIndex[owner] = owners.size();
+                    owners.add(owner);
+                }
+            }
+            int[] ownerNameIndex = new int[owners.size()];
+            for (int i = 0; i < ownerNameIndex.length; i++) {
+                String name = NationRegistry.getInstance().getName(owners.get(i));
+                ownerNameIndex[i] = strings.size();
+                strings.add(name != null ? name : "");
+            }
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + handles.length * 64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            writeVarInt(out, VERSION);
+
+            writeVarInt(out, strings.size());
+            for (String string : strings) {
+                byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+                writeVarInt(out, utf8.length);
+                out.write(utf8);
+            }
+
+            writeVarInt(out, owners.size());
+            for (int i = 0; i < ownerNameIndex.length; i++) {
+                writeVarInt(out, owners.get(i));
+                writeVarInt(out, ownerNameIndex[i]);
+            }
+
+            writeVarInt(out, handles.length);
+            for (int handle : handles) {
+                UUID id = store.getId(handle);
+                UUID target = store.getAttackTarget(handle);
+
+                out.writeLong(id.getMostSignificantBits());
+                out.writeLong(id.getLeastSignificantBits());
+                writeVarInt(out, typeIndex[store.getTypeId(handle)]);
+                writeVarInt(out, ownerIndex[store.getOwnerId(handle)]);
+                writeVarInt(out, store.getLevel(handle));
+                writeVarInt(out, Math.max(0, store.getHealth(handle)));
+                writeVarInt(out, Math.max(0, store.getExperience(handle)));
+                out.writeByte((store.isAlive(handle) ? FLAG_ALIVE : 0) | (target != null ? FLAG_HAS_TARGET : 0));
+                out.writeByte(store.getStateOrdinal(handle));
+                if (target != null) {
+                    out.writeLong(target.getMostSignificantBits());
+                    out.writeLong(target.getLeastSignificantBits());
+                }
+                out.writeDouble(store.getDefendX(handle));
+                out.writeDouble(store.getDefendY(handle));
+                out.writeDouble(store.getDefendZ(handle));
+                writeVarLong(out, store.getStateChangeTime(handle));
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            // ByteArrayOutputStream does not throw
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Encode a single unit into the current binary format
+     * @param unit The unit
+     * @return Encoded bytes
+     */
+    public static byte[] encode(NationUnit unit) {
+        return encode(unit.getStore(), new int[] { unit.getHandle() });
+    }
+
+    /**
+     * Decode units written by encode
+     * @param data Encoded bytes
+     * @return The decoded units, not yet registered with any manager
+     * @throws IOException if the data is truncated, corrupt or from an unknown version
+     */
+    public static List<NationUnit> decode(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        int version = readVarInt(in);
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported unit data version " + version);
+        }
+
+        String[] strings = new String[readVarInt(in)];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] utf8 = new byte[readVarInt(in)];
+            in.readFully(utf8);
+            strings[i] = new String(utf8, StandardCharsets.UTF_8);
+        }
+
+        // Nation id per owner index; version 1 indexes owner names in the string table instead
+        NationRegistry registry = NationRegistry.getInstance();
+        int[] ownerIds;
+        if (version >= 2) {
+            ownerIds = new int[readVarInt(in)];
+            for (int i = 0; i < ownerIds.length; i++) {
+                int nationId = readVarInt(in);
+                ownerIds[i] = registry.resolve(nationId, strings[index(strings, readVarInt(in))]);
+            }
+        } else {
+            ownerIds = new int[strings.length];
+            Arrays.fill(ownerIds, NationRegistry.NONE);
+        }
+
+        int count = readVarInt(in);
+        List<NationUnit> units = new ArrayList<>(count);
+
+        // One store for the whole batch instead of a private store per unit; registering moves the rows out
+        UnitStore rows = new UnitStore(Math.max(1, count));
+        int[] typeIds = new int[strings.length];
+        Arrays.fill(typeIds, -1);
+        for (int i = 0; i < count; i++) {
+            UUID id = new UUID(in.readLong(), in.readLong());
+            int typeIndex = index(strings, readVarInt(in));
+            int ownerIndex = readVarInt(in);
+            if (ownerIndex < 0 || ownerIndex >= ownerIds.length) {
+                throw new IOException("Owner index " + ownerIndex + " out of range");
+            }
+            int level = readVarInt(in);
+            int health = readVarInt(in);
+            int experience = readVarInt(in);
+            int flags = in.readUnsignedByte();
+            int stateOrdinal = in.readUnsignedByte();
+            UUID target = (flags & FLAG_HAS_TARGET) != 0 ? new UUID(in.readLong(), in.readLong()) : null;
+            double defendX = in.readDouble();
+            double defendY = in.readDouble();
+            double defendZ = in.readDouble();
+            long stateChangeTime = readVarLong(in);
+
+            if (typeIds[typeIndex] < 0) {
+                typeIds[typeIndex] = UnitStore.TYPES.intern(strings[typeIndex]);
+            }
+            if (ownerIds[ownerIndex] == NationRegistry.NONE) {
+                ownerIds[ownerIndex] = registry.resolve(strings[ownerIndex]);
+            }
+            int typeId = typeIds[typeIndex];
+            int maxHealth = UnitTypeRegistry.getInstance().forSymbol(typeId).getMaxHealth(level);
+            health = Math.min(health, maxHealth);
+
+            int handle = rows.allocate(id);
+            rows.setTypeId(handle, typeId);
+            rows.setOwnerId(handle, ownerIds[ownerIndex]);
+            rows.setLevel(handle, level);
+            rows.setExperience(handle, experience);
+            rows.setHealth(handle, health);
+            rows.setAlive(handle, (flags & FLAG_ALIVE) != 0 && health > 0);
+            rows.setStateOrdinal(handle, stateOrdinal < STATES.length ? stateOrdinal : NationUnit.UnitState.IDLE.ordinal());
+            rows.setAttackTarget(handle, target);
+            rows.setDefendPosition(handle, defendX, defendY, defendZ);
+            rows.setStateChangeTime(handle, stateChangeTime);
+            units.add(new NationUnit(rows, handle));
+        }
+        return units;
+    }
+
+    private static int[] index(int[] indexes, int symbolId, SymbolTable table, List<String> strings) {
+        if (symbolId >= indexes.length) {
+            int oldLength = indexes.length;
+            indexes = Arrays.copyOf(indexes, table.size());
+            Arrays.fill(indexes, oldLength, indexes.length, -1);
+        }
+        if (indexes[symbolId] < 0) {
+            indexes[symbolId] = strings.size();
+            strings.add(table.name(symbolId));
+        }
+        return indexes;
+    }
+
+    private static int index(String[] strings, int index) throws IOException {
+        if (index < 0 || index >= strings.length) {
+            throw new IOException("String index " + index + " out of range");
+        }
+        return index;
+    }
+
+    static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("VarInt too long");
+    }
+
+    static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("VarLong too long");
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.dominionrising.common.unit;
+
+import com.example.dominionrising.common.nation.NationRegistry;
+
+import java.util.Arrays;
+
+/**
+ * Alive-unit counters maintained incrementally by UnitManager
+ * Indexed by nation id and interned type id so every query is a couple of array reads
+ */
+class UnitCounters {
+    private int total;
+    private int[] byOwner = new int[16];
+    private int[] byType = new int[8];
+    private int[][] byOwnerType = new int[16][];
+    private final int[] byState = new int[NationUnit.UnitState.values().length];
+
+    synchronized void add(int ownerId, int typeId, NationUnit.UnitState state) {
+        adjust(ownerId, typeId, state, 1);
+    }
+
+    synchronized void remove(int ownerId, int typeId, NationUnit.UnitState state) {
+        adjust(ownerId, typeId, state, -1);
+    }
+
+    synchronized void changeState(NationUnit.UnitState oldState, NationUnit.UnitState newState) {
+        byState[oldState.ordinal()]--;
+        byState[newState.ordinal()]++;
+    }
+
+    synchronized void clear() {
+        total = 0;
+        Arrays.fill(byOwner, 0);
+        Arrays.fill(byType, 0);
+        Arrays.fill(byOwnerType, null);
+        Arrays.fill(byState, 0);
+    }
+
+    synchronized int total() {
+        return total;
+    }
+
+    synchronized int forOwner(int ownerId) {
+        return ownerId >= 0 && ownerId < byOwner.length ? byOwner[ownerId] : 0;
+    }
+
+    synchronized int forType(int typeId) {
+        return typeId >= 0 && typeId < byType.length ? byType[typeId] : 0;
+    }
+
+    synchronized int forOwnerAndType(int ownerId, int typeId) {
+        if (ownerId < 0 || ownerId >= byOwnerType.length || byOwnerType[ownerId] == null) {
+            return 0;
+        }
+        int[] types = byOwnerType[ownerId];
+        return typeId >= 0 && typeId < types.length ? types[typeId] : 0;
+    }
+
+    synchronized int forState(NationUnit.UnitState state) {
+        return byState[state.ordinal()];
+    }
+
+    /**
+     * Compare against counters rebuilt from scratch
+     * @param expected Counters recomputed by a full scan
+     * @return Description of the first mismatch, or null if consistent
+     */
+    synchronized String diff(UnitCounters expected) {
+        if (total != expected.total()) {
+            return "total " + total + " != " + expected.total();
+        }
+        for (int owner = 0; owner < Math.max(byOwner.length, expected.byOwner.length); owner++) {
+            if (forOwner(owner) != expected.forOwner(owner)) {
+                return "owner " + NationRegistry.getInstance().getName(owner) + " " + forOwner(owner) + " != " + expected.forOwner(owner);
+            }
+            for (int type = 0; type < Math.max(byType.length, expected.byType.length); type++) {
+                if (forOwnerAndType(owner, type) != expected.forOwnerAndType(owner, type)) {
+                    return "owner/type " + NationRegistry.getInstance().getName(owner) + "/" + UnitStore.TYPES.name(type);
+                }
+            }
+        }
+        for (int type = 0; type < Math.max(byType.length, expected.byType.length); type++) {
+            if (forType(type) != expected.forType(type)) {
+                return "type " + UnitStore.TYPES.name(type) + " " + forType(type) + " != " + expected.forType(type);
+            }
+        }
+        for (NationUnit.UnitState state : NationUnit.UnitState.values()) {
+            if (forState(state) != expected.forState(state)) {
+                return "state " + state + " " + forState(state) + " != " + expected.forState(state);
+            }
+        }
+        return null;
+    }
+
+    private void adjust(int ownerId, int typeId, NationUnit.UnitState state, int delta) {
+        if (ownerId >= byOwner.length) {
+            int size = Math.max(ownerId + 1, byOwner.length * 2);
+            byOwner = Arrays.copyOf(byOwner, size);
+            byOwnerType = Arrays.copyOf(byOwnerType, size);
+        }
+        if (typeId >= byType.length) {
+            byType = Arrays.copyOf(byType, Math.max(typeId + 1, byType.length * 2));
+        }
+        int[] types = byOwnerType[ownerId];
+        if (types == null || typeId >= types.length) {
+            types = types == null ? new int[byType.length] : Arrays.copyOf(types, byType.length);
+            byOwnerType[ownerId] = types;
+        }
+        total += delta;
+        byOwner[ownerId] += delta;
+        byType[typeId] += delta;
+        types[typeId] += delta;
+        byState[state.ordinal()] += delta;
+    }
+}
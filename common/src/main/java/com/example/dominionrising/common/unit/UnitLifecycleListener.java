@@ -0,0 +1,29 @@
+package com.example.dominionrising.common.unit;
+
+/**
+ * Receives lifecycle events from registered units
+ * Lets UnitManager keep its indexes current without scanning
+ */
+interface UnitLifecycleListener {
+
+    /**
+     * Called once when a unit's health reaches zero
+     * @param unit The unit that died
+     */
+    void onUnitDied(NationUnit unit);
+
+    /**
+     * Called when an alive unit's tactical state changes
+     * @param unit The unit
+     * @param oldState The previous state
+     * @param newState The new state
+     */
+    void onStateChanged(NationUnit unit, NationUnit.UnitState oldState, NationUnit.UnitState newState);
+
+    /**
+     * Called after any change to a unit's persisted state (including death and state changes)
+     * @param unit The unit
+     * @param change What changed
+     */
+    void onUnitChanged(NationUnit unit, UnitMutationListener.Change change);
+}
@@ -1,10 +1,19 @@
 package com.example.dominionrising.common.unit;
 
+import com.example.dominionrising.common.config.DominionConfig;
 import com.example.dominionrising.common.nation.Nation;
 import com.example.dominionrising.common.nation.NationManager;
 
+import com.example.dominionrising.common.util.LineReader;
+
+import java.io.IOException;
+import java.io.Reader;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.stream.Collectors;
 
 /**
@@ -14,11 +23,41 @@ import java.util.stream.Collectors;
 public class UnitManager {
     private static UnitManager instance;
     
-    // Map of unit ID to NationUnit
-    private final Map<UUID, NationUnit> units = new ConcurrentHashMap<>();
+    /**
+     * Maximum number of units per persisted save chunk
+     */
+    public static final int UNITS_PER_SAVE_CHUNK = 1024;
+    
+    // Legacy text lines handed to each parallel decode task
+    private static final int LOAD_BATCH_SIZE = 2048;
+    
+    // Map of unit ID to NationUnit (replaced as a whole when a world is loaded)
+    private volatile Map<UUID, NationUnit> units = new ConcurrentHashMap<>();
+    
+    // Map of nation id to set of unit IDs for quick lookups (replaced as a whole when a world is loaded)
+    private volatile Map<Integer, Set<UUID>> nationUnits = new ConcurrentHashMap<>();
+    
+    // Shared columnar storage for registered units, or null when each unit keeps its own row
+    private final UnitStore store = DominionConfig.COLUMNAR_UNIT_STORE ? new UnitStore(256) : null;
     
-    // Map of nation name to set of unit IDs for quick lookups
-    private final Map<String, Set<UUID>> nationUnits = new ConcurrentHashMap<>();
+    // Alive-unit counters, updated on spawn, death, removal and state change
+    private final UnitCounters counters = new UnitCounters();
+    private final UnitLifecycleListener lifecycle = new Lifecycle();
+    
+    // Last known positions of loaded unit entities
+    private final UnitSpatialIndex spatialIndex = new UnitSpatialIndex();
+    
+    // Notified about every change to the units, or null
+    private volatile UnitMutationListener mutationListener;
+    
+    // Dead units already dropped from every index, waiting for their record and row to be released
+    private final Deque<UUID> tombstones = new ArrayDeque<>();
+    
+    // Save chunk of every alive unit and which chunks changed since the last save
+    private final UnitSaveChunks saveChunks = new UnitSaveChunks(UNITS_PER_SAVE_CHUNK);
+    
+    // Background record/entity reconciliation, advanced by the loader's server tick
+    private final UnitReconciler reconciler = new UnitReconciler(DominionConfig.RECONCILE_BATCH_SIZE);
     
     private UnitManager() {}
     
@@ -46,15 +85,15 @@ public class UnitManager {
         }
         
         level = Math.max(1, level); // Minimum level 1
-        NationUnit unit = new NationUnit(type.trim(), owner.getName(), level);
-        
-        // Register unit
-        units.put(unit.getId(), unit);
+        NationUnit unit = new NationUnit(type.trim(), owner.getId(), level);
+        register(unit);
         
-        // Add to nation's unit set
-        String nationName = owner.getName().toLowerCase();
-        nationUnits.computeIfAbsent(nationName, k -> ConcurrentHashMap.newKeySet()).add(unit.getId());
+        UnitMutationListener listener = mutationListener;
+        if (listener != null) {
+            listener.onUnitSpawned(unit);
+        }
         
+        verifyCounters();
         return unit;
     }
 
@@ -78,17 +117,16 @@ public class UnitManager {
             return new ArrayList<>();
         }
         
-        String nationName = owner.getName().toLowerCase();
-        Set<UUID> unitIds = nationUnits.get(nationName);
+        Set<UUID> unitIds = nationUnits.get(owner.getId());
         
         if (unitIds == null || unitIds.isEmpty()) {
             return new ArrayList<>();
         }
         
+        // Dead units are dropped from the nation's set as soon as they die
         return unitIds.stream()
                 .map(units::get)
                 .filter(Objects::nonNull)
-                .filter(NationUnit::isAlive)
                 .collect(Collectors.toList());
     }
 
@@ -111,6 +149,14 @@ public class UnitManager {
         return units.get(unitId);
     }
 
+    /**
+     * Get the IDs of all registered units
+     * @return Live view of the registered unit IDs
+     */
+    public Set<UUID> getUnitIds() {
+        return Collections.unmodifiableSet(units.keySet());
+    }
+
     /**
      * Remove a unit (when it dies or is dismissed)
      * @param unitId The unit ID to remove
@@ -121,17 +167,15 @@ public class UnitManager {
         if (unit == null) {
             return false;
         }
+        detach(unit);
+        unindex(unit);
         
-        // Remove from nation's unit set
-        String nationName = unit.getOwnerNation().toLowerCase();
-        Set<UUID> unitIds = nationUnits.get(nationName);
-        if (unitIds != null) {
-            unitIds.remove(unitId);
-            if (unitIds.isEmpty()) {
-                nationUnits.remove(nationName);
-            }
+        UnitMutationListener listener = mutationListener;
+        if (listener != null) {
+            listener.onUnitRemoved(unitId);
         }
         
+        verifyCounters();
         return true;
     }
 
@@ -154,7 +198,10 @@ public class UnitManager {
      * @return Number of alive units
      */
     public int getUnitCount(Nation nation) {
-        return listUnits(nation).size();
+        if (nation == null) {
+            return 0;
+        }
+        return counters.forOwner(nation.getId());
     }
 
     /**
@@ -164,9 +211,27 @@ public class UnitManager {
      * @return Number of units of this type
      */
     public long countUnitsByType(Nation nation, String type) {
-        return listUnits(nation).stream()
-                .filter(unit -> unit.getType().equalsIgnoreCase(type))
-                .count();
+        if (nation == null || type == null) {
+            return 0;
+        }
+        int ownerId = nation.getId();
+        long count = 0;
+        // Type names are matched case-insensitively, so sum over the (few) interned spellings
+        for (int typeId = 0; typeId < UnitStore.TYPES.size(); typeId++) {
+            if (type.equalsIgnoreCase(UnitStore.TYPES.name(typeId))) {
+                count += counters.forOwnerAndType(ownerId, typeId);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Count alive units in a tactical state across all nations
+     * @param state The state to count
+     * @return Number of alive units in that state
+     */
+    public int countUnitsByState(NationUnit.UnitState state) {
+        return counters.forState(state);
     }
 
     /**
@@ -174,7 +239,7 @@ public class UnitManager {
      * @return Set of supported unit types
      */
     public Set<String> getAvailableUnitTypes() {
-        return Set.of("soldier", "archer", "knight", "mage");
+        return UnitTypeRegistry.getInstance().getTypeNames();
     }
 
     /**
@@ -183,27 +248,49 @@ public class UnitManager {
      * @return true if type is supported
      */
     public boolean isValidUnitType(String type) {
-        return getAvailableUnitTypes().contains(type.toLowerCase());
+        return UnitTypeRegistry.getInstance().isRegistered(type);
     }
 
     /**
      * Clean up dead units (called periodically)
+     * Dead units are queued when they die, so this only drains the tombstone queue
      * @return Number of units cleaned up
      */
     public int cleanupDeadUnits() {
-        List<UUID> deadUnits = units.values().stream()
-                .filter(unit -> !unit.isAlive())
-                .map(NationUnit::getId)
-                .collect(Collectors.toList());
-        
-        int cleaned = 0;
-        for (UUID deadUnitId : deadUnits) {
-            if (removeUnit(deadUnitId)) {
-                cleaned++;
+        return reapDeadUnits(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Release the records and store rows of up to maxUnits queued dead units (called every server tick)
+     * @param maxUnits Maximum number of units to reap
+     * @return Number of units reaped
+     */
+    public int reapDeadUnits(int maxUnits) {
+        int reaped = 0;
+        while (reaped < maxUnits) {
+            UUID unitId;
+            synchronized (tombstones) {
+                unitId = tombstones.pollFirst();
+            }
+            if (unitId == null) {
+                break;
+            }
+            NationUnit unit = units.get(unitId);
+            if (unit != null && !unit.isAlive() && removeUnit(unitId)) {
+                reaped++;
             }
         }
-        
-        return cleaned;
+        return reaped;
+    }
+
+    /**
+     * Get the number of dead units waiting to be reaped
+     * @return Tombstone queue length
+     */
+    public int getPendingDeadUnitCount() {
+        synchronized (tombstones) {
+            return tombstones.size();
+        }
     }
 
     /**
@@ -211,15 +298,24 @@ public class UnitManager {
      * @return Total unit count
      */
     public int getTotalUnitCount() {
-        return (int) units.values().stream().filter(NationUnit::isAlive).count();
+        return counters.total();
     }
 
     /**
      * Clear all units (for testing or reset)
      */
     public void clearAllUnits() {
+        units.values().forEach(this::detach);
         units.clear();
         nationUnits.clear();
+        synchronized (tombstones) {
+            tombstones.clear();
+        }
+        saveChunks.clear();
+        counters.clear();
+        spatialIndex.clear();
+        reconciler.reset();
+        verifyCounters();
     }
 
     /**
@@ -233,11 +329,31 @@ public class UnitManager {
         stats.put("averageUnitsPerNation", nationUnits.isEmpty() ? 0 : getTotalUnitCount() / (double) nationUnits.size());
         
         // Count by type
-        Map<String, Long> typeCount = units.values().stream()
-                .filter(NationUnit::isAlive)
-                .collect(Collectors.groupingBy(NationUnit::getType, Collectors.counting()));
+        Map<String, Long> typeCount = new HashMap<>();
+        for (int typeId = 0; typeId < UnitStore.TYPES.size(); typeId++) {
+            int count = counters.forType(typeId);
+            if (count > 0) {
+                typeCount.merge(UnitStore.TYPES.name(typeId), (long) count, Long::sum);
+            }
+        }
         stats.put("unitsByType", typeCount);
         
+        // Count by tactical state
+        Map<String, Integer> stateCount = new HashMap<>();
+        for (NationUnit.UnitState state : NationUnit.UnitState.values()) {
+            stateCount.put(state.name(), counters.forState(state));
+        }
+        stats.put("unitsByState", stateCount);
+        if (store != null) {
+            stats.put("storeRows", store.getRowCount());
+        }
+        stats.put("pendingDeadUnits", getPendingDeadUnitCount());
+        stats.put("saveChunks", saveChunks.chunkCount());
+        stats.put("dirtySaveChunks", saveChunks.dirtyCount());
+        stats.put("retiredSaveChunks", saveChunks.retiredCount());
+        stats.put("recordsWithoutEntity", reconciler.getRecordsWithoutEntity());
+        stats.put("entitiesWithoutRecord", reconciler.getEntitiesWithoutRecord());
+        
         return stats;
     }
 
@@ -277,32 +393,66 @@ public class UnitManager {
 
     /**
      * Get units within command range of a player
+     * Only units whose entity is loaded (and therefore has a known position) are returned
      * @param playerNation Player's nation
+     * @param dimension Dimension key of the player's level
      * @param playerX Player X coordinate
      * @param playerY Player Y coordinate  
      * @param playerZ Player Z coordinate
      * @param maxDistance Maximum command distance
      * @return List of units within range
      */
-    public List<NationUnit> getUnitsInRange(String playerNation, double playerX, double playerY, double playerZ, double maxDistance) {
-        return listUnits(playerNation).stream()
-                .filter(unit -> {
-                    if (unit.isDefending()) {
-                        double dx = unit.getDefendX() - playerX;
-                        double dy = unit.getDefendY() - playerY;
-                        double dz = unit.getDefendZ() - playerZ;
-                        return Math.sqrt(dx*dx + dy*dy + dz*dz) <= maxDistance;
-                    }
-                    // For non-defending units, assume they're near the player for now
-                    return true;
-                })
-                .collect(Collectors.toList());
+    public List<NationUnit> getUnitsInRange(String playerNation, String dimension, double playerX, double playerY, double playerZ, double maxDistance) {
+        return getUnitsInRange(NationManager.getInstance().getNationByName(playerNation), dimension, playerX, playerY, playerZ, maxDistance);
+    }
+
+    /**
+     * Get units of a nation within command range of a player, without looking the nation up by name
+     * @see #getUnitsInRange(String, String, double, double, double, double)
+     */
+    public List<NationUnit> getUnitsInRange(Nation nation, String dimension, double playerX, double playerY, double playerZ, double maxDistance) {
+        if (nation == null) {
+            return new ArrayList<>();
+        }
+        
+        int ownerId = nation.getId();
+        Map<UUID, NationUnit> current = units;
+        // Filter by owner inside the index, so other nations' units nearby are never collected
+        List<UUID> unitIds = spatialIndex.queryRadius(dimension, playerX, playerY, playerZ, maxDistance, id -> {
+            NationUnit unit = current.get(id);
+            return unit != null && unit.getOwnerNationId() == ownerId && unit.isAlive();
+        });
+        List<NationUnit> result = new ArrayList<>(unitIds.size());
+        for (UUID unitId : unitIds) {
+            NationUnit unit = current.get(unitId);
+            if (unit != null) {
+                result.add(unit);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the spatial index fed by loaded unit entities
+     * @return The unit spatial index
+     */
+    public UnitSpatialIndex getSpatialIndex() {
+        return spatialIndex;
+    }
+
+    /**
+     * Get the background pass that matches unit records with loaded entities
+     * @return The unit reconciler
+     */
+    public UnitReconciler getReconciler() {
+        return reconciler;
     }
 
     // === PERSISTENCE METHODS ===
 
     /**
-     * Serialize all units to string for world persistence
+     * Serialize all units to the legacy text format
+     * World saves use encodeUnitChunks; this is kept for debugging and external tools
      * @return Serialized unit data
      */
     public String serializeUnits() {
@@ -316,40 +466,208 @@ public class UnitManager {
     }
 
     /**
-     * Load units from serialized data
+     * Capture the save chunks that changed since the last call, without encoding them
+     * Every alive unit belongs to one fixed chunk, so only chunks holding changed, new or removed units are captured.
+     * Only the rows of those units are copied, so the snapshot stays consistent while the live units keep changing
+     * and costs nothing when no chunk changed.
+     * @return A snapshot that can be encoded on another thread
+     */
+    public UnitSnapshot captureDirtyUnitChunks() {
+        Map<Integer, List<UUID>> dirty = saveChunks.drainDirty();
+        if (dirty.isEmpty()) {
+            return new UnitSnapshot(new UnitRow(), Collections.emptyMap());
+        }
+        int total = 0;
+        for (List<UUID> chunk : dirty.values()) {
+            total += chunk.size();
+        }
+        Map<Integer, int[]> chunks = new HashMap<>();
+        UnitStore rows = new UnitStore(total);
+        for (Map.Entry<Integer, List<UUID>> chunk : dirty.entrySet()) {
+            int[] handles = new int[chunk.getValue().size()];
+            int count = 0;
+            for (UUID unitId : chunk.getValue()) {
+                NationUnit unit = units.get(unitId);
+                if (unit != null && unit.isAlive()) {
+                    handles[count++] = rows.copyFrom(unit.getStore(), unit.getHandle());
+                }
+            }
+            chunks.put(chunk.getKey(), Arrays.copyOf(handles, count));
+        }
+        return new UnitSnapshot(rows, chunks);
+    }
+
+    /**
+     * Mark save chunks as changed again, e.g. after writing them failed
+     * @param chunks Chunk indexes
+     */
+    public void markUnitChunksDirty(Collection<Integer> chunks) {
+        for (int chunk : chunks) {
+            saveChunks.markChunkDirty(chunk);
+        }
+    }
+
+    /**
+     * Mark every save chunk as changed so the next save rewrites all units
+     */
+    public void markAllUnitsDirty() {
+        saveChunks.markAllDirty();
+    }
+
+    /**
+     * Get the number of save chunks waiting to be written
+     * @return Dirty chunk count
+     */
+    public int getDirtyUnitChunkCount() {
+        return saveChunks.dirtyCount();
+    }
+
+    /**
+     * Load units from binary unit chunks, replacing all current units
+     * Units keep the chunk index they were loaded from, so an unchanged world writes nothing on the next save
+     * @param chunks Encoded unit chunks (see UnitCodec), by chunk index
+     * @throws IOException if any chunk cannot be decoded; current units are kept in that case
+     */
+    public void loadUnitChunks(List<byte[]> chunks) throws IOException {
+        // Chunks are independent, so decode them in parallel
+        List<ForkJoinTask<List<NationUnit>>> tasks = new ArrayList<>(chunks.size());
+        for (byte[] chunk : chunks) {
+            tasks.add(ForkJoinPool.commonPool().submit(
+                    () -> chunk.length > 0 ? UnitCodec.decode(chunk) : Collections.<NationUnit>emptyList()));
+        }
+        List<List<NationUnit>> decoded = new ArrayList<>(tasks.size());
+        try {
+            for (ForkJoinTask<List<NationUnit>> task : tasks) {
+                decoded.add(task.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while decoding units", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        }
+        loadDecodedUnitChunks(decoded);
+    }
+
+    /**
+     * Replace all current units with already decoded units
+     * The unit and nation maps are built on the side and published once every unit is in them.
+     * Counters, save chunks and unit rows are filled in place as units are registered, so this must
+     * run before the server starts ticking units (world load). Units that were saved dead are queued
+     * for reaping only after the maps are published, so the reaper can find them.
+     * @param chunks Decoded units by save chunk index; null for a chunk that could not be loaded, whose
+     *               index is then never used again so its file is not overwritten
+     */
+    public void loadDecodedUnitChunks(List<List<NationUnit>> chunks) {
+        int total = 0;
+        for (List<NationUnit> chunk : chunks) {
+            total += chunk != null ? chunk.size() : 0;
+        }
+        
+        // Clear existing data
+        clearAllUnits();
+        if (store != null) {
+            store.ensureCapacity(total);
+        }
+        
+        Map<UUID, NationUnit> loadedUnits = new ConcurrentHashMap<>(Math.max(16, total * 4 / 3 + 1));
+        Map<Integer, Set<UUID>> loadedNationUnits = new ConcurrentHashMap<>();
+        List<UUID> deadUnits = new ArrayList<>();
+        for (int chunk = 0; chunk < chunks.size(); chunk++) {
+            if (chunks.get(chunk) == null) {
+                saveChunks.retire(chunk);
+                continue;
+            }
+            for (NationUnit unit : chunks.get(chunk)) {
+                register(unit, chunk, loadedUnits, loadedNationUnits, deadUnits);
+            }
+        }
+        this.nationUnits = loadedNationUnits;
+        this.units = loadedUnits;
+        for (UUID unitId : deadUnits) {
+            enqueueTombstone(unitId);
+        }
+        
+        verifyCounters();
+        System.out.println("UnitManager: Loaded " + total + " units from " + chunks.size() + " chunks");
+    }
+
+    /**
+     * Load units from the legacy pipe-delimited text format (migration from older saves)
      * @param data Serialized unit data
      */
-    public void loadUnits(String data) {
-        if (data == null || data.trim().isEmpty()) {
+    public void loadUnits(CharSequence data) {
+        if (data == null || LineReader.isBlank(data)) {
             return;
         }
+        loadUnits(new LineReader(data));
+    }
+
+    /**
+     * Load units from the legacy pipe-delimited text format without reading the whole stream first
+     * @param data Serialized unit data
+     */
+    public void loadUnits(Reader data) {
+        loadUnits(new LineReader(data));
+    }
 
+    /**
+     * Lines are read one at a time and decoded in batches on the common fork-join pool;
+     * decoded batches are registered in file order, and only a few batches are in flight at once
+     */
+    private void loadUnits(LineReader reader) {
         // Clear existing data
-        units.clear();
-        nationUnits.clear();
+        clearAllUnits();
 
-        String[] lines = data.split("\n");
+        int maxInFlight = Math.max(2, ForkJoinPool.getCommonPoolParallelism() * 2);
+        Deque<ForkJoinTask<List<NationUnit>>> inFlight = new ArrayDeque<>();
+        List<String> batch = new ArrayList<>(LOAD_BATCH_SIZE);
         int loaded = 0;
         
-        for (String line : lines) {
-            if (line.trim().isEmpty()) continue;
+        CharSequence line;
+        while ((line = reader.nextLine()) != null) {
+            if (LineReader.isBlank(line)) continue;
             
-            NationUnit unit = NationUnit.deserialize(line.trim());
-            if (unit != null) {
-                // Register unit
-                units.put(unit.getId(), unit);
-                
-                // Add to nation's unit set
-                String nationName = unit.getOwnerNation().toLowerCase();
-                nationUnits.computeIfAbsent(nationName, k -> ConcurrentHashMap.newKeySet()).add(unit.getId());
-                
-                loaded++;
+            batch.add(line.toString().trim());
+            if (batch.size() == LOAD_BATCH_SIZE) {
+                inFlight.addLast(ForkJoinPool.commonPool().submit(decodeTask(batch)));
+                batch = new ArrayList<>(LOAD_BATCH_SIZE);
+                if (inFlight.size() >= maxInFlight) {
+                    loaded += registerAll(inFlight.pollFirst().join());
+                }
             }
         }
+        if (!batch.isEmpty()) {
+            inFlight.addLast(ForkJoinPool.commonPool().submit(decodeTask(batch)));
+        }
+        while (!inFlight.isEmpty()) {
+            loaded += registerAll(inFlight.pollFirst().join());
+        }
         
+        verifyCounters();
         System.out.println("UnitManager: Loaded " + loaded + " units from persistence data");
     }
 
+    private static Callable<List<NationUnit>> decodeTask(List<String> lines) {
+        return () -> {
+            List<NationUnit> decoded = new ArrayList<>(lines.size());
+            for (String line : lines) {
+                NationUnit unit = NationUnit.deserialize(line);
+                if (unit != null) {
+                    decoded.add(unit);
+                }
+            }
+            return decoded;
+        };
+    }
+
+    private int registerAll(List<NationUnit> decoded) {
+        for (NationUnit unit : decoded) {
+            register(unit);
+        }
+        return decoded.size();
+    }
+
     /**
      * Add a pre-existing unit (for loading from persistence)
      * @param unit The unit to add
@@ -360,16 +678,167 @@ public class UnitManager {
             return false;
         }
         
-        // Register unit
-        units.put(unit.getId(), unit);
+        register(unit);
         
-        // Add to nation's unit set
-        String nationName = unit.getOwnerNation().toLowerCase();
-        nationUnits.computeIfAbsent(nationName, k -> ConcurrentHashMap.newKeySet()).add(unit.getId());
+        UnitMutationListener listener = mutationListener;
+        if (listener != null) {
+            listener.onUnitSpawned(unit);
+        }
         
+        verifyCounters();
         return true;
     }
 
+    /**
+     * Register a unit and add it to the indexes; units that are already dead go straight to the tombstone queue
+     */
+    private void register(NationUnit unit) {
+        register(unit, -1);
+    }
+
+    /**
+     * Register a unit into a known save chunk (-1 to assign one and mark it for saving)
+     */
+    private void register(NationUnit unit, int saveChunk) {
+        register(unit, saveChunk, units, nationUnits, null);
+    }
+
+    /**
+     * Register a unit into the given indexes (the live ones, or new ones being built during a load)
+     * @param deadUnits Receives the ids of dead units instead of queueing them, or null to queue them right away
+     */
+    private void register(NationUnit unit, int saveChunk, Map<UUID, NationUnit> units, Map<Integer, Set<UUID>> nationUnits,
+                          List<UUID> deadUnits) {
+        units.put(unit.getId(), unit);
+        attach(unit);
+        
+        if (unit.isAlive()) {
+            // Add to nation's unit set
+            nationUnits.computeIfAbsent(unit.getOwnerNationId(), k -> ConcurrentHashMap.newKeySet()).add(unit.getId());
+            saveChunks.add(unit.getId(), saveChunk);
+        } else if (deadUnits != null) {
+            deadUnits.add(unit.getId());
+        } else {
+            enqueueTombstone(unit.getId());
+        }
+    }
+
+    /**
+     * Drop a unit from the nation and spatial indexes and from its save chunk
+     */
+    private void unindex(NationUnit unit) {
+        spatialIndex.remove(unit.getId());
+        saveChunks.remove(unit.getId());
+        
+        // Remove from nation's unit set
+        int nationId = unit.getOwnerNationId();
+        Set<UUID> unitIds = nationUnits.get(nationId);
+        if (unitIds != null) {
+            unitIds.remove(unit.getId());
+            if (unitIds.isEmpty()) {
+                nationUnits.remove(nationId);
+            }
+        }
+    }
+
+    /**
+     * Queue a dead unit for reaping; when the queue is full the oldest entries are reaped right away
+     */
+    private void enqueueTombstone(UUID unitId) {
+        boolean full;
+        synchronized (tombstones) {
+            tombstones.addLast(unitId);
+            full = tombstones.size() > DominionConfig.TOMBSTONE_QUEUE_CAPACITY;
+        }
+        if (full) {
+            reapDeadUnits(Math.max(1, DominionConfig.REAP_BATCH_SIZE));
+        }
+    }
+
+    /**
+     * Move a newly registered unit's row into the shared store and start tracking it
+     */
+    private void attach(NationUnit unit) {
+        if (store != null) {
+            unit.moveTo(store);
+        }
+        unit.setListener(lifecycle);
+        if (unit.isAlive()) {
+            counters.add(unit.getOwnerNationId(), unit.getTypeId(), unit.getCurrentState());
+        }
+    }
+
+    /**
+     * Stop tracking a deregistered unit and move it back into a private field-backed row so
+     * stale references stay valid and its shared row can be reused
+     */
+    private void detach(NationUnit unit) {
+        unit.setListener(null);
+        if (unit.isAlive()) {
+            counters.remove(unit.getOwnerNationId(), unit.getTypeId(), unit.getCurrentState());
+        }
+        if (store != null && unit.getStore() == store) {
+            unit.moveTo(new UnitRow());
+        }
+    }
+
+    /**
+     * Set the listener notified about every unit spawn, change and removal
+     * @param listener The listener, or null to stop notifying
+     */
+    public void setMutationListener(UnitMutationListener listener) {
+        this.mutationListener = listener;
+    }
+
+    /**
+     * Rebuild the counters from a full scan and compare them with the incremental ones
+     * Only runs when -Ddominionrising.verifyUnitCounters=true (intended for tests and debugging)
+     * @throws IllegalStateException if the counters have drifted
+     */
+    public void verifyCounters() {
+        if (!DominionConfig.VERIFY_UNIT_COUNTERS) {
+            return;
+        }
+        UnitCounters expected = new UnitCounters();
+        for (NationUnit unit : units.values()) {
+            if (unit.isAlive()) {
+                expected.add(unit.getOwnerNationId(), unit.getTypeId(), unit.getCurrentState());
+            }
+        }
+        String mismatch = counters.diff(expected);
+        if (mismatch != null) {
+            throw new IllegalStateException("UnitManager counters out of sync: " + mismatch);
+        }
+    }
+
+    /**
+     * Keeps the counters, indexes and save chunks current as registered units die or change
+     */
+    private class Lifecycle implements UnitLifecycleListener {
+        @Override
+        public void onUnitDied(NationUnit unit) {
+            counters.remove(unit.getOwnerNationId(), unit.getTypeId(), unit.getCurrentState());
+            unindex(unit);
+            enqueueTombstone(unit.getId());
+            verifyCounters();
+        }
+
+        @Override
+        public void onStateChanged(NationUnit unit, NationUnit.UnitState oldState, NationUnit.UnitState newState) {
+            counters.changeState(oldState, newState);
+            verifyCounters();
+        }
+
+        @Override
+        public void onUnitChanged(NationUnit unit, UnitMutationListener.Change change) {
+            saveChunks.markDirty(unit.getId());
+            UnitMutationListener listener = mutationListener;
+            if (listener != null) {
+                listener.onUnitChanged(unit, change);
+            }
+        }
+    }
+
     /**
      * Get unit data for world persistence integration
      * @return Map of unit persistence data
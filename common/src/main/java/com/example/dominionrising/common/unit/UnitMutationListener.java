@@ -0,0 +1,41 @@
+package com.example.dominionrising.common.unit;
+
+import java.util.UUID;
+
+/**
+ * Receives every change UnitManager makes to its units, e.g. to journal them between saves
+ * Called on the thread that made the change
+ */
+public interface UnitMutationListener {
+
+    /**
+     * Kind of change made to an existing unit
+     */
+    enum Change {
+        /** Damage, healing or death */
+        HEALTH,
+        /** Tactical state, attack target or defend position */
+        STATE,
+        /** Level or experience */
+        PROGRESS
+    }
+
+    /**
+     * Called when a new unit is registered (not when units are loaded)
+     * @param unit The unit
+     */
+    void onUnitSpawned(NationUnit unit);
+
+    /**
+     * Called after a registered unit changed
+     * @param unit The unit
+     * @param change What changed
+     */
+    void onUnitChanged(NationUnit unit, Change change);
+
+    /**
+     * Called when a unit record is removed (dismissed or reaped after death)
+     * @param unitId The unit ID
+     */
+    void onUnitRemoved(UUID unitId);
+}
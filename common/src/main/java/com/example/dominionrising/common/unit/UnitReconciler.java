@@ -0,0 +1,150 @@
+package com.example.dominionrising.common.unit;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Background pass that reconciles unit records with loaded unit entities
+ * Each tick checks a bounded slice of records and entities, so a full pass is spread over many ticks.
+ * Entities are bound to records as they load; this pass retries unbound entities and measures drift:
+ * records whose entity is not loaded, and loaded entities that have no record.
+ */
+public class UnitReconciler {
+
+    /**
+     * Loader-side view of the loaded unit entities
+     */
+    public interface EntityView {
+        /**
+         * @return true if an entity for this unit is loaded
+         */
+        boolean isLoaded(UUID unitId);
+
+        /**
+         * @return Snapshot of the unit IDs of all loaded unit entities
+         */
+        Collection<UUID> loadedUnitIds();
+
+        /**
+         * Bind the loaded entity to its unit record if it is not bound yet
+         * @return false if no record exists for the entity
+         */
+        boolean bind(UUID unitId);
+    }
+
+    private final int batchSize;
+
+    // Current pass
+    private boolean passActive;
+    private List<UUID> recordCursor = List.of();
+    private List<UUID> entityCursor = List.of();
+    private int recordIndex;
+    private int entityIndex;
+    private int recordsWithoutEntity;
+    private int entitiesWithoutRecord;
+
+    // Results of the last completed pass
+    private volatile int lastRecordsWithoutEntity;
+    private volatile int lastEntitiesWithoutRecord;
+    private volatile int lastRecordsChecked;
+    private volatile int lastEntitiesChecked;
+    private volatile long passesCompleted;
+
+    public UnitReconciler(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Advance the pass by one slice (called once per server tick)
+     * @param manager The unit manager holding the records
+     * @param view The loaded entities
+     */
+    public void tick(UnitManager manager, EntityView view) {
+        if (recordIndex >= recordCursor.size() && entityIndex >= entityCursor.size()) {
+            finishPass();
+            recordCursor = new ArrayList<>(manager.getUnitIds());
+            entityCursor = new ArrayList<>(view.loadedUnitIds());
+            recordIndex = 0;
+            entityIndex = 0;
+            passActive = true;
+        }
+
+        int budget = batchSize;
+        while (budget > 0 && recordIndex < recordCursor.size()) {
+            UUID unitId = recordCursor.get(recordIndex++);
+            NationUnit unit = manager.getUnit(unitId);
+            if (unit != null && unit.isAlive() && !view.isLoaded(unitId)) {
+                recordsWithoutEntity++;
+            }
+            budget--;
+        }
+
+        budget = batchSize;
+        while (budget > 0 && entityIndex < entityCursor.size()) {
+            UUID unitId = entityCursor.get(entityIndex++);
+            if (view.isLoaded(unitId) && !view.bind(unitId)) {
+                entitiesWithoutRecord++;
+            }
+            budget--;
+        }
+    }
+
+    private void finishPass() {
+        if (!passActive) {
+            return;
+        }
+        lastRecordsWithoutEntity = recordsWithoutEntity;
+        lastEntitiesWithoutRecord = entitiesWithoutRecord;
+        lastRecordsChecked = recordCursor.size();
+        lastEntitiesChecked = entityCursor.size();
+        passesCompleted++;
+        recordsWithoutEntity = 0;
+        entitiesWithoutRecord = 0;
+    }
+
+    /**
+     * Restart from scratch (for world reload)
+     */
+    public void reset() {
+        passActive = false;
+        recordCursor = List.of();
+        entityCursor = List.of();
+        recordIndex = 0;
+        entityIndex = 0;
+        recordsWithoutEntity = 0;
+        entitiesWithoutRecord = 0;
+        lastRecordsWithoutEntity = 0;
+        lastEntitiesWithoutRecord = 0;
+        lastRecordsChecked = 0;
+        lastEntitiesChecked = 0;
+        passesCompleted = 0;
+    }
+
+    /**
+     * @return Alive records whose entity was not loaded during the last pass
+     */
+    public int getRecordsWithoutEntity() {
+        return lastRecordsWithoutEntity;
+    }
+
+    /**
+     * @return Loaded entities that had no unit record during the last pass
+     */
+    public int getEntitiesWithoutRecord() {
+        return lastEntitiesWithoutRecord;
+    }
+
+    public int getRecordsChecked() {
+        return lastRecordsChecked;
+    }
+
+    public int getEntitiesChecked() {
+        return lastEntitiesChecked;
+    }
+
+    public long getPassesCompleted() {
+        return passesCompleted;
+    }
+}
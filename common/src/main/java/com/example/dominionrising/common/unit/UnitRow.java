@@ -0,0 +1,253 @@
+package com.example.dominionrising.common.unit;
+
+import java.util.UUID;
+import java.util.function.IntConsumer;
+
+/**
+ * A store of exactly one row, kept in plain fields instead of column arrays
+ * Used by units that are not in UnitManager's shared store: transient and client display units,
+ * deregistered units, and every unit when the columnar store is turned off. Its only handle is 0.
+ */
+final class UnitRow extends UnitStore {
+    private long idMost;
+    private long idLeast;
+    private int typeId;
+    private int ownerId;
+    private int level;
+    private int health;
+    private int experience;
+    private byte flags;
+    private byte state;
+    private long targetMost;
+    private long targetLeast;
+    private double defendX;
+    private double defendY;
+    private double defendZ;
+    private long stateChangeTime;
+    private int version;
+
+    @Override
+    public int allocate(UUID id) {
+        if ((flags & FLAG_USED) != 0) {
+            throw new IllegalStateException("A unit row holds only one unit");
+        }
+        idMost = id.getMostSignificantBits();
+        idLeast = id.getLeastSignificantBits();
+        typeId = 0;
+        ownerId = 0;
+        level = 0;
+        health = 0;
+        experience = 0;
+        flags = FLAG_USED;
+        state = 0;
+        targetMost = 0;
+        targetLeast = 0;
+        defendX = 0;
+        defendY = 0;
+        defendZ = 0;
+        stateChangeTime = 0;
+        version = 0;
+        return 0;
+    }
+
+    @Override
+    public void ensureCapacity(int rows) {
+        if (rows > 1) {
+            throw new IllegalStateException("A unit row holds only one unit");
+        }
+    }
+
+    @Override
+    public void free(int handle) {
+        flags = 0;
+    }
+
+    @Override
+    public int copyFrom(UnitStore source, int sourceHandle) {
+        allocate(source.getId(sourceHandle));
+        typeId = source.getTypeId(sourceHandle);
+        ownerId = source.getOwnerId(sourceHandle);
+        level = source.getLevel(sourceHandle);
+        health = source.getHealth(sourceHandle);
+        experience = source.getExperience(sourceHandle);
+        flags = source.getFlags(sourceHandle);
+        state = (byte) source.getStateOrdinal(sourceHandle);
+        targetMost = source.getTargetMost(sourceHandle);
+        targetLeast = source.getTargetLeast(sourceHandle);
+        defendX = source.getDefendX(sourceHandle);
+        defendY = source.getDefendY(sourceHandle);
+        defendZ = source.getDefendZ(sourceHandle);
+        stateChangeTime = source.getStateChangeTime(sourceHandle);
+        version = source.getVersion(sourceHandle);
+        return 0;
+    }
+
+    @Override
+    public void forEachRow(IntConsumer action) {
+        if ((flags & FLAG_USED) != 0) {
+            action.accept(0);
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return (flags & FLAG_USED) != 0 ? 1 : 0;
+    }
+
+    @Override
+    public boolean isUsed(int handle) {
+        return handle == 0 && (flags & FLAG_USED) != 0;
+    }
+
+    // === COLUMN ACCESS ===
+
+    @Override
+    public UUID getId(int handle) {
+        return new UUID(idMost, idLeast);
+    }
+
+    @Override
+    public int getTypeId(int handle) {
+        return typeId;
+    }
+
+    @Override
+    public void setTypeId(int handle, int value) {
+        typeId = value;
+    }
+
+    @Override
+    public int getOwnerId(int handle) {
+        return ownerId;
+    }
+
+    @Override
+    public void setOwnerId(int handle, int value) {
+        ownerId = value;
+    }
+
+    @Override
+    public int getLevel(int handle) {
+        return level;
+    }
+
+    @Override
+    public void setLevel(int handle, int value) {
+        level = value;
+    }
+
+    @Override
+    public int getHealth(int handle) {
+        return health;
+    }
+
+    @Override
+    public void setHealth(int handle, int value) {
+        health = value;
+    }
+
+    @Override
+    public int getExperience(int handle) {
+        return experience;
+    }
+
+    @Override
+    public void setExperience(int handle, int value) {
+        experience = value;
+    }
+
+    @Override
+    byte getFlags(int handle) {
+        return flags;
+    }
+
+    @Override
+    long getTargetMost(int handle) {
+        return targetMost;
+    }
+
+    @Override
+    long getTargetLeast(int handle) {
+        return targetLeast;
+    }
+
+    @Override
+    public boolean isAlive(int handle) {
+        return (flags & FLAG_ALIVE) != 0;
+    }
+
+    @Override
+    public void setAlive(int handle, boolean value) {
+        flags = (byte) (value ? flags | FLAG_ALIVE : flags & ~FLAG_ALIVE);
+    }
+
+    @Override
+    public int getStateOrdinal(int handle) {
+        return state;
+    }
+
+    @Override
+    public void setStateOrdinal(int handle, int value) {
+        state = (byte) value;
+    }
+
+    @Override
+    public UUID getAttackTarget(int handle) {
+        return (flags & FLAG_HAS_TARGET) != 0 ? new UUID(targetMost, targetLeast) : null;
+    }
+
+    @Override
+    public void setAttackTarget(int handle, UUID target) {
+        if (target == null) {
+            flags = (byte) (flags & ~FLAG_HAS_TARGET);
+            targetMost = 0;
+            targetLeast = 0;
+        } else {
+            flags = (byte) (flags | FLAG_HAS_TARGET);
+            targetMost = target.getMostSignificantBits();
+            targetLeast = target.getLeastSignificantBits();
+        }
+    }
+
+    @Override
+    public double getDefendX(int handle) {
+        return defendX;
+    }
+
+    @Override
+    public double getDefendY(int handle) {
+        return defendY;
+    }
+
+    @Override
+    public double getDefendZ(int handle) {
+        return defendZ;
+    }
+
+    @Override
+    public void setDefendPosition(int handle, double x, double y, double z) {
+        defendX = x;
+        defendY = y;
+        defendZ = z;
+    }
+
+    @Override
+    public long getStateChangeTime(int handle) {
+        return stateChangeTime;
+    }
+
+    @Override
+    public void setStateChangeTime(int handle, long value) {
+        stateChangeTime = value;
+    }
+
+    @Override
+    public int getVersion(int handle) {
+        return version;
+    }
+
+    @Override
+    public void bumpVersion(int handle) {
+        version++;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.dominionrising.common.unit;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Assigns alive units to fixed save chunks and tracks which chunks changed since the last save
+ * A unit keeps its chunk for its whole life, so a save only re-encodes the chunks of changed units.
+ * Chunks whose file could not be loaded are retired: no unit is ever put there and they are never
+ * written, so the damaged file is not overwritten.
+ */
+class UnitSaveChunks {
+    private final int chunkSize;
+    private final Map<UUID, Integer> chunkOf = new HashMap<>();
+    private final List<Set<UUID>> chunks = new ArrayList<>();
+    private final BitSet dirty = new BitSet();
+    private final BitSet hasSpace = new BitSet();
+    private final BitSet retired = new BitSet();
+
+    UnitSaveChunks(int chunkSize) {
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Assign a unit to a chunk
+     * @param unitId The unit ID
+     * @param chunk The chunk it was loaded from, or -1 to pick one (which marks that chunk dirty)
+     */
+    synchronized void add(UUID unitId, int chunk) {
+        if (chunkOf.containsKey(unitId)) {
+            return;
+        }
+        if (chunk < 0) {
+            chunk = hasSpace.nextSetBit(0);
+            if (chunk < 0) {
+                chunk = chunks.size();
+            }
+            dirty.set(chunk);
+        }
+        grow(chunk);
+        Set<UUID> members = chunks.get(chunk);
+        members.add(unitId);
+        chunkOf.put(unitId, chunk);
+        hasSpace.set(chunk, members.size() < chunkSize);
+    }
+
+    synchronized void remove(UUID unitId) {
+        Integer chunk = chunkOf.remove(unitId);
+        if (chunk != null) {
+            Set<UUID> members = chunks.get(chunk);
+            members.remove(unitId);
+            dirty.set(chunk);
+            hasSpace.set(chunk, members.size() < chunkSize);
+        }
+    }
+
+    synchronized void markDirty(UUID unitId) {
+        Integer chunk = chunkOf.get(unitId);
+        if (chunk != null) {
+            dirty.set(chunk);
+        }
+    }
+
+    synchronized void markChunkDirty(int chunk) {
+        if (chunk >= 0 && chunk < chunks.size() && !retired.get(chunk)) {
+            dirty.set(chunk);
+        }
+    }
+
+    synchronized void markAllDirty() {
+        dirty.set(0, chunks.size());
+        dirty.andNot(retired);
+    }
+
+    /**
+     * Keep a chunk that could not be loaded out of use, so its file is never overwritten
+     * @param chunk The chunk index
+     */
+    synchronized void retire(int chunk) {
+        grow(chunk);
+        retired.set(chunk);
+        hasSpace.clear(chunk);
+        dirty.clear(chunk);
+    }
+
+    synchronized int retiredCount() {
+        return retired.cardinality();
+    }
+
+    synchronized void clear() {
+        chunkOf.clear();
+        chunks.clear();
+        dirty.clear();
+        hasSpace.clear();
+        retired.clear();
+    }
+
+    synchronized int chunkCount() {
+        return chunks.size();
+    }
+
+    synchronized int dirtyCount() {
+        return dirty.cardinality();
+    }
+
+    private void grow(int chunk) {
+        while (chunks.size() <= chunk) {
+            hasSpace.set(chunks.size());
+            chunks.add(new LinkedHashSet<>());
+        }
+    }
+
+    /**
+     * Take the members of every dirty chunk and mark them clean
+     * @return Chunk index -> unit IDs currently in that chunk
+     */
+    synchronized Map<Integer, List<UUID>> drainDirty() {
+        Map<Integer, List<UUID>> result = new HashMap<>();
+        for (int chunk = dirty.nextSetBit(0); chunk >= 0; chunk = dirty.nextSetBit(chunk + 1)) {
+            result.put(chunk, new ArrayList<>(chunks.get(chunk)));
+        }
+        dirty.clear();
+        return result;
+    }
+}
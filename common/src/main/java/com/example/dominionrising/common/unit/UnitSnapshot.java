@@ -0,0 +1,57 @@
+package com.example.dominionrising.common.unit;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Point-in-time copy of the unit save chunks that changed, taken on the server thread
+ * Holds its own copy of the unit rows, so it can be encoded on a worker thread while the live units keep changing
+ */
+public final class UnitSnapshot {
+    private final UnitStore rows;
+    private final Map<Integer, int[]> chunks;
+
+    UnitSnapshot(UnitStore rows, Map<Integer, int[]> chunks) {
+        this.rows = rows;
+        this.chunks = chunks;
+    }
+
+    /**
+     * Encode every captured chunk (see UnitCodec)
+     * @return Chunk index -> encoded bytes
+     */
+    public Map<Integer, byte[]> encodeChunks() {
+        Map<Integer, byte[]> encoded = new HashMap<>();
+        for (Map.Entry<Integer, int[]> chunk : chunks.entrySet()) {
+            encoded.put(chunk.getKey(), UnitCodec.encode(rows, chunk.getValue()));
+        }
+        return encoded;
+    }
+
+    /**
+     * @return Indexes of the captured chunks
+     */
+    public Set<Integer> getChunkIndexes() {
+        return Collections.unmodifiableSet(chunks.keySet());
+    }
+
+    /**
+     * @return Number of captured chunks
+     */
+    public int getChunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * @return Number of unit records in the captured chunks
+     */
+    public int getRecordCount() {
+        int records = 0;
+        for (int[] handles : chunks.values()) {
+            records += handles.length;
+        }
+        return records;
+    }
+}
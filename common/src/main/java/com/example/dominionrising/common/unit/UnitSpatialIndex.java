@@ -0,0 +1,270 @@
+package com.example.dominionrising.common.unit;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Spatial hash of live unit positions, bucketed by 16x16x16 chunk section per dimension
+ * Fed by the loader's unit entities as they move; range queries only visit overlapping sections
+ */
+public class UnitSpatialIndex {
+    private static final int SECTION_SHIFT = 4;
+    private static final int SECTION_SIZE = 1 << SECTION_SHIFT;
+
+    // Dimension -> section key -> units in that section
+    private final Map<String, Map<Long, Set<Entry>>> dimensions = new ConcurrentHashMap<>();
+
+    // Unit ID -> last known position
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Record the current position of a unit, moving it between sections if needed
+     * @param unitId The unit ID
+     * @param dimension Dimension key (e.g. "minecraft:overworld")
+     * @param x X coordinate
+     * @param y Y coordinate
+     * @param z Z coordinate
+     */
+    public void update(UUID unitId, String dimension, double x, double y, double z) {
+        long section = sectionKey(x, y, z);
+        Entry entry = entries.get(unitId);
+        if (entry == null) {
+            entry = new Entry(unitId, dimension, section);
+            entries.put(unitId, entry);
+            bucket(dimension, section).add(entry);
+        } else if (entry.section != section || !entry.dimension.equals(dimension)) {
+            unlink(entry);
+            entry.dimension = dimension;
+            entry.section = section;
+            bucket(dimension, section).add(entry);
+        }
+        entry.x = x;
+        entry.y = y;
+        entry.z = z;
+    }
+
+    /**
+     * Forget a unit's position (entity unloaded, killed or unit removed)
+     * @param unitId The unit ID
+     */
+    public void remove(UUID unitId) {
+        Entry entry = entries.remove(unitId);
+        if (entry != null) {
+            unlink(entry);
+        }
+    }
+
+    /**
+     * Check whether a unit currently has a known position
+     * @param unitId The unit ID
+     * @return true if the unit is indexed
+     */
+    public boolean contains(UUID unitId) {
+        return entries.containsKey(unitId);
+    }
+
+    /**
+     * Clear all positions (for world reload)
+     */
+    public void clear() {
+        entries.clear();
+        dimensions.clear();
+    }
+
+    /**
+     * Get the number of indexed units
+     * @return Indexed unit count
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Find units within a sphere
+     * @param dimension Dimension key
+     * @param x Center X
+     * @param y Center Y
+     * @param z Center Z
+     * @param radius Search radius in blocks
+     * @param filter Filter applied to candidate unit IDs
+     * @return IDs of matching units
+     */
+    public List<UUID> queryRadius(String dimension, double x, double y, double z, double radius, Predicate<UUID> filter) {
+        List<UUID> result = new ArrayList<>();
+        double radiusSq = radius * radius;
+        visit(dimension, x - radius, y - radius, z - radius, x + radius, y + radius, z + radius, entry -> {
+            if (entry.distanceSq(x, y, z) <= radiusSq && filter.test(entry.unitId)) {
+                result.add(entry.unitId);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Find units inside an axis-aligned box
+     * @param dimension Dimension key
+     * @return IDs of matching units
+     */
+    public List<UUID> queryBox(String dimension, double minX, double minY, double minZ,
+                               double maxX, double maxY, double maxZ, Predicate<UUID> filter) {
+        List<UUID> result = new ArrayList<>();
+        visit(dimension, minX, minY, minZ, maxX, maxY, maxZ, entry -> {
+            if (entry.x >= minX && entry.x <= maxX && entry.y >= minY && entry.y <= maxY
+                    && entry.z >= minZ && entry.z <= maxZ && filter.test(entry.unitId)) {
+                result.add(entry.unitId);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Find the k units nearest to a point, searching outwards ring by ring
+     * @param dimension Dimension key
+     * @param x Center X
+     * @param y Center Y
+     * @param z Center Z
+     * @param k Maximum number of units to return
+     * @param maxDistance Maximum search distance in blocks
+     * @param filter Filter applied to candidate unit IDs
+     * @return IDs of the nearest units, closest first
+     */
+    public List<UUID> queryNearest(String dimension, double x, double y, double z, int k, double maxDistance, Predicate<UUID> filter) {
+        Map<Long, Set<Entry>> sections = dimensions.get(dimension);
+        if (sections == null || k <= 0) {
+            return Collections.emptyList();
+        }
+
+        // Max-heap on distance holding the best k candidates so far
+        PriorityQueue<Entry> best = new PriorityQueue<>(k + 1,
+                (a, b) -> Double.compare(b.distanceSq(x, y, z), a.distanceSq(x, y, z)));
+        double maxDistanceSq = maxDistance * maxDistance;
+        int cx = section(x);
+        int cy = section(y);
+        int cz = section(z);
+        int maxRing = (int) Math.ceil(maxDistance / SECTION_SIZE);
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int sx = cx - ring; sx <= cx + ring; sx++) {
+                for (int sy = cy - ring; sy <= cy + ring; sy++) {
+                    for (int sz = cz - ring; sz <= cz + ring; sz++) {
+                        // Only the shell of this ring; inner sections were visited already
+                        if (Math.max(Math.abs(sx - cx), Math.max(Math.abs(sy - cy), Math.abs(sz - cz))) != ring) {
+                            continue;
+                        }
+                        Set<Entry> bucket = sections.get(packSection(sx, sy, sz));
+                        if (bucket == null) {
+                            continue;
+                        }
+                        for (Entry entry : bucket) {
+                            if (entry.distanceSq(x, y, z) <= maxDistanceSq && filter.test(entry.unitId)) {
+                                best.add(entry);
+                                if (best.size() > k) {
+                                    best.poll();
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+            // Everything outside this ring is at least ring * 16 blocks away
+            if (best.size() == k) {
+                double reach = ring * (double) SECTION_SIZE;
+                if (best.peek().distanceSq(x, y, z) <= reach * reach) {
+                    break;
+                }
+            }
+        }
+
+        List<UUID> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            result.add(best.poll().unitId);
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private void visit(String dimension, double minX, double minY, double minZ,
+                       double maxX, double maxY, double maxZ, Consumer<Entry> action) {
+        Map<Long, Set<Entry>> sections = dimensions.get(dimension);
+        if (sections == null) {
+            return;
+        }
+        for (int sx = section(minX); sx <= section(maxX); sx++) {
+            for (int sy = section(minY); sy <= section(maxY); sy++) {
+                for (int sz = section(minZ); sz <= section(maxZ); sz++) {
+                    Set<Entry> bucket = sections.get(packSection(sx, sy, sz));
+                    if (bucket != null) {
+                        bucket.forEach(action);
+                    }
+                }
+            }
+        }
+    }
+
+    private Set<Entry> bucket(String dimension, long section) {
+        return dimensions.computeIfAbsent(dimension, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(section, k -> ConcurrentHashMap.newKeySet());
+    }
+
+    private void unlink(Entry entry) {
+        Map<Long, Set<Entry>> sections = dimensions.get(entry.dimension);
+        if (sections == null) {
+            return;
+        }
+        Set<Entry> bucket = sections.get(entry.section);
+        if (bucket != null) {
+            bucket.remove(entry);
+            if (bucket.isEmpty()) {
+                sections.remove(entry.section);
+            }
+        }
+    }
+
+    private static int section(double coordinate) {
+        return (int) Math.floor(coordinate) >> SECTION_SHIFT;
+    }
+
+    private static long sectionKey(double x, double y, double z) {
+        return packSection(section(x), section(y), section(z));
+    }
+
+    /**
+     * Same packing as vanilla SectionPos.asLong
+     */
+    private static long packSection(int sx, int sy, int sz) {
+        return ((long) sx & 0x3FFFFFL) << 42 | ((long) sy & 0xFFFFFL) | ((long) sz & 0x3FFFFFL) << 20;
+    }
+
+    /**
+     * Position record for one unit; identity-based so it can live in a bucket set while moving
+     */
+    private static final class Entry {
+        private final UUID unitId;
+        private String dimension;
+        private long section;
+        private volatile double x;
+        private volatile double y;
+        private volatile double z;
+
+        private Entry(UUID unitId, String dimension, long section) {
+            this.unitId = unitId;
+            this.dimension = dimension;
+            this.section = section;
+        }
+
+        private double distanceSq(double px, double py, double pz) {
+            double dx = x - px;
+            double dy = y - py;
+            double dz = z - pz;
+            return dx * dx + dy * dy + dz * dz;
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.example.dominionrising.common.unit;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+
+/**
+ * Struct-of-arrays storage for unit state
+ * Every unit occupies one row addressed by an int handle, and NationUnit is a thin view over a row.
+ * Rows are allocated and freed under the store lock; column reads and writes happen on the server thread.
+ * A unit outside any shared store keeps its row in a UnitRow, which holds the single row in fields.
+ */
+public class UnitStore {
+    /**
+     * Shared type name table so rows can move between stores without re-interning
+     * Owners are NationRegistry ids, which are shared the same way.
+     */
+    public static final SymbolTable TYPES = new SymbolTable();
+
+    static final byte FLAG_USED = 1;
+    static final byte FLAG_ALIVE = 2;
+    static final byte FLAG_HAS_TARGET = 4;
+
+    // Identity
+    private long[] idMost;
+    private long[] idLeast;
+    private int[] typeId;
+    private int[] ownerId;
+
+    // Progression; combat stats are derived from type and level via UnitTypeRegistry
+    private int[] level;
+    private int[] health;
+    private int[] experience;
+
+    // Tactical state
+    private byte[] flags;
+    private byte[] state;
+    private long[] targetMost;
+    private long[] targetLeast;
+    private double[] defendX;
+    private double[] defendY;
+    private double[] defendZ;
+    private long[] stateChangeTime;
+
+    // Change counter per row, bumped by NationUnit on every persisted change
+    private int[] version;
+
+    private int highWater;
+    private int liveRows;
+    private int[] freeHandles;
+    private int freeCount;
+
+    public UnitStore(int initialCapacity) {
+        freeHandles = new int[8];
+        resize(Math.max(1, initialCapacity));
+    }
+
+    /**
+     * For UnitRow, which keeps its single row in fields and allocates no columns
+     */
+    UnitStore() {
+    }
+
+    /**
+     * Allocate a fresh row; all columns are zeroed
+     * @param id The unit ID stored in the row
+     * @return Handle of the new row
+     */
+    public synchronized int allocate(UUID id) {
+        int handle;
+        if (freeCount > 0) {
+            handle = freeHandles[--freeCount];
+        } else {
+            if (highWater == flags.length) {
+                resize(flags.length * 2);
+            }
+            handle = highWater++;
+        }
+        clearRow(handle);
+        idMost[handle] = id.getMostSignificantBits();
+        idLeast[handle] = id.getLeastSignificantBits();
+        flags[handle] = FLAG_USED;
+        liveRows++;
+        return handle;
+    }
+
+    /**
+     * Grow the columns once so the next allocations do not resize repeatedly
+     * @param rows Number of rows about to be allocated
+     */
+    public synchronized void ensureCapacity(int rows) {
+        int needed = highWater + Math.max(0, rows - freeCount);
+        if (needed > flags.length) {
+            resize(needed);
+        }
+    }
+
+    /**
+     * Release a row so its handle can be reused
+     * @param handle The row handle
+     */
+    public synchronized void free(int handle) {
+        if (!isUsed(handle)) {
+            return;
+        }
+        flags[handle] = 0;
+        liveRows--;
+        if (freeCount == freeHandles.length) {
+            freeHandles = Arrays.copyOf(freeHandles, freeCount * 2);
+        }
+        freeHandles[freeCount++] = handle;
+    }
+
+    /**
+     * Copy a row from another store into a newly allocated row of this store
+     * @param source The store holding the row
+     * @param sourceHandle The row handle in the source store
+     * @return Handle of the copied row in this store
+     */
+    public synchronized int copyFrom(UnitStore source, int sourceHandle) {
+        int handle = allocate(source.getId(sourceHandle));
+        // Read through the accessors, the source may be a UnitRow
+        typeId[handle] = source.getTypeId(sourceHandle);
+        ownerId[handle] = source.getOwnerId(sourceHandle);
+        level[handle] = source.getLevel(sourceHandle);
+        health[handle] = source.getHealth(sourceHandle);
+        experience[handle] = source.getExperience(sourceHandle);
+        flags[handle] = source.getFlags(sourceHandle);
+        state[handle] = (byte) source.getStateOrdinal(sourceHandle);
+        targetMost[handle] = source.getTargetMost(sourceHandle);
+        targetLeast[handle] = source.getTargetLeast(sourceHandle);
+        defendX[handle] = source.getDefendX(sourceHandle);
+        defendY[handle] = source.getDefendY(sourceHandle);
+        defendZ[handle] = source.getDefendZ(sourceHandle);
+        stateChangeTime[handle] = source.getStateChangeTime(sourceHandle);
+        version[handle] = source.getVersion(sourceHandle);
+        return handle;
+    }
+
+    /**
+     * Visit every allocated row
+     * @param action Callback receiving each row handle
+     */
+    public void forEachRow(IntConsumer action) {
+        int limit = highWater;
+        for (int handle = 0; handle < limit; handle++) {
+            if ((flags[handle] & FLAG_USED) != 0) {
+                action.accept(handle);
+            }
+        }
+    }
+
+    public synchronized int getRowCount() {
+        return liveRows;
+    }
+
+    public boolean isUsed(int handle) {
+        return handle >= 0 && handle < highWater && (flags[handle] & FLAG_USED) != 0;
+    }
+
+    // === COLUMN ACCESS ===
+
+    public UUID getId(int handle) {
+        return new UUID(idMost[handle], idLeast[handle]);
+    }
+
+    public int getTypeId(int handle) {
+        return typeId[handle];
+    }
+
+    public void setTypeId(int handle, int value) {
+        typeId[handle] = value;
+    }
+
+    public int getOwnerId(int handle) {
+        return ownerId[handle];
+    }
+
+    public void setOwnerId(int handle, int value) {
+        ownerId[handle] = value;
+    }
+
+    public int getLevel(int handle) {
+        return level[handle];
+    }
+
+    public void setLevel(int handle, int value) {
+        level[handle] = value;
+    }
+
+    public int getHealth(int handle) {
+        return health[handle];
+    }
+
+    public void setHealth(int handle, int value) {
+        health[handle] = value;
+    }
+
+    public int getExperience(int handle) {
+        return experience[handle];
+    }
+
+    public void setExperience(int handle, int value) {
+        experience[handle] = value;
+    }
+
+    byte getFlags(int handle) {
+        return flags[handle];
+    }
+
+    long getTargetMost(int handle) {
+        return targetMost[handle];
+    }
+
+    long getTargetLeast(int handle) {
+        return targetLeast[handle];
+    }
+
+    public boolean isAlive(int handle) {
+        return (flags[handle] & FLAG_ALIVE) != 0;
+    }
+
+    public void setAlive(int handle, boolean value) {
+        flags[handle] = (byte) (value ? flags[handle] | FLAG_ALIVE : flags[handle] & ~FLAG_ALIVE);
+    }
+
+    public int getStateOrdinal(int handle) {
+        return state[handle];
+    }
+
+    public void setStateOrdinal(int handle, int value) {
+        state[handle] = (byte) value;
+    }
+
+    public UUID getAttackTarget(int handle) {
+        return (flags[handle] & FLAG_HAS_TARGET) != 0 ? new UUID(targetMost[handle], targetLeast[handle]) : null;
+    }
+
+    public void setAttackTarget(int handle, UUID target) {
+        if (target == null) {
+            flags[handle] = (byte) (flags[handle] & ~FLAG_HAS_TARGET);
+            targetMost[handle] = 0;
+            targetLeast[handle] = 0;
+        } else {
+            flags[handle] = (byte) (flags[handle] | FLAG_HAS_TARGET);
+            targetMost[handle] = target.getMostSignificantBits();
+            targetLeast[handle] = target.getLeastSignificantBits();
+        }
+    }
+
+    public double getDefendX(int handle) {
+        return defendX[handle];
+    }
+
+    public double getDefendY(int handle) {
+        return defendY[handle];
+    }
+
+    public double getDefendZ(int handle) {
+        return defendZ[handle];
+    }
+
+    public void setDefendPosition(int handle, double x, double y, double z) {
+        defendX[handle] = x;
+        defendY[handle] = y;
+        defendZ[handle] = z;
+    }
+
+    public long getStateChangeTime(int handle) {
+        return stateChangeTime[handle];
+    }
+
+    public void setStateChangeTime(int handle, long value) {
+        stateChangeTime[handle] = value;
+    }
+
+    public int getVersion(int handle) {
+        return version[handle];
+    }
+
+    public void bumpVersion(int handle) {
+        version[handle]++;
+    }
+
+    private void clearRow(int handle) {
+        typeId[handle] = 0;
+        ownerId[handle] = 0;
+        level[handle] = 0;
+        health[handle] = 0;
+        experience[handle] = 0;
+        state[handle] = 0;
+        targetMost[handle] = 0;
+        targetLeast[handle] = 0;
+        defendX[handle] = 0;
+        defendY[handle] = 0;
+        defendZ[handle] = 0;
+        stateChangeTime[handle] = 0;
+        version[handle] = 0;
+    }
+
+    private void resize(int capacity) {
+        idMost = idMost == null ? new long[capacity] : Arrays.copyOf(idMost, capacity);
+        idLeast = idLeast == null ? new long[capacity] : Arrays.copyOf(idLeast, capacity);
+        typeId = typeId == null ? new int[capacity] : Arrays.copyOf(typeId, capacity);
+        ownerId = ownerId == null ? new int[capacity] : Arrays.copyOf(ownerId, capacity);
+        level = level == null ? new int[capacity] : Arrays.copyOf(level, capacity);
+        health = health == null ? new int[capacity] : Arrays.copyOf(health, capacity);
+        experience = experience == null ? new int[capacity] : Arrays.copyOf(experience, capacity);
+        state = state == null ? new byte[capacity] : Arrays.copyOf(state, capacity);
+        targetMost = targetMost == null ? new long[capacity] : Arrays.copyOf(targetMost, capacity);
+        targetLeast = targetLeast == null ? new long[capacity] : Arrays.copyOf(targetLeast, capacity);
+        defendX = defendX == null ? new double[capacity] : Arrays.copyOf(defendX, capacity);
+        defendY = defendY == null ? new double[capacity] : Arrays.copyOf(defendY, capacity);
+        defendZ = defendZ == null ? new double[capacity] : Arrays.copyOf(defendZ, capacity);
+        stateChangeTime = stateChangeTime == null ? new long[capacity] : Arrays.copyOf(stateChangeTime, capacity);
+        version = version == null ? new int[capacity] : Arrays.copyOf(version, capacity);
+        // Flags last: a row only becomes visible to scans once every column has room for it
+        flags = flags == null ? new byte[capacity] : Arrays.copyOf(flags, capacity);
+    }
+}
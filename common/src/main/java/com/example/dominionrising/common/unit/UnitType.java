@@ -0,0 +1,109 @@
+package com.example.dominionrising.common.unit;
+
+/**
+ * Definition of a unit type with its stats precomputed for every level
+ * Stats grow linearly per level; levels past maxLevel keep growing by the same formula
+ */
+public final class UnitType {
+    private static final int STRIDE = 3;
+    private static final int MAX_HEALTH = 0;
+    private static final int ATTACK_DAMAGE = 1;
+    private static final int DEFENSE = 2;
+
+    private final int id;
+    private final String name;
+    private final int maxLevel;
+    private final StatCurve maxHealth;
+    private final StatCurve attackDamage;
+    private final StatCurve defense;
+    private final StatCurve attackSpeed;
+
+    // (maxHealth, attackDamage, defense) per level, flattened
+    private final int[] table;
+    private final double[] speedTable;
+
+    /**
+     * Linear stat growth: base + perLevel * level
+     */
+    public static final class StatCurve {
+        private final double base;
+        private final double perLevel;
+
+        public StatCurve(double base, double perLevel) {
+            this.base = base;
+            this.perLevel = perLevel;
+        }
+
+        public double at(int level) {
+            return base + perLevel * level;
+        }
+
+        public double getBase() {
+            return base;
+        }
+
+        public double getPerLevel() {
+            return perLevel;
+        }
+    }
+
+    public UnitType(int id, String name, int maxLevel, StatCurve maxHealth, StatCurve attackDamage,
+                    StatCurve defense, StatCurve attackSpeed) {
+        this.id = id;
+        this.name = name;
+        this.maxLevel = Math.max(1, maxLevel);
+        this.maxHealth = maxHealth;
+        this.attackDamage = attackDamage;
+        this.defense = defense;
+        this.attackSpeed = attackSpeed;
+
+        this.table = new int[(this.maxLevel + 1) * STRIDE];
+        this.speedTable = new double[this.maxLevel + 1];
+        for (int level = 0; level <= this.maxLevel; level++) {
+            table[level * STRIDE + MAX_HEALTH] = (int) Math.round(maxHealth.at(level));
+            table[level * STRIDE + ATTACK_DAMAGE] = (int) Math.round(attackDamage.at(level));
+            table[level * STRIDE + DEFENSE] = (int) Math.round(defense.at(level));
+            speedTable[level] = attackSpeed.at(level);
+        }
+    }
+
+    /**
+     * @return Registry id of this type, stable until the next reload
+     */
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxLevel() {
+        return maxLevel;
+    }
+
+    public int getMaxHealth(int level) {
+        return inTable(level) ? table[level * STRIDE + MAX_HEALTH] : (int) Math.round(maxHealth.at(level));
+    }
+
+    public int getAttackDamage(int level) {
+        return inTable(level) ? table[level * STRIDE + ATTACK_DAMAGE] : (int) Math.round(attackDamage.at(level));
+    }
+
+    public int getDefense(int level) {
+        return inTable(level) ? table[level * STRIDE + DEFENSE] : (int) Math.round(defense.at(level));
+    }
+
+    public double getAttackSpeed(int level) {
+        return inTable(level) ? speedTable[level] : attackSpeed.at(level);
+    }
+
+    private boolean inTable(int level) {
+        return level >= 0 && level <= maxLevel;
+    }
+
+    @Override
+    public String toString() {
+        return "UnitType{" + name + "#" + id + "}";
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.dominionrising.common.unit;
+
+import com.example.dominionrising.common.unit.UnitType.StatCurve;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Registry of unit types, filled from the unit_types datapack folder by the loaders
+ * Starts out with the built-in types so the registry is usable before the first datapack load
+ */
+public class UnitTypeRegistry {
+    private static UnitTypeRegistry instance;
+
+    public static final int DEFAULT_MAX_LEVEL = 100;
+
+    /**
+     * Stats used for units whose type is not (or no longer) registered
+     */
+    public static final UnitType FALLBACK = new UnitType(-1, "default", DEFAULT_MAX_LEVEL,
+            new StatCurve(20, 5), new StatCurve(4, 1), new StatCurve(2, 1), new StatCurve(1.0, 0));
+
+    // Immutable view of the current types; replaced as a whole on reload
+    private volatile Snapshot snapshot;
+
+    // UnitStore.TYPES symbol id -> resolved type, filled lazily
+    private volatile UnitType[] bySymbol = new UnitType[0];
+
+    /**
+     * Unit type definition as read from a datapack, before an id is assigned
+     */
+    public static final class Definition {
+        private final String name;
+        private final int maxLevel;
+        private final StatCurve maxHealth;
+        private final StatCurve attackDamage;
+        private final StatCurve defense;
+        private final StatCurve attackSpeed;
+
+        public Definition(String name, int maxLevel, StatCurve maxHealth, StatCurve attackDamage,
+                          StatCurve defense, StatCurve attackSpeed) {
+            this.name = name;
+            this.maxLevel = maxLevel;
+            this.maxHealth = maxHealth;
+            this.attackDamage = attackDamage;
+            this.defense = defense;
+            this.attackSpeed = attackSpeed;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private UnitTypeRegistry() {
+        reload(builtInDefinitions());
+    }
+
+    public static UnitTypeRegistry getInstance() {
+        if (instance == null) {
+            synchronized (UnitTypeRegistry.class) {
+                if (instance == null) {
+                    instance = new UnitTypeRegistry();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Replace all unit types; ids are assigned in name order
+     * An empty list restores the built-in types
+     * @param definitions The new type definitions
+     */
+    public synchronized void reload(List<Definition> definitions) {
+        if (definitions.isEmpty()) {
+            definitions = builtInDefinitions();
+        }
+
+        TreeMap<String, Definition> sorted = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Definition definition : definitions) {
+            sorted.put(definition.name, definition);
+        }
+
+        TreeMap<String, UnitType> byName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        UnitType[] byId = new UnitType[sorted.size()];
+        Set<String> names = new LinkedHashSet<>();
+        int id = 0;
+        for (Definition definition : sorted.values()) {
+            UnitType type = new UnitType(id, definition.name.toLowerCase(), definition.maxLevel,
+                    definition.maxHealth, definition.attackDamage, definition.defense, definition.attackSpeed);
+            byName.put(type.getName(), type);
+            byId[id++] = type;
+            names.add(type.getName());
+        }
+
+        this.snapshot = new Snapshot(Collections.unmodifiableMap(byName), byId, Collections.unmodifiableSet(names));
+        this.bySymbol = new UnitType[0];
+    }
+
+    /**
+     * Look up a type by name (case-insensitive, no allocation)
+     * @param name The type name
+     * @return The type, or null if not registered
+     */
+    public UnitType get(String name) {
+        return name != null ? snapshot.byName.get(name) : null;
+    }
+
+    /**
+     * Look up a type by registry id
+     * @param id The registry id
+     * @return The type, or null if the id is unknown
+     */
+    public UnitType get(int id) {
+        UnitType[] byId = snapshot.byId;
+        return id >= 0 && id < byId.length ? byId[id] : null;
+    }
+
+    /**
+     * Resolve the type of a stored unit from its interned type name id
+     * @param symbolId Id in UnitStore.TYPES
+     * @return The type, or FALLBACK if the name is not registered
+     */
+    public UnitType forSymbol(int symbolId) {
+        UnitType[] cache = bySymbol;
+        if (symbolId >= 0 && symbolId < cache.length && cache[symbolId] != null) {
+            return cache[symbolId];
+        }
+        return resolveSymbol(symbolId);
+    }
+
+    private synchronized UnitType resolveSymbol(int symbolId) {
+        UnitType type = get(UnitStore.TYPES.name(symbolId));
+        if (type == null) {
+            type = FALLBACK;
+        }
+        UnitType[] cache = bySymbol;
+        if (symbolId >= cache.length) {
+            cache = Arrays.copyOf(cache, Math.max(symbolId + 1, cache.length * 2));
+        } else {
+            cache = cache.clone();
+        }
+        cache[symbolId] = type;
+        bySymbol = cache;
+        return type;
+    }
+
+    /**
+     * Check if a type name is registered
+     * @param name The type name
+     * @return true if the type exists
+     */
+    public boolean isRegistered(String name) {
+        return get(name) != null;
+    }
+
+    /**
+     * @return Names of all registered types (lowercase, in id order)
+     */
+    public Set<String> getTypeNames() {
+        return snapshot.names;
+    }
+
+    /**
+     * @return Number of registered types
+     */
+    public int size() {
+        return snapshot.byId.length;
+    }
+
+    /**
+     * The types that ship with the mod, matching the bundled unit_types datapack files
+     */
+    public static List<Definition> builtInDefinitions() {
+        List<Definition> definitions = new ArrayList<>();
+        definitions.add(new Definition("soldier", DEFAULT_MAX_LEVEL,
+                new StatCurve(25, 5), new StatCurve(6, 2), new StatCurve(3, 1), new StatCurve(1.0, 0)));
+        definitions.add(new Definition("archer", DEFAULT_MAX_LEVEL,
+                new StatCurve(20, 4), new StatCurve(5, 2), new StatCurve(2, 1), new StatCurve(0.8, 0)));
+        definitions.add(new Definition("knight", DEFAULT_MAX_LEVEL,
+                new StatCurve(35, 6), new StatCurve(8, 2), new StatCurve(5, 2), new StatCurve(1.2, 0)));
+        definitions.add(new Definition("mage", DEFAULT_MAX_LEVEL,
+                new StatCurve(22, 4), new StatCurve(7, 3), new StatCurve(1, 1), new StatCurve(0.6, 0)));
+        return definitions;
+    }
+
+    private static final class Snapshot {
+        private final Map<String, UnitType> byName;
+        private final UnitType[] byId;
+        private final Set<String> names;
+
+        private Snapshot(Map<String, UnitType> byName, UnitType[] byId, Set<String> names) {
+            this.byName = byName;
+            this.byId = byId;
+            this.names = names;
+        }
+    }
+}
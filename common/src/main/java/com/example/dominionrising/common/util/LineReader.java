@@ -0,0 +1,207 @@
+package com.example.dominionrising.common.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+
+/**
+ * Reads text one line at a time without splitting the whole input up front
+ * The returned line is a reused view that is only valid until the next call to nextLine;
+ * call toString() on it to keep a line. Lines end at '\n'; a trailing '\r' is dropped.
+ */
+public final class LineReader {
+    private final CharSequence source;
+    private final Reader reader;
+    private final Slice slice;
+    private final StringBuilder buffer;
+    private final char[] chunk;
+    private int chunkPos;
+    private int chunkEnd;
+    private int position;
+    private boolean finished;
+
+    /**
+     * Read lines from text already in memory; lines are views into it, nothing is copied
+     */
+    public LineReader(CharSequence source) {
+        this.source = source;
+        this.reader = null;
+        this.slice = new Slice(source);
+        this.buffer = null;
+        this.chunk = null;
+    }
+
+    /**
+     * Read lines from a stream; only the current line is held in memory
+     */
+    public LineReader(Reader reader) {
+        this.source = null;
+        this.reader = reader;
+        this.slice = null;
+        this.buffer = new StringBuilder(128);
+        this.chunk = new char[8192];
+    }
+
+    /**
+     * Advance to the next line
+     * @return The line (reused view), or null at the end of the input
+     * @throws UncheckedIOException if reading from the stream fails
+     */
+    public CharSequence nextLine() {
+        if (finished) {
+            return null;
+        }
+        return source != null ? nextSlice() : nextBuffered();
+    }
+
+    private CharSequence nextSlice() {
+        int length = source.length();
+        if (position >= length) {
+            finished = true;
+            return null;
+        }
+        int start = position;
+        int end = start;
+        while (end < length && source.charAt(end) != '\n') {
+            end++;
+        }
+        position = end + 1;
+        if (end > start && source.charAt(end - 1) == '\r') {
+            end--;
+        }
+        slice.set(start, end);
+        return slice;
+    }
+
+    private CharSequence nextBuffered() {
+        buffer.setLength(0);
+        boolean any = false;
+        try {
+            while (true) {
+                if (chunkPos == chunkEnd) {
+                    chunkEnd = reader.read(chunk, 0, chunk.length);
+                    chunkPos = 0;
+                    if (chunkEnd <= 0) {
+                        chunkEnd = 0;
+                        finished = true;
+                        return any ? trimCarriageReturn() : null;
+                    }
+                }
+                any = true;
+                int start = chunkPos;
+                while (chunkPos < chunkEnd && chunk[chunkPos] != '\n') {
+                    chunkPos++;
+                }
+                buffer.append(chunk, start, chunkPos - start);
+                if (chunkPos < chunkEnd) {
+                    chunkPos++; // Skip '\n'
+                    return trimCarriageReturn();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private CharSequence trimCarriageReturn() {
+        int length = buffer.length();
+        if (length > 0 && buffer.charAt(length - 1) == '\r') {
+            buffer.setLength(length - 1);
+        }
+        return buffer;
+    }
+
+    // === LINE HELPERS ===
+
+    /**
+     * Compare a line with a string without allocating
+     */
+    public static boolean equals(CharSequence line, String text) {
+        return line.length() == text.length() && startsWith(line, text);
+    }
+
+    /**
+     * Check a line prefix without allocating
+     */
+    public static boolean startsWith(CharSequence line, String prefix) {
+        if (line.length() < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (line.charAt(i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check whether a line holds only whitespace
+     */
+    public static boolean isBlank(CharSequence line) {
+        for (int i = 0; i < line.length(); i++) {
+            if (!Character.isWhitespace(line.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Find a character in a line
+     * @return The index, or -1 if not found
+     */
+    public static int indexOf(CharSequence line, char c, int from) {
+        for (int i = from; i < line.length(); i++) {
+            if (line.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Copy part of a line into a string
+     */
+    public static String substring(CharSequence line, int start, int end) {
+        return line.subSequence(start, end).toString();
+    }
+
+    /**
+     * Window into the source text, moved along as lines are read
+     */
+    private static final class Slice implements CharSequence {
+        private final CharSequence source;
+        private int start;
+        private int end;
+
+        private Slice(CharSequence source) {
+            this.source = source;
+        }
+
+        private void set(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return source.charAt(start + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            return source.subSequence(start + from, start + to);
+        }
+
+        @Override
+        public String toString() {
+            return source.subSequence(start, end).toString();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.dominionrising.common;
+
+import java.util.Arrays;
+
+/**
+ * Shared timing scaffolding for the benchmarks of the common module
+ * Benchmark classes carry @Tag(Benchmark.TAG), which keeps them out of the unit tests; they run with
+ * gradle :common:benchmark. Results are printed, since timings depend on the machine running them.
+ */
+public final class Benchmark {
+    public static final String TAG = "benchmark";
+
+    private static final int WARMUP_RUNS = 3;
+    private static final int RUNS = 7;
+
+    /**
+     * One timed operation
+     */
+    public interface Operation<T> {
+        T run() throws Exception;
+    }
+
+    private Benchmark() {}
+
+    /**
+     * Run an operation a few times to warm up, then time it and print the median, min and max
+     * @param name Printed with the timings
+     * @return The result of the last run, for checking
+     */
+    public static <T> T measure(String name, Operation<T> operation) throws Exception {
+        T result = null;
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            result = operation.run();
+        }
+        long[] times = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            result = operation.run();
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        System.out.println(String.format("Benchmark: %-40s median %8.2f ms  (min %.2f, max %.2f)",
+                name, millis(times[RUNS / 2]), millis(times[0]), millis(times[RUNS - 1])));
+        return result;
+    }
+
+    /**
+     * Print a value measured alongside the timings, e.g. an encoded size
+     */
+    public static void report(String name, Object value) {
+        System.out.println(String.format("Benchmark: %-40s %s", name, value));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
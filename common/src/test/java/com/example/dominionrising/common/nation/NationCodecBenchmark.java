@@ -0,0 +1,40 @@
+package com.example.dominionrising.common.nation;
+
+import com.example.dominionrising.common.Benchmark;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares NationCodec with the V1 text format on 2000 nations of up to 40 members
+ */
+@Tag(Benchmark.TAG)
+class NationCodecBenchmark {
+
+    @Test
+    void binaryAgainstTextFormat() throws Exception {
+        NationDataSerializer.NationData data = NationCodecTest.generate(new Random(4), 2000, 40);
+        Benchmark.report("nations members", data.playerToNation.size());
+
+        byte[] binary = Benchmark.measure("nations binary encode",
+                () -> NationCodec.encode(data.nations, data.playerToNation));
+        NationDataSerializer.NationData fromBinary = Benchmark.measure("nations binary decode",
+                () -> NationCodec.decode(binary));
+        String text = Benchmark.measure("nations text encode",
+                () -> NationDataSerializer.serializeNations(data.nations, data.playerToNation));
+        NationDataSerializer.NationData fromText = Benchmark.measure("nations text decode",
+                () -> NationDataSerializer.deserializeNations(text));
+
+        int textBytes = text.getBytes(StandardCharsets.UTF_8).length;
+        Benchmark.report("nations binary bytes", binary.length);
+        Benchmark.report("nations text bytes", textBytes);
+
+        NationCodecTest.assertSameData(data, fromBinary, true);
+        NationCodecTest.assertSameData(data, fromText, false);
+        assertTrue(binary.length < textBytes, "Binary data should be smaller than text data");
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.dominionrising.common.nation;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Round-trip and compatibility tests for NationCodec against the V1 text format
+ * The timing comparison of both formats is NationCodecBenchmark.
+ */
+class NationCodecTest {
+
+    @Test
+    void binaryRoundTripKeepsEverythingTheTextFormatKeeps() throws IOException {
+        NationDataSerializer.NationData original = generate(new Random(1), 50, 40);
+
+        NationDataSerializer.NationData fromBinary = NationCodec.decode(NationCodec.encode(original.nations, original.playerToNation));
+        NationDataSerializer.NationData fromText = NationDataSerializer.deserializeNations(
+                NationDataSerializer.serializeNations(original.nations, original.playerToNation));
+
+        assertSameData(original, fromBinary, true);
+        assertSameData(original, fromText, false);
+        assertSameData(fromText, fromBinary, false);
+    }
+
+    @Test
+    void textDataMigratesToBinaryWithoutLoss() throws IOException {
+        NationDataSerializer.NationData original = generate(new Random(2), 20, 25);
+        String text = NationDataSerializer.serializeNations(original.nations, original.playerToNation);
+        assertFalse(NationCodec.isBinary(text.getBytes(StandardCharsets.UTF_8)));
+
+        NationDataSerializer.NationData fromText = NationDataSerializer.deserializeNations(text);
+        byte[] binary = NationCodec.encode(fromText.nations, fromText.playerToNation);
+        assertTrue(NationCodec.isBinary(binary));
+
+        assertSameData(fromText, NationCodec.decode(binary), true);
+    }
+
+    @Test
+    void decoderSkipsUnknownFieldsAndAppendedBytes() throws IOException {
+        UUID leader = new UUID(7, 7);
+        UUID member = new UUID(7, 8);
+
+        Writer nation = new Writer();
+        nation.field(1, new Writer().string("Carthage"));
+        nation.field(2, new Writer().uuid(leader));
+        // Unknown nation field, e.g. treasury history from a newer version
+        nation.field(42, new Writer().string("history").varInt(12345));
+        // Known field with bytes appended by a newer version
+        nation.field(3, new Writer().doubleValue(250.5).varInt(99).varInt(98));
+        nation.field(4, new Writer().varInt(2).uuid(leader).varInt(NationRole.LEADER.ordinal())
+                .uuid(member).varInt(NationRole.COMMANDER.ordinal()));
+        nation.varInt(0);
+
+        Writer data = new Writer().bytes(0, 'D', 'R', 'N').varInt(NationCodec.VERSION);
+        // Unknown top-level field, e.g. relations between nations
+        data.field(77, new Writer().string("relations").uuid(member));
+        data.field(2, nation);
+        data.field(3, new Writer().varInt(1).uuid(member).string("Carthage"));
+        data.varInt(0);
+
+        NationDataSerializer.NationData decoded = NationCodec.decode(data.toByteArray());
+
+        Nation carthage = decoded.nations.get("carthage");
+        assertNotNull(carthage);
+        assertEquals(leader, carthage.getLeader());
+        assertEquals(250.5, carthage.getBalance());
+        assertEquals(Arrays.asList(leader, member), carthage.getMembers());
+        assertEquals(NationRole.COMMANDER, carthage.getMemberRole(member));
+        assertEquals(NationRegistry.NONE, carthage.getId());
+        assertEquals("Carthage", decoded.playerToNation.get(member));
+    }
+
+    @Test
+    void rolesAreMatchedByNameAndUnknownRolesBecomeCitizens() throws IOException {
+        UUID leader = new UUID(9, 1);
+        UUID commander = new UUID(9, 2);
+        UUID emperor = new UUID(9, 3);
+
+        Writer nation = new Writer();
+        nation.field(1, new Writer().string("Byzantium"));
+        nation.field(2, new Writer().uuid(leader));
+        nation.field(4, new Writer().varInt(3).uuid(leader).varInt(2).uuid(commander).varInt(0).uuid(emperor).varInt(1));
+        nation.varInt(0);
+
+        Writer data = new Writer().bytes(0, 'D', 'R', 'N').varInt(NationCodec.VERSION);
+        // Role table in another order than NationRole, with a role that no longer exists
+        data.field(1, new Writer().varInt(3).string("COMMANDER").string("EMPEROR").string("LEADER"));
+        data.field(2, nation);
+        data.varInt(0);
+
+        Nation byzantium = NationCodec.decode(data.toByteArray()).nations.get("byzantium");
+
+        assertEquals(NationRole.LEADER, byzantium.getMemberRole(leader));
+        assertEquals(NationRole.COMMANDER, byzantium.getMemberRole(commander));
+        assertEquals(NationRole.CITIZEN, byzantium.getMemberRole(emperor));
+    }
+
+    @Test
+    void newerIncompatibleVersionIsRejected() {
+        byte[] data = new Writer().bytes(0, 'D', 'R', 'N').varInt(NationCodec.VERSION + 1).varInt(0).toByteArray();
+
+        assertThrows(IOException.class, () -> NationCodec.decode(data));
+    }
+
+    @Test
+    void truncatedDataIsRejected() {
+        NationDataSerializer.NationData original = generate(new Random(3), 5, 5);
+        byte[] binary = NationCodec.encode(original.nations, original.playerToNation);
+
+        assertThrows(IOException.class, () -> NationCodec.decode(Arrays.copyOf(binary, binary.length / 2)));
+    }
+
+    @Test
+    void corruptLengthsAreRejectedWithoutAllocating() {
+        // A field claiming almost 2 GB
+        byte[] hugeField = new Writer().bytes(0, 'D', 'R', 'N').varInt(NationCodec.VERSION)
+                .varInt(2).varInt(Integer.MAX_VALUE - 8).toByteArray();
+        // A string and a role table claiming more than their field holds
+        Writer nation = new Writer().varInt(1).varInt(5).varInt(Integer.MAX_VALUE - 8).bytes(1, 2, 3, 4).varInt(0);
+        byte[] hugeString = new Writer().bytes(0, 'D', 'R', 'N').varInt(NationCodec.VERSION)
+                .field(2, nation).varInt(0).toByteArray();
+        byte[] hugeCount = new Writer().bytes(0, 'D', 'R', 'N').varInt(NationCodec.VERSION)
+                .field(1, new Writer().varInt(Integer.MAX_VALUE - 8)).varInt(0).toByteArray();
+
+        assertThrows(IOException.class, () -> NationCodec.decode(hugeField));
+        assertThrows(IOException.class, () -> NationCodec.decode(hugeString));
+        assertThrows(IOException.class, () -> NationCodec.decode(hugeCount));
+    }
+
+    /**
+     * Generate nations with members in all roles, plus the matching player mappings
+     */
+    static NationDataSerializer.NationData generate(Random random, int nationCount, int maxMembers) {
+        Map<String, Nation> nations = new HashMap<>();
+        Map<UUID, String> playerToNation = new HashMap<>();
+        NationRole[] roles = NationRole.values();
+        for (int n = 0; n < nationCount; n++) {
+            String name = "Nation" + n;
+            UUID leader = new UUID(random.nextLong(), random.nextLong());
+            Map<UUID, NationRole> members = new LinkedHashMap<>();
+            int count = 1 + random.nextInt(maxMembers);
+            for (int m = 1; m < count; m++) {
+                NationRole role = roles[random.nextInt(roles.length)];
+                members.put(new UUID(random.nextLong(), random.nextLong()), role);
+            }
+            Nation nation = Nation.restore(name, leader, random.nextInt(100_000) / 4.0, members);
+            nation.assignId(n);
+            nations.put(name.toLowerCase(), nation);
+            for (UUID member : nation.getMembers()) {
+                playerToNation.put(member, name);
+            }
+        }
+        return new NationDataSerializer.NationData(nations, playerToNation);
+    }
+
+    static void assertSameData(NationDataSerializer.NationData expected, NationDataSerializer.NationData actual,
+                                       boolean compareIds) {
+        assertEquals(expected.nations.keySet(), actual.nations.keySet());
+        for (Map.Entry<String, Nation> entry : expected.nations.entrySet()) {
+            Nation want = entry.getValue();
+            Nation got = actual.nations.get(entry.getKey());
+            assertEquals(want.getName(), got.getName());
+            assertEquals(want.getLeader(), got.getLeader());
+            assertEquals(want.getBalance(), got.getBalance());
+            assertEquals(want.getMembers(), got.getMembers(), "Member order of " + want.getName());
+            assertEquals(want.getMemberRoles(), got.getMemberRoles(), "Roles of " + want.getName());
+            if (compareIds) {
+                assertEquals(want.getId(), got.getId(), "Id of " + want.getName());
+            }
+        }
+        assertEquals(expected.playerToNation, actual.playerToNation);
+    }
+
+    /**
+     * Writes raw NationCodec fields, to build data the encoder itself would not produce
+     */
+    private static final class Writer {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+
+        Writer bytes(int... values) {
+            for (int value : values) {
+                bytes.write(value);
+            }
+            return this;
+        }
+
+        Writer varInt(int value) {
+            while ((value & ~0x7F) != 0) {
+                bytes.write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes.write(value);
+            return this;
+        }
+
+        Writer string(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            varInt(utf8.length);
+            bytes.write(utf8, 0, utf8.length);
+            return this;
+        }
+
+        Writer uuid(UUID value) {
+            return longValue(value.getMostSignificantBits()).longValue(value.getLeastSignificantBits());
+        }
+
+        Writer longValue(long value) {
+            try {
+                out.writeLong(value);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return this;
+        }
+
+        Writer doubleValue(double value) {
+            return longValue(Double.doubleToLongBits(value));
+        }
+
+        Writer field(int tag, Writer payload) {
+            byte[] data = payload.toByteArray();
+            varInt(tag).varInt(data.length);
+            bytes.write(data, 0, data.length);
+            return this;
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.dominionrising.common.nation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stress tests for NationManager transactions and the immutable Nation state
+ * Writers create, join, leave, kick and disband from many threads while readers check that every
+ * nation state they see is consistent; afterwards the nation maps must agree with each other.
+ */
+class NationManagerConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int NATION_NAMES = 12;
+    private static final int PLAYERS = 200;
+    private static final int OPERATIONS_PER_THREAD = 20_000;
+
+    private final NationManager manager = NationManager.getInstance();
+
+    @BeforeEach
+    void reset() {
+        manager.setChangeListener(null);
+        manager.loadData(Collections.emptyMap(), Collections.emptyMap());
+    }
+
+    @Test
+    void concurrentMembershipChangesKeepNationMapsConsistent() throws Exception {
+        List<UUID> players = new ArrayList<>();
+        for (int i = 0; i < PLAYERS; i++) {
+            players.add(new UUID(0, i));
+        }
+
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger inconsistentReads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 2);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            long seed = t;
+            writers.add(executor.submit(() -> {
+                start.await();
+                Random random = new Random(seed);
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    UUID player = players.get(random.nextInt(PLAYERS));
+                    String nationName = "Nation" + random.nextInt(NATION_NAMES);
+                    switch (random.nextInt(6)) {
+                        case 0 -> manager.createNation(nationName, player);
+                        case 1, 2 -> manager.joinNation(nationName, player);
+                        case 3 -> manager.leaveNation(player);
+                        case 4 -> manager.kickPlayer(player, players.get(random.nextInt(PLAYERS)));
+                        default -> {
+                            // Disband rarely, so nations get the chance to grow
+                            if (random.nextInt(8) == 0) {
+                                manager.disbandNation(player);
+                            }
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        List<Future<?>> readers = new ArrayList<>();
+        for (int r = 0; r < 2; r++) {
+            readers.add(executor.submit(() -> {
+                start.await();
+                while (writing.get()) {
+                    for (Nation nation : manager.getAllNations().values()) {
+                        if (!isConsistent(nation.getState())) {
+                            inconsistentReads.incrementAndGet();
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(2, TimeUnit.MINUTES);
+        }
+        writing.set(false);
+        for (Future<?> reader : readers) {
+            reader.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertEquals(0, inconsistentReads.get(), "Readers saw a nation state with mismatched member collections");
+        assertMapsConsistent(players);
+    }
+
+    @Test
+    void concurrentCreatesWithOneNameCreateOneNation() throws Exception {
+        List<NationManager.NationResult> results = runConcurrently(i -> manager.createNation("Rome", new UUID(1, i)));
+
+        assertEquals(1, results.stream().filter(NationManager.NationResult::isSuccess).count());
+        assertEquals(1, manager.getNationCount());
+        Nation rome = manager.getNation("rome");
+        assertNotNull(rome);
+        assertEquals(1, rome.getMemberCount());
+        assertEquals(rome.getId(), manager.getPlayerNationId(rome.getLeader()));
+    }
+
+    @Test
+    void concurrentJoinsOfOnePlayerJoinOneNation() throws Exception {
+        for (int i = 0; i < THREADS; i++) {
+            assertTrue(manager.createNation("Nation" + i, new UUID(2, i)).isSuccess());
+        }
+        UUID player = new UUID(3, 0);
+
+        List<NationManager.NationResult> results = runConcurrently(i -> manager.joinNation("Nation" + i, player));
+
+        assertEquals(1, results.stream().filter(NationManager.NationResult::isSuccess).count());
+        Nation joined = manager.getPlayerNation(player);
+        assertNotNull(joined);
+        int memberships = 0;
+        for (Nation nation : manager.getAllNations().values()) {
+            if (nation.isMember(player)) {
+                memberships++;
+            }
+        }
+        assertEquals(1, memberships);
+    }
+
+    /**
+     * Run one operation per thread, all released at the same moment
+     */
+    private List<NationManager.NationResult> runConcurrently(IntFunction<NationManager.NationResult> operation)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<NationManager.NationResult>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            int index = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                return operation.apply(index);
+            }));
+        }
+        start.countDown();
+        List<NationManager.NationResult> results = new ArrayList<>();
+        for (Future<NationManager.NationResult> future : futures) {
+            results.add(future.get(1, TimeUnit.MINUTES));
+        }
+        executor.shutdown();
+        return results;
+    }
+
+    /**
+     * Check the collections inside one state agree with each other
+     */
+    private static boolean isConsistent(Nation.State state) {
+        int members = state.getMembers().size();
+        if (state.getMemberRoles().size() != members || !state.getMemberRoles().containsKey(state.getLeader())) {
+            return false;
+        }
+        int byRole = 0;
+        for (NationRole role : NationRole.values()) {
+            for (UUID member : state.getMembersWithRole(role)) {
+                if (state.getMemberRoles().get(member) != role) {
+                    return false;
+                }
+            }
+            byRole += state.countMembersByRole(role);
+        }
+        return byRole == members;
+    }
+
+    /**
+     * With all writers done, every member must map to their nation and every mapping must point at a member
+     */
+    private void assertMapsConsistent(List<UUID> players) {
+        Set<UUID> seen = new HashSet<>();
+        for (Nation nation : manager.getAllNations().values()) {
+            assertTrue(isConsistent(nation.getState()), "Inconsistent state in " + nation);
+            assertEquals(nation, manager.getNationById(nation.getId()));
+            for (UUID member : nation.getMembers()) {
+                assertTrue(seen.add(member), "Player " + member + " is a member of more than one nation");
+                assertEquals(nation.getId(), manager.getPlayerNationId(member));
+            }
+        }
+        Map<UUID, String> playerToNation = manager.getPlayerToNationMap();
+        assertEquals(seen, playerToNation.keySet());
+        for (UUID player : players) {
+            Nation nation = manager.getPlayerNation(player);
+            assertEquals(seen.contains(player), nation != null);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.dominionrising.common.nation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that NationRegistry never hands the id of a disbanded nation to a new one
+ */
+class NationRegistryTest {
+    private final NationManager manager = NationManager.getInstance();
+    private final NationRegistry registry = NationRegistry.getInstance();
+
+    @BeforeEach
+    void reset() {
+        manager.setChangeListener(null);
+        manager.loadData(Collections.emptyMap(), Collections.emptyMap());
+    }
+
+    @Test
+    void recreatedNationGetsAFreshId() {
+        UUID leader = new UUID(4, 1);
+        assertTrue(manager.createNation("Rome", leader).isSuccess());
+        int oldId = manager.getNation("rome").getId();
+        assertTrue(manager.disbandNation(leader).isSuccess());
+
+        assertTrue(manager.createNation("Rome", leader).isSuccess());
+        int newId = manager.getNation("rome").getId();
+
+        assertNotEquals(oldId, newId);
+        assertNull(registry.getNation(oldId));
+        assertEquals("Rome", registry.getName(oldId));
+    }
+
+    @Test
+    void savedIdsWithoutANationAreNotAdopted() {
+        // Units saved with the id of a nation disbanded before the save
+        assertEquals(7, registry.resolve(7, "Carthage"));
+
+        assertTrue(manager.createNation("Carthage", new UUID(4, 2)).isSuccess());
+
+        assertNotEquals(7, manager.getNation("carthage").getId());
+    }
+
+    @Test
+    void namesFromOlderDataAndReplayedIdsAreAdopted() {
+        // Units from data that only stored names reserve an id for a nation that is created later
+        int legacyId = registry.resolve("Sparta");
+        assertTrue(manager.createNation("Sparta", new UUID(4, 3)).isSuccess());
+        assertEquals(legacyId, manager.getNation("sparta").getId());
+
+        // Replaying a journal recreates nations under the ids they had, even ones disbanded before
+        UUID leader = new UUID(4, 4);
+        assertTrue(manager.createNation("Athens", leader).isSuccess());
+        int athensId = manager.getNation("athens").getId();
+        assertTrue(manager.disbandNation(leader).isSuccess());
+        registry.reserve(athensId, "Athens");
+        assertTrue(manager.createNation("Athens", leader).isSuccess());
+        assertEquals(athensId, manager.getNation("athens").getId());
+    }
+
+    @Test
+    void findDoesNotReserveIds() {
+        assertEquals(NationRegistry.NONE, registry.find("Babylon"));
+        assertEquals(NationRegistry.NONE, registry.find("Babylon"));
+
+        assertTrue(manager.createNation("Babylon", new UUID(4, 5)).isSuccess());
+        assertEquals(0, manager.getNation("babylon").getId());
+    }
+}
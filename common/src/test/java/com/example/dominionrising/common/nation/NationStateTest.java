@@ -0,0 +1,119 @@
+package com.example.dominionrising.common.nation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the persistent member structures of Nation.State against plain collections
+ */
+class NationStateTest {
+
+    @Test
+    void membershipChangesMatchPlainCollectionsAndKeepOlderStates() {
+        Random random = new Random(11);
+        UUID leader = new UUID(1, 0);
+        Nation nation = new Nation("Sparta", leader);
+        Map<UUID, NationRole> expected = new LinkedHashMap<>();
+        expected.put(leader, NationRole.LEADER);
+        NationRole[] roles = { NationRole.CITIZEN, NationRole.COMMANDER };
+
+        for (int i = 0; i < 5000; i++) {
+            UUID player = new UUID(1, 1 + random.nextInt(800));
+            Nation.State before = nation.getState();
+            List<UUID> membersBefore = new ArrayList<>(before.getMembers());
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    NationRole role = roles[random.nextInt(roles.length)];
+                    assertEquals(expected.putIfAbsent(player, role) == null, nation.addMember(player, role));
+                }
+                case 1 -> assertEquals(expected.remove(player) != null, nation.removeMember(player));
+                default -> {
+                    NationRole role = roles[random.nextInt(roles.length)];
+                    if (nation.setMemberRole(player, role)) {
+                        expected.put(player, role);
+                    }
+                }
+            }
+            // Older states are never changed by later ones
+            assertEquals(membersBefore, before.getMembers());
+            if (i % 250 == 0) {
+                assertSameMembers(expected, nation);
+            }
+        }
+        assertSameMembers(expected, nation);
+    }
+
+    @Test
+    void hashCollisionsAreKeptApart() {
+        PersistentMap<Key, Integer> map = PersistentMap.empty();
+        for (int i = 0; i < 200; i++) {
+            // Keys share hash codes in groups of four
+            map = map.plus(new Key(i, i / 4), i);
+        }
+        assertEquals(200, map.size());
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i, map.get(new Key(i, i / 4)));
+        }
+        PersistentMap<Key, Integer> before = map;
+        for (int i = 0; i < 200; i += 2) {
+            map = map.minus(new Key(i, i / 4));
+        }
+        assertSame(map, map.minus(new Key(0, 0)));
+        assertEquals(100, map.size());
+        assertEquals(200, before.size());
+        Set<Integer> values = new HashSet<>(map.asMap().values());
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i % 2 == 1, values.contains(i));
+            assertEquals(i % 2 == 1, map.containsKey(new Key(i, i / 4)));
+        }
+        assertNull(map.get(new Key(0, 0)));
+    }
+
+    private static void assertSameMembers(Map<UUID, NationRole> expected, Nation nation) {
+        assertEquals(new ArrayList<>(expected.keySet()), nation.getMembers());
+        assertEquals(new HashMap<>(expected), nation.getMemberRoles());
+        assertEquals(expected.size(), nation.getMemberCount());
+        for (NationRole role : NationRole.values()) {
+            Set<UUID> holders = new HashSet<>();
+            expected.forEach((member, memberRole) -> {
+                if (memberRole == role) {
+                    holders.add(member);
+                }
+            });
+            assertEquals(holders, nation.getMembersWithRole(role));
+            assertEquals(holders.size(), nation.countMembersByRole(role));
+        }
+        List<UUID> members = nation.getMembers();
+        for (int i = 0; i < members.size(); i++) {
+            assertTrue(nation.isMember(members.get(i)));
+        }
+        assertFalse(nation.isMember(new UUID(2, 0)));
+    }
+
+    private record Key(int value, int hash) {
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && key.value == value;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.dominionrising.common.persistence;
+
+import com.example.dominionrising.common.Benchmark;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+/**
+ * Startup time of a synthetic save with 100 nations and 100k units
+ */
+@Tag(Benchmark.TAG)
+class WorldPersistenceLoadBenchmark {
+    private final WorldPersistence persistence = WorldPersistence.getInstance();
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void reset() {
+        WorldPersistenceLoadTest.resetManagers();
+    }
+
+    @AfterEach
+    void closePersistence() {
+        persistence.close();
+    }
+
+    @Test
+    void loadSyntheticSave() throws Exception {
+        WorldPersistenceLoadTest.writeSave(directory, 100, 1000);
+
+        Benchmark.measure("load 100 nations, 100k units", () -> {
+            WorldPersistenceLoadTest.resetManagers();
+            persistence.open(directory);
+            persistence.load(() -> { throw new AssertionError("The snapshot should exist"); });
+            WorldPersistenceLoadTest.assertLoaded(100, 1000);
+            persistence.close();
+            return null;
+        });
+    }
+}
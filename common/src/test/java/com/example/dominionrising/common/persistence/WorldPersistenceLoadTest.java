@@ -0,0 +1,142 @@
+package com.example.dominionrising.common.persistence;
+
+import com.example.dominionrising.common.nation.Nation;
+import com.example.dominionrising.common.nation.NationManager;
+import com.example.dominionrising.common.unit.NationUnit;
+import com.example.dominionrising.common.unit.UnitManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Saves nations and units through WorldPersistence and checks loading restores them
+ * The startup time of a large save is measured by WorldPersistenceLoadBenchmark.
+ */
+class WorldPersistenceLoadTest {
+    private static final int NATIONS = 5;
+    private static final int UNITS_PER_NATION = 300;
+    private static final String[] TYPES = { "infantry", "archer", "cavalry" };
+
+    private final WorldPersistence persistence = WorldPersistence.getInstance();
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void reset() {
+        resetManagers();
+    }
+
+    @AfterEach
+    void closePersistence() {
+        persistence.close();
+    }
+
+    @Test
+    void loadRestoresSavedNationsAndUnits() {
+        writeSave(directory, NATIONS, UNITS_PER_NATION);
+
+        resetManagers();
+        persistence.open(directory);
+        assertTrue(persistence.load(() -> { throw new AssertionError("The snapshot should exist"); }));
+
+        assertLoaded(NATIONS, UNITS_PER_NATION);
+    }
+
+    @Test
+    void damagedUnitChunkOnlyLosesItsOwnUnitsAndIsNeverOverwritten() throws Exception {
+        writeSave(directory, NATIONS, UNITS_PER_NATION);
+        Path units = directory.resolve("units");
+        Path damaged = units.resolve("chunk-0.dat");
+        byte[] garbage = { 1, 2, 3, 4, 5 };
+        Files.write(damaged, garbage);
+
+        resetManagers();
+        persistence.open(directory);
+        assertTrue(persistence.load(() -> { throw new AssertionError("The snapshot should exist"); }));
+
+        // Chunk 1 still loads; chunk 0 is moved aside and its index stays out of use
+        int total = NATIONS * UNITS_PER_NATION;
+        assertEquals(total - UnitManager.UNITS_PER_SAVE_CHUNK, UnitManager.getInstance().getTotalUnitCount());
+        Path aside = units.resolve("chunk-0.dat.corrupt");
+        assertArrayEquals(garbage, Files.readAllBytes(aside));
+        assertFalse(Files.exists(damaged));
+
+        Nation nation = NationManager.getInstance().getNation("loadnation0");
+        for (int i = 0; i < UnitManager.UNITS_PER_SAVE_CHUNK; i++) {
+            UnitManager.getInstance().spawnUnit("infantry", nation);
+        }
+        UnitManager.getInstance().markAllUnitsDirty();
+        persistence.close();
+        assertFalse(Files.exists(damaged));
+        assertArrayEquals(garbage, Files.readAllBytes(aside));
+
+        // The next load skips the moved chunk and keeps its index out of use
+        resetManagers();
+        persistence.open(directory);
+        assertTrue(persistence.load(() -> { throw new AssertionError("The snapshot should exist"); }));
+        assertEquals(total, UnitManager.getInstance().getTotalUnitCount());
+        assertEquals(1, UnitManager.getInstance().getStatistics().get("retiredSaveChunks"));
+    }
+
+    /**
+     * Close persistence and empty both managers
+     */
+    static void resetManagers() {
+        WorldPersistence.getInstance().close();
+        NationManager.getInstance().setChangeListener(null);
+        UnitManager.getInstance().setMutationListener(null);
+        NationManager.getInstance().loadData(Collections.emptyMap(), Collections.emptyMap());
+        UnitManager.getInstance().clearAllUnits();
+    }
+
+    /**
+     * Create nations with units in the managers and save them all into a directory
+     */
+    static void writeSave(Path directory, int nations, int unitsPerNation) {
+        NationManager nationManager = NationManager.getInstance();
+        UnitManager unitManager = UnitManager.getInstance();
+        for (int n = 0; n < nations; n++) {
+            String name = "LoadNation" + n;
+            assertTrue(nationManager.createNation(name, new UUID(5, n)).isSuccess());
+            Nation nation = nationManager.getNation(name.toLowerCase());
+            for (int u = 0; u < unitsPerNation; u++) {
+                NationUnit unit = unitManager.spawnUnit(TYPES[u % TYPES.length], nation, 1 + u % 10);
+                if (u % 4 == 0) {
+                    unit.setDefendPosition(n * 100 + 0.5, 64, u + 0.5);
+                }
+            }
+        }
+        WorldPersistence persistence = WorldPersistence.getInstance();
+        persistence.open(directory);
+        persistence.markAllDirty();
+        persistence.close();
+    }
+
+    /**
+     * Check the managers hold what writeSave saved
+     */
+    static void assertLoaded(int nations, int unitsPerNation) {
+        NationManager nationManager = NationManager.getInstance();
+        UnitManager unitManager = UnitManager.getInstance();
+        assertEquals(nations, nationManager.getNationCount());
+        assertEquals(nations * unitsPerNation, unitManager.getTotalUnitCount());
+        for (int n = 0; n < nations; n++) {
+            String name = "LoadNation" + n;
+            assertNotNull(nationManager.getNation(name.toLowerCase()));
+            assertEquals(unitsPerNation, unitManager.listUnits(name).size());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.dominionrising.common.unit;
+
+import com.example.dominionrising.common.Benchmark;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares UnitCodec with the legacy pipe-delimited text format on 100k units
+ */
+@Tag(Benchmark.TAG)
+class UnitCodecBenchmark {
+    private static final int UNITS = 100_000;
+
+    @Test
+    void binaryAgainstTextFormat() throws Exception {
+        List<NationUnit> units = UnitCodecTest.generate(new Random(4), UNITS);
+        UnitStore rows = new UnitStore(units.size());
+        int[] handles = new int[units.size()];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = rows.copyFrom(units.get(i).getStore(), units.get(i).getHandle());
+        }
+
+        byte[] binary = Benchmark.measure("units binary encode", () -> UnitCodec.encode(rows, handles));
+        List<NationUnit> fromBinary = Benchmark.measure("units binary decode", () -> UnitCodec.decode(binary));
+        String text = Benchmark.measure("units text encode", () -> encodeText(units));
+        List<NationUnit> fromText = Benchmark.measure("units text decode", () -> decodeText(text));
+
+        int textBytes = text.getBytes(StandardCharsets.UTF_8).length;
+        Benchmark.report("units binary bytes", binary.length);
+        Benchmark.report("units text bytes", textBytes);
+
+        assertEquals(UNITS, fromBinary.size());
+        assertEquals(UNITS, fromText.size());
+        for (int i = 0; i < UNITS; i += 97) {
+            UnitCodecTest.assertSameUnit(units.get(i), fromBinary.get(i));
+            UnitCodecTest.assertSameUnit(units.get(i), fromText.get(i));
+        }
+        assertTrue(binary.length < textBytes, "Binary data should be smaller than text data");
+    }
+
+    /**
+     * Same as UnitManager.serializeUnits
+     */
+    private static String encodeText(List<NationUnit> units) {
+        StringBuilder sb = new StringBuilder();
+        for (NationUnit unit : units) {
+            sb.append(unit.serialize()).append("\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Same per-line parsing as UnitManager.loadUnits, on one thread
+     */
+    private static List<NationUnit> decodeText(String text) {
+        List<NationUnit> units = new ArrayList<>();
+        int lineStart = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                units.add(NationUnit.deserialize(text.subSequence(lineStart, i)));
+                lineStart = i + 1;
+            }
+        }
+        return units;
+    }
+}
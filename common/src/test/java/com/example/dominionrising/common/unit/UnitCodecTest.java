@@ -0,0 +1,109 @@
+package com.example.dominionrising.common.unit;
+
+import com.example.dominionrising.common.nation.NationRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Round-trip tests for UnitCodec against the legacy pipe-delimited text format
+ * The timing comparison of both formats is UnitCodecBenchmark.
+ */
+class UnitCodecTest {
+    private static final String[] TYPES = { "infantry", "archer", "cavalry", "siege" };
+    private static final int NATIONS = 64;
+
+    @Test
+    void binaryAndTextRoundTripsAgree() throws IOException {
+        List<NationUnit> original = generate(new Random(1), 2000);
+        UnitStore rows = new UnitStore(original.size());
+        int[] handles = new int[original.size()];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = rows.copyFrom(original.get(i).getStore(), original.get(i).getHandle());
+        }
+
+        List<NationUnit> fromBinary = UnitCodec.decode(UnitCodec.encode(rows, handles));
+        assertEquals(original.size(), fromBinary.size());
+        for (int i = 0; i < original.size(); i++) {
+            NationUnit fromText = NationUnit.deserialize(original.get(i).serialize());
+            assertNotNull(fromText);
+            assertSameUnit(original.get(i), fromBinary.get(i));
+            assertSameUnit(original.get(i), fromText);
+        }
+    }
+
+    @Test
+    void singleUnitRoundTrip() throws IOException {
+        NationUnit unit = generate(new Random(2), 1).get(0);
+
+        List<NationUnit> decoded = UnitCodec.decode(UnitCodec.encode(unit));
+
+        assertEquals(1, decoded.size());
+        assertSameUnit(unit, decoded.get(0));
+    }
+
+    @Test
+    void unknownVersionAndTruncatedDataAreRejected() {
+        List<NationUnit> units = generate(new Random(3), 10);
+        UnitStore rows = new UnitStore(units.size());
+        int[] handles = new int[units.size()];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = rows.copyFrom(units.get(i).getStore(), units.get(i).getHandle());
+        }
+        byte[] data = UnitCodec.encode(rows, handles);
+
+        assertThrows(IOException.class, () -> UnitCodec.decode(new byte[] { (byte) (UnitCodec.VERSION + 1), 0, 0, 0 }));
+        assertThrows(IOException.class, () -> UnitCodec.decode(Arrays.copyOf(data, data.length - 9)));
+    }
+
+    /**
+     * Generate alive units of several types and nations, in every state, some damaged, leveled or with a target
+     */
+    static List<NationUnit> generate(Random random, int count) {
+        NationRegistry registry = NationRegistry.getInstance();
+        int[] owners = new int[NATIONS];
+        for (int i = 0; i < NATIONS; i++) {
+            owners[i] = registry.resolve("CodecNation" + i);
+        }
+        List<NationUnit> units = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            NationUnit unit = new NationUnit(TYPES[random.nextInt(TYPES.length)], owners[random.nextInt(NATIONS)],
+                    1 + random.nextInt(20));
+            unit.addExperience(random.nextInt(50));
+            switch (random.nextInt(3)) {
+                case 0 -> unit.setAttackTarget(new UUID(random.nextLong(), random.nextLong()));
+                case 1 -> unit.setDefendPosition(random.nextInt(20_000) - 10_000 + 0.5, 64 + random.nextInt(64),
+                        random.nextDouble() * 20_000 - 10_000);
+                default -> unit.setIdle();
+            }
+            unit.takeDamage(random.nextInt(Math.max(1, unit.getMaxHealth() - 1)));
+            units.add(unit);
+        }
+        return units;
+    }
+
+    static void assertSameUnit(NationUnit expected, NationUnit actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.getOwnerNationId(), actual.getOwnerNationId());
+        assertEquals(expected.getLevel(), actual.getLevel());
+        assertEquals(expected.getHealth(), actual.getHealth());
+        assertEquals(expected.getExperience(), actual.getExperience());
+        assertEquals(expected.isAlive(), actual.isAlive());
+        assertEquals(expected.getCurrentState(), actual.getCurrentState());
+        assertEquals(expected.getAttackTarget(), actual.getAttackTarget());
+        assertEquals(expected.getDefendX(), actual.getDefendX());
+        assertEquals(expected.getDefendY(), actual.getDefendY());
+        assertEquals(expected.getDefendZ(), actual.getDefendZ());
+        assertEquals(expected.getStateChangeTime(), actual.getStateChangeTime());
+    }
+}
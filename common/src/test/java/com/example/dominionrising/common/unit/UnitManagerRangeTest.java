@@ -0,0 +1,64 @@
+package com.example.dominionrising.common.unit;
+
+import com.example.dominionrising.common.nation.Nation;
+import com.example.dominionrising.common.nation.NationManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that command range queries only return the commanding nation's own units
+ */
+class UnitManagerRangeTest {
+    private static final String OVERWORLD = "minecraft:overworld";
+
+    private final NationManager nationManager = NationManager.getInstance();
+    private final UnitManager unitManager = UnitManager.getInstance();
+
+    @BeforeEach
+    void reset() {
+        nationManager.setChangeListener(null);
+        unitManager.setMutationListener(null);
+        nationManager.loadData(Collections.emptyMap(), Collections.emptyMap());
+        unitManager.clearAllUnits();
+    }
+
+    @Test
+    void rangeQueryReturnsOnlyOwnAliveUnitsInRange() {
+        assertTrue(nationManager.createNation("Rome", new UUID(6, 1)).isSuccess());
+        assertTrue(nationManager.createNation("Carthage", new UUID(6, 2)).isSuccess());
+        Nation rome = nationManager.getNation("rome");
+        Nation carthage = nationManager.getNation("carthage");
+
+        Set<UUID> expected = new HashSet<>();
+        for (int i = 0; i < 20; i++) {
+            NationUnit own = unitManager.spawnUnit("infantry", rome);
+            NationUnit other = unitManager.spawnUnit("infantry", carthage);
+            unitManager.getSpatialIndex().update(own.getId(), OVERWORLD, i, 64, 0);
+            unitManager.getSpatialIndex().update(other.getId(), OVERWORLD, i, 64, 1);
+            if (i < 10) {
+                expected.add(own.getId());
+            }
+        }
+        NationUnit dead = unitManager.spawnUnit("infantry", rome);
+        unitManager.getSpatialIndex().update(dead.getId(), OVERWORLD, 0, 64, 0);
+        dead.kill();
+
+        List<NationUnit> inRange = unitManager.getUnitsInRange(rome, OVERWORLD, 0, 64, 0, 9.5);
+
+        Set<UUID> found = new HashSet<>();
+        for (NationUnit unit : inRange) {
+            found.add(unit.getId());
+        }
+        assertEquals(expected, found);
+        assertEquals(0, unitManager.getUnitsInRange(rome, "minecraft:the_nether", 0, 64, 0, 100).size());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.dominionrising.common.unit;
+
+import com.example.dominionrising.common.config.DominionConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that units outside the shared store keep their row in fields and move in and out unchanged
+ */
+class UnitRowTest {
+    private final UnitManager unitManager = UnitManager.getInstance();
+
+    @BeforeEach
+    void reset() {
+        unitManager.setMutationListener(null);
+        unitManager.clearAllUnits();
+    }
+
+    @Test
+    void unitsMoveBetweenTheirOwnRowAndTheSharedStoreUnchanged() throws IOException {
+        NationUnit unit = new NationUnit(UUID.randomUUID(), "archer", 3, 4, 7, 120,
+                NationUnit.UnitState.DEFENDING, new UUID(8, 9), 1.5, 64, -2.5);
+        assertInstanceOf(UnitRow.class, unit.getStore());
+        NationUnit copy = UnitCodec.decode(UnitCodec.encode(unit)).get(0);
+
+        assertTrue(unitManager.addExistingUnit(unit));
+        if (DominionConfig.COLUMNAR_UNIT_STORE) {
+            assertFalse(unit.getStore() instanceof UnitRow);
+        }
+        UnitCodecTest.assertSameUnit(copy, unit);
+
+        assertTrue(unitManager.removeUnit(unit.getId()));
+        assertInstanceOf(UnitRow.class, unit.getStore());
+        UnitCodecTest.assertSameUnit(copy, unit);
+    }
+
+    @Test
+    void rowsCopyBetweenColumnsAndFields() {
+        for (NationUnit unit : UnitCodecTest.generate(new Random(12), 50)) {
+            UnitRow row = new UnitRow();
+            row.copyFrom(unit.getStore(), unit.getHandle());
+            UnitStore columns = new UnitStore(1);
+            int handle = columns.copyFrom(row, 0);
+            UnitCodecTest.assertSameUnit(unit, new NationUnit(columns, handle));
+            assertEquals(unit.getStore().getVersion(unit.getHandle()), columns.getVersion(handle));
+        }
+        UnitRow row = new UnitRow();
+        assertEquals(0, row.getRowCount());
+        row.allocate(UUID.randomUUID());
+        assertEquals(1, row.getRowCount());
+        row.free(0);
+        assertEquals(0, row.getRowCount());
+    }
+}
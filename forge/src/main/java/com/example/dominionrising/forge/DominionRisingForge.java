@@ -1,11 +1,14 @@
 package com.example.dominionrising.forge;
 
 import com.example.dominionrising.DominionRising;
+import com.example.dominionrising.forge.capability.PlayerNationCapability;
 import com.example.dominionrising.forge.commands.NationCommands;
 import com.example.dominionrising.forge.commands.UnitCommands;
+import com.example.dominionrising.forge.data.UnitTypeReloadListener;
 import com.example.dominionrising.forge.registry.ModBlocks;
 import com.example.dominionrising.forge.registry.ModEntities;
 import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.AddReloadListenerEvent;
 import net.minecraftforge.event.RegisterCommandsEvent;
 import net.minecraftforge.eventbus.api.IEventBus;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
@@ -28,6 +31,7 @@ public class DominionRisingForge {
         ModEntities.register(modEventBus);
         ModBlocks.register(modEventBus);
         com.example.dominionrising.forge.registry.ModMenuTypes.register(modEventBus);
+        modEventBus.addListener(PlayerNationCapability::onRegisterCapabilities);
         
         // Register event listeners
         MinecraftForge.EVENT_BUS.register(this);
@@ -39,4 +43,9 @@ public class DominionRisingForge {
         UnitCommands.register(event.getDispatcher());
         com.example.dominionrising.forge.commands.ArmyStationCommands.register(event.getDispatcher());
     }
+    
+    @SubscribeEvent
+    public void onAddReloadListeners(AddReloadListenerEvent event) {
+        event.addListener(new UnitTypeReloadListener());
+    }
 }
@@ -0,0 +1,62 @@
+package com.example.dominionrising.forge.capability;
+
+import com.example.dominionrising.DominionRising;
+import com.example.dominionrising.common.nation.PlayerNationCache;
+import net.minecraft.core.Direction;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.capabilities.CapabilityManager;
+import net.minecraftforge.common.capabilities.CapabilityToken;
+import net.minecraftforge.common.capabilities.ICapabilityProvider;
+import net.minecraftforge.common.capabilities.RegisterCapabilitiesEvent;
+import net.minecraftforge.common.util.LazyOptional;
+import net.minecraftforge.event.AttachCapabilitiesEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import javax.annotation.Nullable;
+
+/**
+ * Attaches a PlayerNationCache to every server player in Forge
+ * The cache is derived from NationManager, so it is neither saved nor copied on respawn
+ */
+@Mod.EventBusSubscriber
+public class PlayerNationCapability implements ICapabilityProvider {
+    public static final Capability<PlayerNationCache> PLAYER_NATION = CapabilityManager.get(new CapabilityToken<>() {});
+
+    private static final ResourceLocation ID = ResourceLocation.fromNamespaceAndPath(DominionRising.MOD_ID, "player_nation");
+
+    private final PlayerNationCache cache = new PlayerNationCache();
+    private final LazyOptional<PlayerNationCache> optional = LazyOptional.of(() -> cache);
+
+    @Override
+    public <T> LazyOptional<T> getCapability(Capability<T> capability, @Nullable Direction side) {
+        return PLAYER_NATION.orEmpty(capability, optional);
+    }
+
+    /**
+     * Get the cache of a player
+     * @return The cache, or null if the player has none (client-side players)
+     */
+    @Nullable
+    public static PlayerNationCache get(Player player) {
+        return player.getCapability(PLAYER_NATION).orElse(null);
+    }
+
+    /**
+     * Register the capability type (mod event bus)
+     */
+    public static void onRegisterCapabilities(RegisterCapabilitiesEvent event) {
+        event.register(PlayerNationCache.class);
+    }
+
+    @SubscribeEvent
+    public static void onAttachCapabilities(AttachCapabilitiesEvent<Entity> event) {
+        if (event.getObject() instanceof ServerPlayer) {
+            event.addCapability(ID, new PlayerNationCapability());
+        }
+    }
+}
\ No newline at end of file
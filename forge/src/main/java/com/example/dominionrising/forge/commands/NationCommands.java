@@ -37,6 +37,9 @@ public class NationCommands {
                         .executes(NationCommands::leaveNation))
                 .then(Commands.literal("disband")
                         .executes(NationCommands::disbandNation))
+                .then(Commands.literal("rename")
+                        .then(Commands.argument("name", StringArgumentType.string())
+                                .executes(NationCommands::renameNation)))
                 .then(Commands.literal("info")
                         .executes(NationCommands::nationInfo))
                 .then(Commands.literal("members")
@@ -174,6 +177,27 @@ public class NationCommands {
         }
     }
     
+    private static int renameNation(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        
+        if (!(source.getEntity() instanceof ServerPlayer player)) {
+            source.sendFailure(Component.literal("This command can only be used by players"));
+            return 0;
+        }
+        
+        String nationName = StringArgumentType.getString(context, "name");
+        NationManager manager = NationManager.getInstance();
+        NationManager.NationResult result = manager.renameNation(player.getUUID(), nationName);
+        
+        if (result.isSuccess()) {
+            source.sendSuccess(() -> Component.literal(result.getMessage()), false);
+            return 1;
+        } else {
+            source.sendFailure(Component.literal(result.getMessage()));
+            return 0;
+        }
+    }
+    
     private static int showHelp(CommandContext<CommandSourceStack> context) {
         CommandSourceStack source = context.getSource();
         
@@ -394,8 +418,8 @@ public class NationCommands {
         
         // Show unit count
         UnitManager unitManager = UnitManager.getInstance();
-        List<NationUnit> units = unitManager.listUnits(playerNation);
-        source.sendSuccess(() -> Component.literal("§7Units: §f" + units.size()), false);
+        int unitCount = unitManager.getUnitCount(playerNation);
+        source.sendSuccess(() -> Component.literal("§7Units: §f" + unitCount), false);
         
         return 1;
     }
@@ -1,9 +1,13 @@
 package com.example.dominionrising.forge.commands;
 
+import com.example.dominionrising.common.config.DominionConfig;
 import com.example.dominionrising.common.nation.Nation;
 import com.example.dominionrising.common.nation.NationManager;
 import com.example.dominionrising.common.unit.NationUnit;
 import com.example.dominionrising.common.unit.UnitManager;
+import com.example.dominionrising.common.unit.UnitReconciler;
+import com.example.dominionrising.forge.entity.UnitEntity;
+import com.example.dominionrising.forge.entity.UnitEntityRegistry;
 import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.arguments.DoubleArgumentType;
 import com.mojang.brigadier.context.CommandContext;
@@ -38,6 +42,12 @@ public class UnitCommands {
                         .executes(UnitCommands::showUnitStatus))
                 .then(Commands.literal("idle")
                         .executes(UnitCommands::setUnitsIdle))
+                .then(Commands.literal("reconcile")
+                        .requires(source -> source.hasPermission(2))
+                        .executes(UnitCommands::showReconcileStatus))
+                .then(Commands.literal("hibernation")
+                        .requires(source -> source.hasPermission(2))
+                        .executes(UnitCommands::showHibernationStatus))
                 .then(Commands.literal("help")
                         .executes(UnitCommands::showUnitHelp)));
     }
@@ -63,7 +73,8 @@ public class UnitCommands {
 
             UnitManager unitManager = UnitManager.getInstance();
             List<NationUnit> nearbyUnits = unitManager.getUnitsInRange(
-                playerNation.getName(), 
+                playerNation, 
+                player.level().dimension().location().toString(),
                 player.getX(), player.getY(), player.getZ(), 
                 32.0 // 32 block command range
             );
@@ -122,7 +133,8 @@ public class UnitCommands {
 
         UnitManager unitManager = UnitManager.getInstance();
         List<NationUnit> nearbyUnits = unitManager.getUnitsInRange(
-            playerNation.getName(), 
+            playerNation, 
+            player.level().dimension().location().toString(),
             player.getX(), player.getY(), player.getZ(), 
             32.0 // 32 block command range
         );
@@ -172,7 +184,8 @@ public class UnitCommands {
 
         UnitManager unitManager = UnitManager.getInstance();
         List<NationUnit> nearbyUnits = unitManager.getUnitsInRange(
-            playerNation.getName(), 
+            playerNation, 
+            player.level().dimension().location().toString(),
             player.getX(), player.getY(), player.getZ(), 
             32.0 // 32 block command range
         );
@@ -185,23 +198,9 @@ public class UnitCommands {
         // Command each unit to defend its current position
         int commandedUnits = 0;
         
-        // Find actual unit entities in the world to get their positions
+        // Look up each unit's loaded entity to get its position
         for (NationUnit unit : nearbyUnits) {
-            // Look for the unit entity in the world within reasonable range
-            Entity unitEntity = null;
-            List<com.example.dominionrising.forge.entity.UnitEntity> unitEntities = 
-                player.level().getEntitiesOfClass(
-                    com.example.dominionrising.forge.entity.UnitEntity.class,
-                    player.getBoundingBox().inflate(50.0D)
-                );
-            
-            for (com.example.dominionrising.forge.entity.UnitEntity ue : unitEntities) {
-                if (ue.getUnitId() != null && ue.getUnitId().equals(unit.getId())) {
-                    unitEntity = ue;
-                    break;
-                }
-            }
-            
+            UnitEntity unitEntity = UnitEntityRegistry.get(unit.getId());
             if (unitEntity != null) {
                 Vec3 pos = unitEntity.position();
                 if (unitManager.commandDefend(unit.getId(), pos.x, pos.y, pos.z)) {
@@ -273,7 +272,8 @@ public class UnitCommands {
 
         UnitManager unitManager = UnitManager.getInstance();
         List<NationUnit> nearbyUnits = unitManager.getUnitsInRange(
-            playerNation.getName(), 
+            playerNation, 
+            player.level().dimension().location().toString(),
             player.getX(), player.getY(), player.getZ(), 
             32.0 // 32 block command range
         );
@@ -297,6 +297,38 @@ public class UnitCommands {
         return 1;
     }
 
+    private static int showReconcileStatus(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        UnitReconciler reconciler = UnitManager.getInstance().getReconciler();
+
+        source.sendSuccess(() -> Component.literal("=== Unit Reconciliation ==="), false);
+        source.sendSuccess(() -> Component.literal(
+            "Passes completed: " + reconciler.getPassesCompleted() +
+            " (last pass checked " + reconciler.getRecordsChecked() + " records, " +
+            reconciler.getEntitiesChecked() + " entities)"
+        ), false);
+        source.sendSuccess(() -> Component.literal(
+            "Records without a loaded entity: " + reconciler.getRecordsWithoutEntity()
+        ), false);
+        source.sendSuccess(() -> Component.literal(
+            "Entities without a record: " + reconciler.getEntitiesWithoutRecord()
+        ), false);
+        return 1;
+    }
+
+    private static int showHibernationStatus(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        int loaded = UnitEntityRegistry.size();
+        int hibernating = UnitEntityRegistry.countHibernating();
+
+        source.sendSuccess(() -> Component.literal("=== Unit Hibernation ==="), false);
+        source.sendSuccess(() -> Component.literal(
+            "Hibernating entities: " + hibernating + " of " + loaded + " loaded" +
+            (DominionConfig.HIBERNATE_OFFLINE_NATIONS ? "" : " (hibernation disabled)")
+        ), false);
+        return 1;
+    }
+
     private static int showUnitHelp(CommandContext<CommandSourceStack> context) {
         CommandSourceStack source = context.getSource();
         
@@ -306,6 +338,8 @@ public class UnitCommands {
                          "§e/unit defend <x> <y> <z>§f - Command nearby units to defend specific position\n" +
                          "§e/unit status§f - Show status of all your nation's units\n" +
                          "§e/unit idle§f - Set nearby units back to idle/follow mode\n" +
+                         "§e/unit reconcile§f - (Operators) Show unit record/entity drift\n" +
+                         "§e/unit hibernation§f - (Operators) Show how many unit entities are hibernating\n" +
                          "§e/unit help§f - Show this help message\n" +
                          "§7Command range: 32 blocks\n" +
                          "§7Units will attack hostile mobs and enemy players when defending";
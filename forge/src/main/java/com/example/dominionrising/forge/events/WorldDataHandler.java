@@ -1,9 +1,12 @@
 package com.example.dominionrising.forge.events;
 
+import com.example.dominionrising.common.persistence.WorldPersistence;
 import com.example.dominionrising.forge.data.NationSavedData;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.storage.LevelResource;
+import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.event.level.LevelEvent;
-import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 
@@ -13,8 +16,6 @@ import net.minecraftforge.fml.common.Mod;
 @Mod.EventBusSubscriber
 public class WorldDataHandler {
     
-    private static NationSavedData savedData;
-    
     /**
      * Load nation data when world loads
      */
@@ -23,35 +24,64 @@ public class WorldDataHandler {
         if (event.getLevel() instanceof ServerLevel serverLevel) {
             // Only process overworld to avoid multiple loads
             if (serverLevel.dimension() == ServerLevel.OVERWORLD) {
-                savedData = NationSavedData.get(serverLevel);
-                savedData.loadIntoManager();
-                System.out.println("Dominion Rising: Loaded nation data");
+                WorldPersistence persistence = WorldPersistence.getInstance();
+                persistence.open(serverLevel.getServer().getWorldPath(LevelResource.ROOT)
+                        .resolve(WorldPersistence.DIRECTORY_NAME).normalize());
+                // Worlds without a snapshot yet still have their data in SavedData; it is written out on the next save
+                if (persistence.load(() -> NationSavedData.get(serverLevel).loadIntoManager())) {
+                    System.out.println("Dominion Rising: Loaded nation data");
+                } else {
+                    System.out.println("Dominion Rising: Loaded nation data from world saved data");
+                }
+            }
+        }
+    }
+    
+    /**
+     * Snapshot changed nation and unit records on every level save (vanilla autosave and /save-all)
+     * The snapshot is written to disk on a worker thread
+     */
+    @SubscribeEvent
+    public static void onWorldSave(LevelEvent.Save event) {
+        if (event.getLevel() instanceof ServerLevel serverLevel) {
+            // Only process overworld, which owns the nation data
+            if (serverLevel.dimension() == ServerLevel.OVERWORLD) {
+                WorldPersistence.getInstance().save();
             }
         }
     }
     
     /**
-     * Save nation data when world unloads
+     * Group-commit the mutation journal once per tick
+     */
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent.Post event) {
+        WorldPersistence.getInstance().tick();
+    }
+    
+    /**
+     * Flush nation data when world unloads without a server stop
      */
     @SubscribeEvent
     public static void onWorldUnload(LevelEvent.Unload event) {
         if (event.getLevel() instanceof ServerLevel serverLevel) {
             // Only process overworld to avoid multiple saves
-            if (serverLevel.dimension() == ServerLevel.OVERWORLD && savedData != null) {
-                savedData.saveFromManager();
-                System.out.println("Dominion Rising: Saved nation data");
+            if (serverLevel.dimension() == ServerLevel.OVERWORLD) {
+                WorldPersistence.getInstance().close();
             }
         }
     }
     
     /**
-     * Save nation data when server stops
+     * Take the final snapshot when the server starts stopping and wait until every queued save is on disk
      */
     @SubscribeEvent
-    public static void onServerStopped(ServerStoppedEvent event) {
-        if (savedData != null) {
-            savedData.saveFromManager();
-            System.out.println("Dominion Rising: Saved nation data on server stop");
+    public static void onServerStopping(ServerStoppingEvent event) {
+        WorldPersistence.SaveResult result = WorldPersistence.getInstance().close();
+        if (result != null) {
+            System.out.println("Dominion Rising: Saved nation data on server stop ("
+                    + (result.nations + result.unitRecords) + " records, "
+                    + String.format("%.2f", result.getPauseMillis()) + " ms on the server thread)");
         }
     }
-}
\ No newline at end of file
+}
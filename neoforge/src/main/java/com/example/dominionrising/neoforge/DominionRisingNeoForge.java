@@ -4,6 +4,8 @@ import com.example.dominionrising.DominionRising;
 import com.example.dominionrising.neoforge.commands.ArmyStationCommands;
 import com.example.dominionrising.neoforge.commands.NationCommands;
 import com.example.dominionrising.neoforge.commands.UnitCommands;
+import com.example.dominionrising.neoforge.data.UnitTypeReloadListener;
+import com.example.dominionrising.neoforge.registry.ModAttachments;
 import com.example.dominionrising.neoforge.registry.ModBlocks;
 import com.example.dominionrising.neoforge.registry.ModEntities;
 import net.neoforged.bus.api.IEventBus;
@@ -11,6 +13,7 @@ import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.ModContainer;
 import net.neoforged.fml.common.Mod;
 import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.event.AddReloadListenerEvent;
 import net.neoforged.neoforge.event.RegisterCommandsEvent;
 
 /**
@@ -27,6 +30,7 @@ public class DominionRisingNeoForge {
         ModEntities.register(modEventBus);
         ModBlocks.register(modEventBus);
         com.example.dominionrising.neoforge.registry.ModMenuTypes.register(modEventBus);
+        ModAttachments.register(modEventBus);
         
         // Register event listeners
         NeoForge.EVENT_BUS.register(this);
@@ -38,4 +42,9 @@ public class DominionRisingNeoForge {
         UnitCommands.register(event.getDispatcher());
         ArmyStationCommands.register(event.getDispatcher());
     }
+    
+    @SubscribeEvent
+    public void onAddReloadListeners(AddReloadListenerEvent event) {
+        event.addListener(new UnitTypeReloadListener());
+    }
 }
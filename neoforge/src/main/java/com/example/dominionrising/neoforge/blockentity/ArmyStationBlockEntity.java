@@ -4,12 +4,14 @@ import com.example.dominionrising.common.armystation.ArmyStationData;
 import com.example.dominionrising.common.armystation.ArmyStationManager;
 import com.example.dominionrising.common.nation.Nation;
 import com.example.dominionrising.common.nation.NationManager;
+import com.example.dominionrising.common.nation.NationRegistry;
 import com.example.dominionrising.common.unit.NationUnit;
 import com.example.dominionrising.neoforge.registry.ModBlocks;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
 import net.minecraft.network.chat.Component;
 
 import net.minecraft.network.protocol.Packet;
@@ -33,6 +35,8 @@ import java.util.UUID;
 public class ArmyStationBlockEntity extends BlockEntity implements MenuProvider {
     private ArmyStationData data;
     private List<NationUnit> cachedUnits = List.of();
+    // Loaded from a tag that stored the nation name; saved again with the id once loaded
+    private boolean legacyNationTag;
     
     public ArmyStationBlockEntity(BlockPos pos, BlockState blockState) {
         super(ModBlocks.ARMY_STATION_BLOCK_ENTITY.get(), pos, blockState);
@@ -44,7 +48,7 @@ public class ArmyStationBlockEntity extends BlockEntity implements MenuProvider
         Nation playerNation = nationManager.getPlayerNation(playerId);
         
         if (playerNation != null) {
-            data.setNationId(playerNation.getName());
+            data.setNationId(playerNation.getId());
             // Cache the units for this nation
             this.cachedUnits = ArmyStationManager.getPlayerNationUnits(playerId);
             
@@ -64,7 +68,7 @@ public class ArmyStationBlockEntity extends BlockEntity implements MenuProvider
         }
         
         NationManager nationManager = NationManager.getInstance();
-        Nation nation = nationManager.getNation(data.getNationId());
+        Nation nation = nationManager.getNationById(data.getNationId());
         
         if (nation != null) {
             return ArmyStationManager.getPlayerNationUnits(nation.getLeader());
@@ -76,8 +80,14 @@ public class ArmyStationBlockEntity extends BlockEntity implements MenuProvider
     @Override
     public void loadAdditional(CompoundTag tag, HolderLookup.Provider provider) {
         super.loadAdditional(tag, provider);
-        String nationId = tag.getString("nationId");
-        data.setNationId(nationId);
+        if (tag.contains("nationId", Tag.TAG_INT)) {
+            data.setNationId(tag.getInt("nationId"));
+        } else {
+            // Older stations stored the nation name; look it up the way other name-only data is
+            String nationName = tag.getString("nationId");
+            data.setNationId(nationName.isEmpty() ? NationRegistry.NONE : NationRegistry.getInstance().resolve(nationName));
+            legacyNationTag = !nationName.isEmpty();
+        }
         
         // Load cached units from NBT
         this.cachedUnits = new java.util.ArrayList<>();
@@ -90,21 +100,9 @@ public class ArmyStationBlockEntity extends BlockEntity implements MenuProvider
                 int health = unitTag.getInt("health");
                 UUID id = UUID.fromString(unitTag.getString("id"));
                 
-                // Create a simple NationUnit for client-side display
-                NationUnit unit = new NationUnit(type, data.getNationId(), level);
-                // Override the ID and health from saved data
-                java.lang.reflect.Field idField;
-                try {
-                    idField = NationUnit.class.getDeclaredField("id");
-                    idField.setAccessible(true);
-                    idField.set(unit, id);
-                    
-                    java.lang.reflect.Field healthField = NationUnit.class.getDeclaredField("health");
-                    healthField.setAccessible(true);
-                    healthField.set(unit, health);
-                } catch (Exception e) {
-                    // If reflection fails, just use what we have
-                }
+                // Create a simple NationUnit for client-side display with the saved ID and health
+                NationUnit unit = new NationUnit(id, type, data.getNationId(), level, health, 0,
+                                                 NationUnit.UnitState.IDLE, null, 0, 0, 0);
                 
                 this.cachedUnits.add(unit);
             }
@@ -114,7 +112,7 @@ public class ArmyStationBlockEntity extends BlockEntity implements MenuProvider
     @Override
     protected void saveAdditional(CompoundTag tag, HolderLookup.Provider provider) {
         super.saveAdditional(tag, provider);
-        tag.putString("nationId", data.getNationId());
+        tag.putInt("nationId", data.getNationId());
         
         // Save cached units for client sync
         ListTag unitsList = new ListTag();
@@ -129,6 +127,16 @@ public class ArmyStationBlockEntity extends BlockEntity implements MenuProvider
         tag.put("cachedUnits", unitsList);
     }
     
+    @Override
+    public void onLoad() {
+        super.onLoad();
+        if (legacyNationTag && level != null && !level.isClientSide) {
+            // Make sure the id replaces the old name on the next save, before the nation can be renamed
+            legacyNationTag = false;
+            setChanged();
+        }
+    }
+    
     @Override
     public Component getDisplayName() {
         return Component.translatable("container.armystation");
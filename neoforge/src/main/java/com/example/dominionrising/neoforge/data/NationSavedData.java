@@ -1,35 +1,52 @@
 package com.example.dominionrising.neoforge.data;
 
+import com.example.dominionrising.common.nation.Nation;
 import com.example.dominionrising.common.nation.NationDataSerializer;
 import com.example.dominionrising.common.nation.NationManager;
+import com.example.dominionrising.common.nation.NationRole;
 import com.example.dominionrising.common.unit.UnitManager;
 import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.ByteArrayTag;
 import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.saveddata.SavedData;
 import net.minecraft.world.level.storage.DimensionDataStorage;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 /**
- * NeoForge implementation for persisting nation and unit data using SavedData
+ * NeoForge reader for nation and unit data saved by older versions through SavedData
+ * Nation and unit data now live in the mod's own files (see WorldPersistence); this data is only read
+ * once, on the first load of a world that has no such files yet, and is never written again.
  */
 public class NationSavedData extends SavedData {
     private static final String DATA_NAME = "dominion_rising_nations";
     
-    private String nationData = "";
-    private String unitData = "";
+    private static final int FORMAT_VERSION = 2;
+    
+    // Keys written by saves before FORMAT_VERSION 2
+    private static final String LEGACY_NATION_DATA = "nationData";
+    private static final String LEGACY_UNIT_DATA = "unitData";
+    private static final String LEGACY_UNIT_BLOB = "unitBlob";
+    
+    private ListTag nations = new ListTag();
+    private ListTag playerMappings = new ListTag();
+    private ListTag unitChunks = new ListTag();
+    
+    private String legacyNationData = "";
+    private String legacyUnitData = "";
     
     public NationSavedData() {
         super();
     }
     
-    public NationSavedData(String nationData, String unitData) {
-        this();
-        this.nationData = nationData;
-        this.unitData = unitData;
-    }
-    
     /**
      * Get or create the nation saved data for a world
      */
@@ -49,19 +66,32 @@ public class NationSavedData extends SavedData {
      * Load nation and unit data from NBT
      */
     public static NationSavedData load(CompoundTag nbt, HolderLookup.Provider provider) {
-        String nationData = nbt.getString("nationData");
-        String unitData = nbt.getString("unitData");
-        return new NationSavedData(nationData, unitData);
+        NationSavedData data = new NationSavedData();
+        data.nations = nbt.getList("nations", Tag.TAG_COMPOUND);
+        data.playerMappings = nbt.getList("playerMappings", Tag.TAG_COMPOUND);
+        data.unitChunks = nbt.getList("unitChunks", Tag.TAG_BYTE_ARRAY);
+        
+        if (nbt.getInt("formatVersion") < FORMAT_VERSION) {
+            data.legacyNationData = nbt.getString(LEGACY_NATION_DATA);
+            data.legacyUnitData = nbt.getString(LEGACY_UNIT_DATA);
+            byte[] unitBlob = nbt.getByteArray(LEGACY_UNIT_BLOB);
+            if (unitBlob.length > 0) {
+                data.unitChunks.add(new ByteArrayTag(unitBlob));
+            }
+        }
+        return data;
     }
     
     /**
-     * Save nation and unit data to NBT
+     * Write the data back unchanged; nothing marks it dirty any more
      */
     @Override
     @Nonnull
     public CompoundTag save(CompoundTag nbt, HolderLookup.Provider provider) {
-        nbt.putString("nationData", nationData);
-        nbt.putString("unitData", unitData);
+        nbt.putInt("formatVersion", FORMAT_VERSION);
+        nbt.put("nations", nations);
+        nbt.put("playerMappings", playerMappings);
+        nbt.put("unitChunks", unitChunks);
         return nbt;
     }
     
@@ -70,49 +100,67 @@ public class NationSavedData extends SavedData {
      */
     public void loadIntoManager() {
         // Load nation data
-        if (!nationData.isEmpty()) {
-            try {
-                NationDataSerializer.NationData data = NationDataSerializer.deserializeNations(nationData);
-                NationManager manager = NationManager.getInstance();
+        try {
+            NationManager manager = NationManager.getInstance();
+            if (!legacyNationData.isEmpty()) {
+                NationDataSerializer.NationData data = NationDataSerializer.deserializeNations(legacyNationData);
                 manager.loadData(data.nations, data.playerToNation);
-            } catch (Exception e) {
-                System.err.println("Failed to load nation data: " + e.getMessage());
-                e.printStackTrace();
+            } else if (!nations.isEmpty()) {
+                manager.loadData(readNations(nations), readPlayerMappings(playerMappings));
             }
+        } catch (Exception e) {
+            System.err.println("Failed to load nation data: " + e.getMessage());
+            e.printStackTrace();
         }
         
         // Load unit data
-        if (!unitData.isEmpty()) {
-            try {
-                UnitManager unitManager = UnitManager.getInstance();
-                unitManager.loadUnits(unitData);
-            } catch (Exception e) {
-                System.err.println("Failed to load unit data: " + e.getMessage());
-                e.printStackTrace();
+        try {
+            UnitManager unitManager = UnitManager.getInstance();
+            if (!legacyUnitData.isEmpty() && unitChunks.isEmpty()) {
+                unitManager.loadUnits(legacyUnitData);
+            } else if (!unitChunks.isEmpty()) {
+                List<byte[]> chunks = new ArrayList<>(unitChunks.size());
+                for (Tag tag : unitChunks) {
+                    chunks.add(((ByteArrayTag) tag).getAsByteArray());
+                }
+                unitManager.loadUnitChunks(chunks);
             }
+        } catch (Exception e) {
+            System.err.println("Failed to load unit data: " + e.getMessage());
+            e.printStackTrace();
         }
     }
     
-    /**
-     * Save nation and unit data from the managers
-     */
-    public void saveFromManager() {
-        try {
-            // Save nation data
-            NationManager manager = NationManager.getInstance();
-            this.nationData = NationDataSerializer.serializeNations(
-                manager.getAllNations(),
-                manager.getPlayerToNationMap()
-            );
-            
-            // Save unit data
-            UnitManager unitManager = UnitManager.getInstance();
-            this.unitData = unitManager.serializeUnits();
+    private static Map<String, Nation> readNations(ListTag list) {
+        Map<String, Nation> nations = new HashMap<>();
+        for (int i = 0; i < list.size(); i++) {
+            CompoundTag tag = list.getCompound(i);
+            if (!tag.hasUUID("leader")) {
+                continue;
+            }
+            UUID leader = tag.getUUID("leader");
+            Nation nation = new Nation(tag.getString("name"), leader);
+            nation.setBalance(tag.getDouble("balance"));
             
-            setDirty();
-        } catch (Exception e) {
-            System.err.println("Failed to save nation and unit data: " + e.getMessage());
-            e.printStackTrace();
+            ListTag members = tag.getList("members", Tag.TAG_COMPOUND);
+            for (int j = 0; j < members.size(); j++) {
+                CompoundTag memberTag = members.getCompound(j);
+                UUID member = memberTag.getUUID("id");
+                if (!member.equals(leader)) {
+                    nation.addMember(member, NationRole.valueOf(memberTag.getString("role")));
+                }
+            }
+            nations.put(nation.getName().toLowerCase(), nation);
+        }
+        return nations;
+    }
+    
+    private static Map<UUID, String> readPlayerMappings(ListTag list) {
+        Map<UUID, String> playerToNation = new HashMap<>();
+        for (int i = 0; i < list.size(); i++) {
+            CompoundTag tag = list.getCompound(i);
+            playerToNation.put(tag.getUUID("player"), tag.getString("nation"));
         }
+        return playerToNation;
     }
-}
\ No newline at end of file
+}
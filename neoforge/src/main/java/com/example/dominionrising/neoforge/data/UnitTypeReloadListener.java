@@ -0,0 +1,56 @@
+package com.example.dominionrising.neoforge.data;
+
+import com.example.dominionrising.common.unit.UnitType.StatCurve;
+import com.example.dominionrising.common.unit.UnitTypeRegistry;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.server.packs.resources.SimpleJsonResourceReloadListener;
+import net.minecraft.util.GsonHelper;
+import net.minecraft.util.profiling.ProfilerFiller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads unit type definitions from data/&lt;namespace&gt;/unit_types/&lt;type&gt;.json into the UnitTypeRegistry (NeoForge)
+ * The file name is the type name; stats are given as {"base": ..., "per_level": ...} curves
+ */
+public class UnitTypeReloadListener extends SimpleJsonResourceReloadListener {
+    private static final Gson GSON = new GsonBuilder().create();
+
+    public UnitTypeReloadListener() {
+        super(GSON, "unit_types");
+    }
+
+    @Override
+    protected void apply(Map<ResourceLocation, JsonElement> files, ResourceManager resourceManager, ProfilerFiller profiler) {
+        List<UnitTypeRegistry.Definition> definitions = new ArrayList<>();
+        for (Map.Entry<ResourceLocation, JsonElement> entry : files.entrySet()) {
+            try {
+                JsonObject json = GsonHelper.convertToJsonObject(entry.getValue(), "unit type");
+                definitions.add(new UnitTypeRegistry.Definition(
+                        entry.getKey().getPath(),
+                        GsonHelper.getAsInt(json, "max_level", UnitTypeRegistry.DEFAULT_MAX_LEVEL),
+                        readCurve(json, "max_health"),
+                        readCurve(json, "attack_damage"),
+                        readCurve(json, "defense"),
+                        readCurve(json, "attack_speed")));
+            } catch (RuntimeException e) {
+                System.err.println("Failed to load unit type " + entry.getKey() + ": " + e.getMessage());
+            }
+        }
+
+        UnitTypeRegistry.getInstance().reload(definitions);
+        System.out.println("Dominion Rising: Loaded " + UnitTypeRegistry.getInstance().size() + " unit types");
+    }
+
+    private static StatCurve readCurve(JsonObject json, String key) {
+        JsonObject curve = GsonHelper.getAsJsonObject(json, key);
+        return new StatCurve(GsonHelper.getAsDouble(curve, "base"), GsonHelper.getAsDouble(curve, "per_level", 0.0));
+    }
+}
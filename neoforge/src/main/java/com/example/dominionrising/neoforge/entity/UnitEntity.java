@@ -1,14 +1,20 @@
 package com.example.dominionrising.neoforge.entity;
 
-import com.example.dominionrising.common.nation.Nation;
-import com.example.dominionrising.common.nation.NationManager;
+import com.example.dominionrising.common.config.DominionConfig;
+import com.example.dominionrising.common.nation.NationRegistry;
 import com.example.dominionrising.common.unit.NationUnit;
+import com.example.dominionrising.common.unit.UnitAiLod;
+import com.example.dominionrising.common.unit.UnitManager;
+import com.example.dominionrising.neoforge.events.NationPlayerEvents;
+import com.example.dominionrising.neoforge.registry.ModAttachments;
 import net.minecraft.core.BlockPos;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.syncher.EntityDataAccessor;
 import net.minecraft.network.syncher.EntityDataSerializers;
 import net.minecraft.network.syncher.SynchedEntityData;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.util.Mth;
 import net.minecraft.world.damagesource.DamageSource;
 import net.minecraft.world.entity.*;
 import net.minecraft.world.entity.ai.attributes.AttributeSupplier;
@@ -19,11 +25,14 @@ import net.minecraft.world.entity.ai.goal.target.NearestAttackableTargetGoal;
 import net.minecraft.world.entity.monster.Monster;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.Vec3;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Predicate;
 
 /**
  * NeoForge implementation of NationUnit as a Minecraft entity
@@ -32,10 +41,18 @@ import java.util.UUID;
 public class UnitEntity extends PathfinderMob {
     private static final EntityDataAccessor<String> UNIT_TYPE = SynchedEntityData.defineId(UnitEntity.class, EntityDataSerializers.STRING);
     private static final EntityDataAccessor<String> OWNER_NATION = SynchedEntityData.defineId(UnitEntity.class, EntityDataSerializers.STRING);
+    private static final EntityDataAccessor<Integer> OWNER_NATION_ID = SynchedEntityData.defineId(UnitEntity.class, EntityDataSerializers.INT);
     private static final EntityDataAccessor<Integer> UNIT_LEVEL = SynchedEntityData.defineId(UnitEntity.class, EntityDataSerializers.INT);
     
     private UUID unitId;
     private NationUnit unitData;
+    
+    // Position last pushed into the UnitManager spatial index
+    private String dimensionKey;
+    private double indexedX = Double.NaN, indexedY, indexedZ;
+    
+    // Goals are registered from the Mob constructor, before this is set; goals read it only when ticking
+    private final UnitAiLod aiLod = new UnitAiLod();
 
     public UnitEntity(EntityType<? extends UnitEntity> entityType, Level level) {
         super(entityType, level);
@@ -46,24 +63,28 @@ public class UnitEntity extends PathfinderMob {
         super.defineSynchedData(builder);
         builder.define(UNIT_TYPE, "soldier");
         builder.define(OWNER_NATION, "");
+        builder.define(OWNER_NATION_ID, NationRegistry.NONE);
         builder.define(UNIT_LEVEL, 1);
     }
 
     @Override
     protected void registerGoals() {
+        // Keeps running while hibernating, so hibernating units do not drown
         this.goalSelector.addGoal(1, new FloatGoal(this));
-        this.goalSelector.addGoal(2, new MeleeAttackGoal(this, 1.0D, false));
-        this.goalSelector.addGoal(3, new UnitAttackGoal(this, 1.0D, false));
-        this.goalSelector.addGoal(7, new UnitDefendGoal(this, 1.0D));
-        this.goalSelector.addGoal(8, new FollowOwnerNationPlayersGoal(this, 1.0D, 10.0F, 3.0F));
-        this.goalSelector.addGoal(9, new WaterAvoidingRandomStrollGoal(this, 0.8D));
-        this.goalSelector.addGoal(10, new LookAtPlayerGoal(this, Player.class, 8.0F));
-        this.goalSelector.addGoal(11, new RandomLookAroundGoal(this));
-
-        this.targetSelector.addGoal(1, new HurtByTargetGoal(this));
-        this.targetSelector.addGoal(2, new UnitTargetGoal(this));
-        this.targetSelector.addGoal(3, new DefendTargetGoal(this));
-        this.targetSelector.addGoal(4, new NearestAttackableTargetGoal<>(this, Monster.class, true));
+        // Idle and cosmetic goals are held back for units far from players; combat and target goals
+        // only stop while the unit hibernates
+        this.goalSelector.addGoal(2, new LodGatedGoal(this, new MeleeAttackGoal(this, 1.0D, false), UnitAiLod.GoalKind.COMBAT));
+        this.goalSelector.addGoal(3, new LodGatedGoal(this, new UnitAttackGoal(this, 1.0D, false), UnitAiLod.GoalKind.COMBAT));
+        this.goalSelector.addGoal(7, new LodGatedGoal(this, new UnitDefendGoal(this, 1.0D), UnitAiLod.GoalKind.IDLE));
+        this.goalSelector.addGoal(8, new LodGatedGoal(this, new FollowOwnerNationPlayersGoal(this, 1.0D, 10.0F, 3.0F), UnitAiLod.GoalKind.IDLE));
+        this.goalSelector.addGoal(9, new LodGatedGoal(this, new WaterAvoidingRandomStrollGoal(this, 0.8D), UnitAiLod.GoalKind.COSMETIC));
+        this.goalSelector.addGoal(10, new LodGatedGoal(this, new LookAtPlayerGoal(this, Player.class, 8.0F), UnitAiLod.GoalKind.COSMETIC));
+        this.goalSelector.addGoal(11, new LodGatedGoal(this, new RandomLookAroundGoal(this), UnitAiLod.GoalKind.COSMETIC));
+
+        this.targetSelector.addGoal(1, new LodGatedGoal(this, new HurtByTargetGoal(this), UnitAiLod.GoalKind.COMBAT));
+        this.targetSelector.addGoal(2, new LodGatedGoal(this, new UnitTargetGoal(this), UnitAiLod.GoalKind.COMBAT));
+        this.targetSelector.addGoal(3, new LodGatedGoal(this, new DefendTargetGoal(this), UnitAiLod.GoalKind.COMBAT));
+        this.targetSelector.addGoal(4, new LodGatedGoal(this, new SensedMonsterTargetGoal(this), UnitAiLod.GoalKind.COMBAT));
     }
 
     public static AttributeSupplier.Builder createAttributes() {
@@ -84,6 +105,7 @@ public class UnitEntity extends PathfinderMob {
         // Sync data to client
         this.entityData.set(UNIT_TYPE, unit.getType());
         this.entityData.set(OWNER_NATION, unit.getOwnerNation());
+        this.entityData.set(OWNER_NATION_ID, unit.getOwnerNationId());
         this.entityData.set(UNIT_LEVEL, unit.getLevel());
         
         // Update entity attributes based on unit data
@@ -96,6 +118,25 @@ public class UnitEntity extends PathfinderMob {
         this.setCustomNameVisible(true);
     }
 
+    /**
+     * Bind a loaded entity to its UnitManager record with a single lookup by unit ID
+     * @return true if the entity is bound, false if no record exists for its unit ID
+     */
+    public boolean reconnectUnitData() {
+        if (unitData != null) return true;
+        if (unitId == null) return false;
+        
+        NationUnit unit = UnitManager.getInstance().getUnit(unitId);
+        if (unit == null) return false;
+        
+        this.unitData = unit;
+        // The unit's nation id is authoritative; the nation may have been renamed since this entity was saved
+        this.entityData.set(OWNER_NATION_ID, unit.getOwnerNationId());
+        this.entityData.set(OWNER_NATION, unit.getOwnerNation());
+        updateAttributesFromUnit();
+        return true;
+    }
+
     /**
      * Update entity attributes from unit data
      */
@@ -112,6 +153,8 @@ public class UnitEntity extends PathfinderMob {
 
     @Override
     public boolean hurt(DamageSource damageSource, float amount) {
+        // React at full rate when attacked, however far the nearest player is and even while hibernating
+        aiLod.wake();
         if (unitData != null) {
             boolean survived = unitData.takeDamage((int) amount);
             if (!survived) {
@@ -125,18 +168,147 @@ public class UnitEntity extends PathfinderMob {
         return super.hurt(damageSource, amount);
     }
 
+    @Override
+    public void tick() {
+        super.tick();
+        if (!level().isClientSide && unitId != null && isAlive()) {
+            updateSpatialIndex();
+        }
+        if (!level().isClientSide && UnitAiLod.isUpdateDue(tickCount, getId())) {
+            updateAiLod();
+        }
+    }
+
+    /**
+     * Put this unit into the AI level-of-detail tier for its distance to the nearest player,
+     * and let it hibernate while nobody of its nation is online
+     */
+    private void updateAiLod() {
+        Player nearest = level().getNearestPlayer(this, -1.0D);
+        aiLod.update(nearest != null ? distanceToSqr(nearest) : -1.0D, getTarget() != null);
+        
+        boolean hibernate = DominionConfig.HIBERNATE_OFFLINE_NATIONS && getTarget() == null
+                && isOwnerNationOffline() && !hasDefendThreats();
+        if (hibernate != aiLod.isHibernating()) {
+            aiLod.setHibernating(hibernate);
+            if (hibernate) {
+                getNavigation().stop();
+            }
+        }
+    }
+
+    /**
+     * Check if this unit belongs to a live nation with no member online
+     * Units without a known owner (legacy entities whose nation name did not resolve) or of a disbanded
+     * nation have nobody who could come online to wake them, so they never count as offline
+     */
+    private boolean isOwnerNationOffline() {
+        int ownerNationId = getOwnerNationId();
+        if (ownerNationId == NationRegistry.NONE || NationRegistry.getInstance().getNation(ownerNationId) == null) {
+            return false;
+        }
+        return !NationPlayerEvents.ONLINE_PLAYERS.hasPlayers(ownerNationId);
+    }
+
+    /**
+     * Check if this unit defends a point with threats inside its zone
+     */
+    private boolean hasDefendThreats() {
+        if (unitData == null || unitData.getCurrentState() != NationUnit.UnitState.DEFENDING) return false;
+        double defendX = unitData.getDefendX();
+        double defendY = unitData.getDefendY();
+        double defendZ = unitData.getDefendZ();
+        if (defendX == 0 && defendY == 0 && defendZ == 0) return false;
+        return !UnitSensing.THREATS.getThreats(level(), getDimensionKey(), getOwnerNationId(), defendX, defendY, defendZ).isEmpty();
+    }
+
+    /**
+     * Check if this unit's AI is frozen because nobody of its nation is online
+     */
+    public boolean isHibernating() {
+        return aiLod.isHibernating();
+    }
+
+    /**
+     * Push this unit's position into the spatial index when it has moved
+     */
+    private void updateSpatialIndex() {
+        if (getX() == indexedX && getY() == indexedY && getZ() == indexedZ) {
+            return;
+        }
+        indexedX = getX();
+        indexedY = getY();
+        indexedZ = getZ();
+        UnitManager.getInstance().getSpatialIndex().update(unitId, getDimensionKey(), indexedX, indexedY, indexedZ);
+    }
+
+    /**
+     * Get the key of this unit's dimension, as used by the spatial and online player indexes
+     * Entities get a new instance when they change dimension, so it is computed once
+     */
+    private String getDimensionKey() {
+        if (dimensionKey == null) {
+            dimensionKey = level().dimension().location().toString();
+        }
+        return dimensionKey;
+    }
+
+    /**
+     * Get the sensed monsters and players in an area from the shared section samples
+     * Samples can be a few ticks old, so entities that died or moved out of the area since are skipped.
+     * @param area The area to look in
+     * @param filter Which of the sensed entities to keep
+     */
+    private List<LivingEntity> senseNearby(AABB area, Predicate<LivingEntity> filter) {
+        List<LivingEntity> sensed = new ArrayList<>();
+        UnitSensing.SENSOR.collect(level(), getDimensionKey(), area.minX, area.minY, area.minZ,
+                area.maxX, area.maxY, area.maxZ, sensed);
+        sensed.removeIf(entity -> !entity.isAlive() || entity.level() != level()
+                || !area.intersects(entity.getBoundingBox()) || !filter.test(entity));
+        return sensed;
+    }
+
+    /**
+     * Drop this unit from the spatial index (called when the entity leaves the level)
+     */
+    public void removeFromSpatialIndex() {
+        if (unitId != null) {
+            UnitManager.getInstance().getSpatialIndex().remove(unitId);
+        }
+        indexedX = Double.NaN;
+    }
+
+    /**
+     * Resolve an attack target by UUID with a single hash lookup in the server level
+     * Targets further than 32 blocks from this unit are ignored
+     */
+    @Nullable
+    private LivingEntity resolveTarget(UUID targetId) {
+        if (!(level() instanceof ServerLevel serverLevel)) return null;
+        
+        Entity entity = serverLevel.getEntity(targetId);
+        if (entity instanceof LivingEntity livingEntity
+                && getBoundingBox().inflate(32.0D).intersects(livingEntity.getBoundingBox())) {
+            return livingEntity;
+        }
+        return null;
+    }
+
     /**
      * Check if a player belongs to this unit's nation
      */
     public boolean isPlayerFromSameNation(Player player) {
+        return isNationMember(player, getOwnerNationId());
+    }
+
+    /**
+     * Check if a player belongs to a nation
+     */
+    public static boolean isNationMember(Player player, int nationId) {
         if (!(player instanceof ServerPlayer serverPlayer)) return false;
         
-        NationManager manager = NationManager.getInstance();
-        Nation playerNation = manager.getPlayerNation(serverPlayer.getUUID());
-        
-        if (playerNation == null) return false;
-        
-        return playerNation.getName().equals(getOwnerNation());
+        // Read the nation cached on the player; it only goes to NationManager after a membership change
+        return serverPlayer.getData(ModAttachments.PLAYER_NATION).isMemberOf(serverPlayer.getUUID(), nationId);
     }
 
     public String getUnitType() {
@@ -147,6 +319,13 @@ public class UnitEntity extends PathfinderMob {
         return this.entityData.get(OWNER_NATION);
     }
 
+    /**
+     * Get the NationRegistry id of this unit's nation (the name is only for display)
+     */
+    public int getOwnerNationId() {
+        return this.entityData.get(OWNER_NATION_ID);
+    }
+
     public int getUnitLevel() {
         return this.entityData.get(UNIT_LEVEL);
     }
@@ -165,6 +344,7 @@ public class UnitEntity extends PathfinderMob {
         super.addAdditionalSaveData(compound);
         compound.putString("UnitType", getUnitType());
         compound.putString("OwnerNation", getOwnerNation());
+        compound.putInt("OwnerNationId", getOwnerNationId());
         compound.putInt("UnitLevel", getUnitLevel());
         if (unitId != null) {
             compound.putUUID("UnitId", unitId);
@@ -176,13 +356,14 @@ public class UnitEntity extends PathfinderMob {
         super.readAdditionalSaveData(compound);
         this.entityData.set(UNIT_TYPE, compound.getString("UnitType"));
         this.entityData.set(OWNER_NATION, compound.getString("OwnerNation"));
+        // Entities saved before nation ids only have the name
+        this.entityData.set(OWNER_NATION_ID, compound.contains("OwnerNationId")
+                ? compound.getInt("OwnerNationId")
+                : NationRegistry.getInstance().find(compound.getString("OwnerNation")));
         this.entityData.set(UNIT_LEVEL, compound.getInt("UnitLevel"));
         if (compound.hasUUID("UnitId")) {
+            // Unit data is reconnected by UnitEntityEvents when the entity joins the level
             this.unitId = compound.getUUID("UnitId");
-            // Try to reconnect to unit data
-            if (!level().isClientSide) {
-                // TODO: Reconnect to UnitManager data on world load
-            }
         }
     }
 
@@ -207,7 +388,7 @@ public class UnitEntity extends PathfinderMob {
             if (targetId == null) return false;
             
             // Find target entity by UUID
-            LivingEntity target = findEntityByUUID(targetId);
+            LivingEntity target = unit.resolveTarget(targetId);
             if (target != null && target.isAlive()) {
                 unit.setTarget(target);
                 return super.canUse();
@@ -215,19 +396,6 @@ public class UnitEntity extends PathfinderMob {
             
             return false;
         }
-
-        private LivingEntity findEntityByUUID(UUID targetId) {
-            // Use server level entity iteration
-            if (unit.level().isClientSide) return null;
-            
-            for (Entity entity : unit.level().getEntitiesOfClass(LivingEntity.class, 
-                    unit.getBoundingBox().inflate(32.0D))) {
-                if (entity.getUUID().equals(targetId)) {
-                    return (LivingEntity) entity;
-                }
-            }
-            return null;
-        }
     }
 
     /**
@@ -252,11 +420,17 @@ public class UnitEntity extends PathfinderMob {
             if (unit.unitData.getCurrentState() != NationUnit.UnitState.DEFENDING) return false;
             
             // Get defend position
-            Vec3 defendPos = new Vec3(unit.unitData.getDefendX(), unit.unitData.getDefendY(), unit.unitData.getDefendZ());
-            if (defendPos.x == 0 && defendPos.y == 0 && defendPos.z == 0) return false;
+            double defendX = unit.unitData.getDefendX();
+            double defendY = unit.unitData.getDefendY();
+            double defendZ = unit.unitData.getDefendZ();
+            if (defendX == 0 && defendY == 0 && defendZ == 0) return false;
             
-            this.defendPosition = BlockPos.containing(defendPos);
-            double distanceToDefendPos = unit.distanceToSqr(defendPos);
+            // Keep the block of an unchanged defend position instead of creating it again
+            if (defendPosition == null || defendPosition.getX() != Mth.floor(defendX)
+                    || defendPosition.getY() != Mth.floor(defendY) || defendPosition.getZ() != Mth.floor(defendZ)) {
+                this.defendPosition = BlockPos.containing(defendX, defendY, defendZ);
+            }
+            double distanceToDefendPos = unit.distanceToSqr(defendX, defendY, defendZ);
             
             // If unit is outside the 35-block radius, force return to defend position
             if (distanceToDefendPos > MAX_DEFEND_DISTANCE_SQ) {
@@ -279,8 +453,8 @@ public class UnitEntity extends PathfinderMob {
             
             if (defendPosition == null) return false;
             
-            Vec3 defendPos = Vec3.atCenterOf(defendPosition);
-            double distanceToDefendPos = unit.distanceToSqr(defendPos);
+            double distanceToDefendPos = unit.distanceToSqr(defendPosition.getX() + 0.5D,
+                defendPosition.getY() + 0.5D, defendPosition.getZ() + 0.5D);
             
             // Always continue if outside max range (priority override)
             if (distanceToDefendPos > MAX_DEFEND_DISTANCE_SQ) {
@@ -354,7 +528,7 @@ public class UnitEntity extends PathfinderMob {
             if (targetId == null) return false;
             
             // Find and set target
-            LivingEntity target = findEntityByUUID(targetId);
+            LivingEntity target = unit.resolveTarget(targetId);
             if (target != null && target.isAlive()) {
                 unit.setTarget(target);
                 return true;
@@ -370,18 +544,26 @@ public class UnitEntity extends PathfinderMob {
                    unit.unitData != null && 
                    unit.unitData.getCurrentState() == NationUnit.UnitState.ATTACKING;
         }
+    }
 
-        private LivingEntity findEntityByUUID(UUID targetId) {
-            // Use server level entity iteration
-            if (unit.level().isClientSide) return null;
-            
-            for (Entity entity : unit.level().getEntitiesOfClass(LivingEntity.class, 
-                    unit.getBoundingBox().inflate(32.0D))) {
-                if (entity.getUUID().equals(targetId)) {
-                    return (LivingEntity) entity;
-                }
-            }
-            return null;
+    /**
+     * Targets the nearest monster like NearestAttackableTargetGoal, reading the shared section samples
+     * instead of querying the level for every unit
+     */
+    private static class SensedMonsterTargetGoal extends NearestAttackableTargetGoal<Monster> {
+        private final UnitEntity unit;
+
+        public SensedMonsterTargetGoal(UnitEntity unit) {
+            super(unit, Monster.class, true);
+            this.unit = unit;
+        }
+
+        @Override
+        protected void findTarget() {
+            List<LivingEntity> monsters = unit.senseNearby(getTargetSearchArea(getFollowDistance()),
+                entity -> entity instanceof Monster);
+            this.target = unit.level().getNearestEntity(monsters, targetConditions, unit,
+                unit.getX(), unit.getEyeY(), unit.getZ());
         }
     }
 
@@ -401,60 +583,41 @@ public class UnitEntity extends PathfinderMob {
             if (unit.unitData == null) return false;
             if (unit.unitData.getCurrentState() != NationUnit.UnitState.DEFENDING) return false;
             
-            // Look for hostile entities around unit's current position (within defend range)
-            Vec3 defendPos = new Vec3(unit.unitData.getDefendX(), unit.unitData.getDefendY(), unit.unitData.getDefendZ());
-            if (defendPos.x == 0 && defendPos.y == 0 && defendPos.z == 0) return false;
+            // Get defend position
+            double defendX = unit.unitData.getDefendX();
+            double defendY = unit.unitData.getDefendY();
+            double defendZ = unit.unitData.getDefendZ();
+            if (defendX == 0 && defendY == 0 && defendZ == 0) return false;
             
             // Only defend if we're within the 35-block defend boundary
             double maxDefendDistanceSq = 35.0D * 35.0D;
-            if (unit.distanceToSqr(defendPos) > maxDefendDistanceSq) return false;
+            if (unit.distanceToSqr(defendX, defendY, defendZ) > maxDefendDistanceSq) return false;
             
-            // Find hostile entities within 12 blocks of the unit's current position
-            // But also ensure they're within the 35-block defend boundary
-            List<LivingEntity> hostileEntities = unit.level().getEntitiesOfClass(LivingEntity.class,
-                unit.getBoundingBox().inflate(12.0D),
-                entity -> {
-                    // Don't target self
-                    if (entity == unit) return false;
-                    
-                    // Only target entities within the defend boundary (35 blocks from defend position)
-                    if (entity.distanceToSqr(defendPos) > maxDefendDistanceSq) {
-                        return false;
-                    }
-                    
-                    // Target hostile mobs (monsters)
-                    if (entity instanceof net.minecraft.world.entity.monster.Monster) {
-                        return true;
-                    }
-                    // Target players from other nations or players without a nation
-                    if (entity instanceof Player player) {
-                        return !unit.isPlayerFromSameNation(player);
-                    }
-                    // Don't target other units or neutral entities
-                    return false;
-                }
-            );
-            
-            if (!hostileEntities.isEmpty()) {
-                // Find the closest hostile entity to the unit
-                LivingEntity closest = null;
-                double closestDistance = Double.MAX_VALUE;
-                
-                for (LivingEntity entity : hostileEntities) {
-                    double distance = unit.distanceToSqr(entity);
-                    if (distance < closestDistance) {
-                        closest = entity;
-                        closestDistance = distance;
-                    }
-                }
+            // Read the threats inside the defend boundary, shared by every defender of this point,
+            // and pick the one closest to the unit within 12 blocks of its current position
+            AABB reach = unit.getBoundingBox().inflate(12.0D);
+            LivingEntity closest = null;
+            double closestDistance = Double.MAX_VALUE;
+            for (LivingEntity entity : UnitSensing.THREATS.getThreats(unit.level(), unit.getDimensionKey(),
+                    unit.getOwnerNationId(), defendX, defendY, defendZ)) {
+                // The list can be a few ticks old, so check the threat is still there
+                if (!entity.isAlive() || !reach.intersects(entity.getBoundingBox())) continue;
+                if (entity.distanceToSqr(defendX, defendY, defendZ) > maxDefendDistanceSq) continue;
+                if (entity instanceof Player player && unit.isPlayerFromSameNation(player)) continue;
                 
-                if (closest != null) {
-                    this.hostileTarget = closest;
-                    unit.setTarget(closest);
-                    return true;
+                double distance = unit.distanceToSqr(entity);
+                if (distance < closestDistance) {
+                    closest = entity;
+                    closestDistance = distance;
                 }
             }
             
+            if (closest != null) {
+                this.hostileTarget = closest;
+                unit.setTarget(closest);
+                return true;
+            }
+            
             return false;
         }
 
@@ -464,12 +627,14 @@ public class UnitEntity extends PathfinderMob {
             if (unit.unitData == null || unit.unitData.getCurrentState() != NationUnit.UnitState.DEFENDING) return false;
             
             // Check if we're still within the 35-block defend boundary
-            Vec3 defendPos = new Vec3(unit.unitData.getDefendX(), unit.unitData.getDefendY(), unit.unitData.getDefendZ());
+            double defendX = unit.unitData.getDefendX();
+            double defendY = unit.unitData.getDefendY();
+            double defendZ = unit.unitData.getDefendZ();
             double maxDefendDistanceSq = 35.0D * 35.0D;
             
             // Stop targeting if either the unit or the target moved outside the defend boundary
-            if (unit.distanceToSqr(defendPos) > maxDefendDistanceSq || 
-                hostileTarget.distanceToSqr(defendPos) > maxDefendDistanceSq) {
+            if (unit.distanceToSqr(defendX, defendY, defendZ) > maxDefendDistanceSq || 
+                hostileTarget.distanceToSqr(defendX, defendY, defendZ) > maxDefendDistanceSq) {
                 return false;
             }
             
@@ -510,8 +675,18 @@ public class UnitEntity extends PathfinderMob {
                 return false;
             }
             
-            Player closest = unit.level().getNearestPlayer(unit.getX(), unit.getY(), unit.getZ(), startDistance, false);
-            if (closest != null && unit.isPlayerFromSameNation(closest)) {
+            // Only this nation's players in this dimension, so a foreigner standing closer does not hide them
+            Player closest = null;
+            double closestDistance = (double) startDistance * startDistance;
+            for (ServerPlayer player : NationPlayerEvents.ONLINE_PLAYERS.getPlayers(unit.getOwnerNationId(), unit.getDimensionKey())) {
+                if (player.isSpectator()) continue;
+                double distance = unit.distanceToSqr(player);
+                if (distance < closestDistance) {
+                    closest = player;
+                    closestDistance = distance;
+                }
+            }
+            if (closest != null) {
                 this.closestNationPlayer = closest;
                 return true;
             }
@@ -550,4 +725,55 @@ public class UnitEntity extends PathfinderMob {
             }
         }
     }
+
+    /**
+     * Runs a goal subject to the unit's AI level of detail and hibernation (see UnitAiLod.GoalKind)
+     */
+    private static class LodGatedGoal extends Goal {
+        private final UnitEntity unit;
+        private final Goal goal;
+        private final UnitAiLod.GoalKind kind;
+
+        public LodGatedGoal(UnitEntity unit, Goal goal, UnitAiLod.GoalKind kind) {
+            this.unit = unit;
+            this.goal = goal;
+            this.kind = kind;
+            this.setFlags(goal.getFlags());
+        }
+
+        @Override
+        public boolean canUse() {
+            return unit.aiLod.mayStart(kind, unit.tickCount) && goal.canUse();
+        }
+
+        @Override
+        public boolean canContinueToUse() {
+            return unit.aiLod.mayContinue(kind) && goal.canContinueToUse();
+        }
+
+        @Override
+        public boolean isInterruptable() {
+            return goal.isInterruptable();
+        }
+
+        @Override
+        public void start() {
+            goal.start();
+        }
+
+        @Override
+        public void stop() {
+            goal.stop();
+        }
+
+        @Override
+        public boolean requiresUpdateEveryTick() {
+            return goal.requiresUpdateEveryTick();
+        }
+
+        @Override
+        public void tick() {
+            goal.tick();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.example.dominionrising.neoforge.entity;
+
+import com.example.dominionrising.common.unit.UnitReconciler;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server-side registry of loaded unit entities keyed by their NationUnit ID (NeoForge)
+ * Maintained from entity join/leave events so commands can find a unit's entity with one lookup
+ */
+public class UnitEntityRegistry {
+    private static final Map<UUID, UnitEntity> entitiesByUnitId = new ConcurrentHashMap<>();
+    
+    /**
+     * Loaded-entity view handed to the unit reconciliation pass
+     */
+    public static final UnitReconciler.EntityView RECONCILER_VIEW = new UnitReconciler.EntityView() {
+        @Override
+        public boolean isLoaded(UUID unitId) {
+            return entitiesByUnitId.containsKey(unitId);
+        }
+        
+        @Override
+        public Collection<UUID> loadedUnitIds() {
+            return new ArrayList<>(entitiesByUnitId.keySet());
+        }
+        
+        @Override
+        public boolean bind(UUID unitId) {
+            UnitEntity entity = entitiesByUnitId.get(unitId);
+            return entity != null && entity.reconnectUnitData();
+        }
+    };
+    
+    /**
+     * Register a unit entity that joined a server level
+     */
+    public static void register(UnitEntity entity) {
+        if (entity.getUnitId() != null) {
+            entitiesByUnitId.put(entity.getUnitId(), entity);
+        }
+    }
+    
+    /**
+     * Unregister a unit entity that left its level
+     * Only removes the mapping if it still points at this entity
+     */
+    public static void unregister(UnitEntity entity) {
+        if (entity.getUnitId() != null) {
+            entitiesByUnitId.remove(entity.getUnitId(), entity);
+        }
+    }
+    
+    /**
+     * Get the loaded entity for a unit
+     * @param unitId The NationUnit ID
+     * @return The entity, or null if it is not loaded
+     */
+    @Nullable
+    public static UnitEntity get(UUID unitId) {
+        return unitId != null ? entitiesByUnitId.get(unitId) : null;
+    }
+    
+    /**
+     * Get the number of loaded unit entities
+     */
+    public static int size() {
+        return entitiesByUnitId.size();
+    }
+    
+    /**
+     * Get the number of loaded unit entities that are hibernating
+     */
+    public static int countHibernating() {
+        int count = 0;
+        for (UnitEntity entity : entitiesByUnitId.values()) {
+            if (entity.isHibernating()) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Clear all data (cleanup)
+     */
+    public static void clear() {
+        entitiesByUnitId.clear();
+    }
+}
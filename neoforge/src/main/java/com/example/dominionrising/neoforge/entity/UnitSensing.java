@@ -0,0 +1,76 @@
+package com.example.dominionrising.neoforge.entity;
+
+import com.example.dominionrising.common.config.DominionConfig;
+import com.example.dominionrising.common.unit.DefendThreatMap;
+import com.example.dominionrising.common.unit.SectionSensor;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.monster.Monster;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.AABB;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared sensing of hostile mobs and players for unit target goals
+ * Each chunk section is scanned at most once per sensing interval, however many units look around in it,
+ * and each defend point's threats are gathered once per interval for all of its defenders
+ */
+public final class UnitSensing {
+    public static final SectionSensor<Level, LivingEntity> SENSOR =
+            new SectionSensor<>(UnitSensing::scan, DominionConfig.SENSING_INTERVAL);
+
+    /**
+     * Radius of the zone units defend around their defend position
+     */
+    public static final double DEFEND_RADIUS = 35.0D;
+
+    public static final DefendThreatMap<Level, LivingEntity> THREATS =
+            new DefendThreatMap<>(UnitSensing::scanThreats, DEFEND_RADIUS, DominionConfig.SENSING_INTERVAL);
+
+    private UnitSensing() {}
+
+    /**
+     * Collect the monsters and players whose position lies in a section
+     * An entity whose box reaches into neighbouring sections is only kept by the section it stands in
+     */
+    private static void scan(Level level, int sectionX, int sectionY, int sectionZ, List<LivingEntity> into) {
+        double minX = SectionPos.sectionToBlockCoord(sectionX);
+        double minY = SectionPos.sectionToBlockCoord(sectionY);
+        double minZ = SectionPos.sectionToBlockCoord(sectionZ);
+        AABB section = new AABB(minX, minY, minZ, minX + 16.0D, minY + 16.0D, minZ + 16.0D);
+        for (LivingEntity entity : level.getEntitiesOfClass(LivingEntity.class, section,
+                entity -> entity instanceof Monster || entity instanceof Player)) {
+            if (SectionPos.blockToSectionCoord(entity.getBlockX()) == sectionX
+                    && SectionPos.blockToSectionCoord(entity.getBlockY()) == sectionY
+                    && SectionPos.blockToSectionCoord(entity.getBlockZ()) == sectionZ) {
+                into.add(entity);
+            }
+        }
+    }
+
+    /**
+     * Collect the monsters and foreign players inside a nation's defend zone from the section samples
+     */
+    private static void scanThreats(Level level, String dimension, int nationId, double x, double y, double z,
+                                    double radius, DefendThreatMap.Sink<LivingEntity> into) {
+        List<LivingEntity> sensed = new ArrayList<>();
+        SENSOR.collect(level, dimension, x - radius, y - radius, z - radius, x + radius, y + radius, z + radius, sensed);
+        double radiusSq = radius * radius;
+        for (LivingEntity entity : sensed) {
+            if (!entity.isAlive()) {
+                continue;
+            }
+            double distanceSq = entity.distanceToSqr(x, y, z);
+            if (distanceSq > radiusSq) {
+                continue;
+            }
+            if (entity instanceof Monster
+                    || entity instanceof Player player && !UnitEntity.isNationMember(player, nationId)) {
+                into.add(entity, distanceSq);
+            }
+        }
+    }
+}
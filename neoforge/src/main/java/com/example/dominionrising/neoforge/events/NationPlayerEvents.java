@@ -0,0 +1,56 @@
+package com.example.dominionrising.neoforge.events;
+
+import com.example.dominionrising.common.nation.NationPlayerIndex;
+import net.minecraft.server.level.ServerPlayer;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+
+/**
+ * Keeps the index of online players per nation and dimension in sync with logins, logouts,
+ * respawns and dimension changes in NeoForge
+ */
+@EventBusSubscriber
+public class NationPlayerEvents {
+    /**
+     * Online players by nation and dimension (server thread only)
+     */
+    public static final NationPlayerIndex<ServerPlayer> ONLINE_PLAYERS = new NationPlayerIndex<>();
+    
+    @SubscribeEvent
+    public static void onPlayerLoggedIn(PlayerEvent.PlayerLoggedInEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            ONLINE_PLAYERS.add(player.getUUID(), player, dimensionKey(player));
+        }
+    }
+    
+    @SubscribeEvent
+    public static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        ONLINE_PLAYERS.remove(event.getEntity().getUUID());
+    }
+    
+    /**
+     * Respawning replaces the player object, possibly in another dimension
+     */
+    @SubscribeEvent
+    public static void onPlayerRespawn(PlayerEvent.PlayerRespawnEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            ONLINE_PLAYERS.add(player.getUUID(), player, dimensionKey(player));
+        }
+    }
+    
+    @SubscribeEvent
+    public static void onPlayerChangedDimension(PlayerEvent.PlayerChangedDimensionEvent event) {
+        ONLINE_PLAYERS.changeDimension(event.getEntity().getUUID(), event.getTo().location().toString());
+    }
+    
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        ONLINE_PLAYERS.clear();
+    }
+    
+    private static String dimensionKey(ServerPlayer player) {
+        return player.level().dimension().location().toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.example.dominionrising.neoforge.events;
+
+import com.example.dominionrising.common.config.DominionConfig;
+import com.example.dominionrising.common.unit.NationUnit;
+import com.example.dominionrising.common.unit.UnitManager;
+import com.example.dominionrising.neoforge.entity.UnitEntity;
+import com.example.dominionrising.neoforge.entity.UnitEntityRegistry;
+import com.example.dominionrising.neoforge.entity.UnitSensing;
+import net.minecraft.world.entity.Entity;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.entity.EntityJoinLevelEvent;
+import net.neoforged.neoforge.event.entity.EntityLeaveLevelEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+
+/**
+ * Keeps server-side unit indexes in sync as unit entities enter and leave levels in NeoForge
+ */
+@EventBusSubscriber
+public class UnitEntityEvents {
+    
+    /**
+     * Register loaded and freshly spawned unit entities by unit ID and bind them to their unit record
+     */
+    @SubscribeEvent
+    public static void onEntityJoin(EntityJoinLevelEvent event) {
+        if (!event.getLevel().isClientSide() && event.getEntity() instanceof UnitEntity unitEntity) {
+            UnitEntityRegistry.register(unitEntity);
+            unitEntity.reconnectUnitData();
+        }
+    }
+    
+    /**
+     * Unregister the entity and forget its position when it is killed, discarded or unloaded with its chunk
+     * A killed entity also kills its unit, which drops it from the unit indexes right away
+     */
+    @SubscribeEvent
+    public static void onEntityLeave(EntityLeaveLevelEvent event) {
+        if (!event.getLevel().isClientSide() && event.getEntity() instanceof UnitEntity unitEntity) {
+            UnitEntityRegistry.unregister(unitEntity);
+            unitEntity.removeFromSpatialIndex();
+            
+            NationUnit unit = unitEntity.getUnitData();
+            if (unitEntity.getRemovalReason() == Entity.RemovalReason.KILLED && unit != null && unit.isAlive()) {
+                unit.kill();
+            }
+        }
+    }
+    
+    /**
+     * Reap a batch of dead units, advance the unit record/entity reconciliation pass by one slice
+     * and age the shared sensing samples and defend threat lists
+     */
+    @SubscribeEvent
+    public static void onServerTick(ServerTickEvent.Post event) {
+        UnitManager manager = UnitManager.getInstance();
+        manager.reapDeadUnits(DominionConfig.REAP_BATCH_SIZE);
+        manager.getReconciler().tick(manager, UnitEntityRegistry.RECONCILER_VIEW);
+        UnitSensing.SENSOR.tick();
+        UnitSensing.THREATS.tick();
+    }
+    
+    /**
+     * Drop sensing samples so they do not keep the stopped server's entities alive
+     */
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        UnitSensing.SENSOR.clear();
+        UnitSensing.THREATS.clear();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.dominionrising.neoforge.registry;
+
+import com.example.dominionrising.common.nation.PlayerNationCache;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.neoforge.attachment.AttachmentType;
+import net.neoforged.neoforge.registries.DeferredRegister;
+import net.neoforged.neoforge.registries.NeoForgeRegistries;
+
+import java.util.function.Supplier;
+
+/**
+ * Registry for Dominion Rising data attachments in NeoForge
+ */
+public class ModAttachments {
+    public static final DeferredRegister<AttachmentType<?>> ATTACHMENT_TYPES = DeferredRegister.create(NeoForgeRegistries.ATTACHMENT_TYPES, "dominionrising");
+
+    // Derived from NationManager, so it is neither saved nor copied on respawn
+    public static final Supplier<AttachmentType<PlayerNationCache>> PLAYER_NATION = ATTACHMENT_TYPES.register("player_nation",
+            () -> AttachmentType.builder(PlayerNationCache::new).build());
+
+    public static void register(IEventBus eventBus) {
+        ATTACHMENT_TYPES.register(eventBus);
+    }
+}
\ No newline at end of file